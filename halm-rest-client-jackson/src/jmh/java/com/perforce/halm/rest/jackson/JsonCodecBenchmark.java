@@ -0,0 +1,112 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.jackson;
+
+import com.perforce.halm.rest.CodecRegistry;
+import com.perforce.halm.rest.ConformanceData;
+import com.perforce.halm.rest.GsonJsonCodec;
+import com.perforce.halm.rest.JsonCodec;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the JSON codecs on the largest requests and responses, writing an automation build and reading
+ * automation suites. The build is written to a writer that discards it, so only the codec is measured.
+ *
+ * Run with the GC profiler to compare gc.alloc.rate.norm too:
+ * ./gradlew :halm-rest-client-jackson:jmh -Pjmh.includes=JsonCodecBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JsonCodecBenchmark {
+    @Param({"gson", "jackson"})
+    public String codecName;
+
+    private JsonCodec codec;
+    private AutomationBuild build;
+    private String suitesJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codec = "gson".equals(codecName) ? new GsonJsonCodec(CodecRegistry.getDefault().getGson()) : new JacksonJsonCodec();
+        build = ConformanceData.newAutomationBuild(10000);
+        suitesJson = ConformanceData.automationSuitesJson(1000);
+    }
+
+    @Benchmark
+    public void writeAutomationBuild() throws IOException {
+        codec.toJson(build, AutomationBuild.class, DiscardingWriter.INSTANCE);
+    }
+
+    @Benchmark
+    public Object readAutomationSuites() throws IOException {
+        return codec.fromJson(new StringReader(suitesJson), AutomationSuitesContainer.class);
+    }
+
+    /**
+     * Writer that drops everything written to it.
+     */
+    static final class DiscardingWriter extends Writer {
+        static final DiscardingWriter INSTANCE = new DiscardingWriter();
+
+        @Override
+        public void write(int c) {}
+
+        @Override
+        public void write(String str, int off, int len) {}
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {}
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
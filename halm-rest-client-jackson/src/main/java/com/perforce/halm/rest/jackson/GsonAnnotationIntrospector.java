@@ -0,0 +1,102 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.jackson;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.databind.jsontype.impl.StdTypeResolverBuilder;
+import com.perforce.halm.rest.types.deserializers.PolymorphicTypeAdapterFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes Jackson lay out the model classes the way Gson does. Properties are written in field order, the class's own
+ * fields before those of its superclasses, and the polymorphic types are resolved by the same discriminator property
+ * as the {@link PolymorphicTypeAdapterFactory} they are registered with.
+ */
+final class GsonAnnotationIntrospector extends NopAnnotationIntrospector {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Class<?>, String> discriminators = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param polymorphicTypes The polymorphic types, by base type
+     */
+    GsonAnnotationIntrospector(final List<PolymorphicTypeAdapterFactory<?>> polymorphicTypes) {
+        for (PolymorphicTypeAdapterFactory<?> factory : polymorphicTypes) {
+            this.discriminators.put(factory.getBaseType(), factory.getDiscriminator());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] findSerializationPropertyOrder(AnnotatedClass ac) {
+        List<String> names = new ArrayList<>();
+        for (Class<?> type = ac.getRawType(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+                        && !names.contains(field.getName())) {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return names.isEmpty() ? null : names.toArray(new String[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TypeResolverBuilder<?> findTypeResolver(MapperConfig<?> config, AnnotatedClass ac, JavaType baseType) {
+        // Only the base type itself, as the Gson factories only handle the base type.
+        String discriminator = this.discriminators.get(ac.getRawType());
+        if (discriminator == null) {
+            return null;
+        }
+
+        // The discriminator is one of the subtype's fields, written in its place and read like any other property.
+        return new StdTypeResolverBuilder()
+            .init(JsonTypeInfo.Id.NAME, null)
+            .inclusion(JsonTypeInfo.As.EXISTING_PROPERTY)
+            .typeProperty(discriminator)
+            .typeIdVisibility(true);
+    }
+}
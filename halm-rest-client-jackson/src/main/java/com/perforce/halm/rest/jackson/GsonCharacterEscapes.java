@@ -0,0 +1,88 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.jackson;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Escapes strings the way Gson does by default. Control characters and the HTML characters {@code < > & = '} are
+ * written as lowercase unicode escapes, Jackson's own are uppercase and leave the HTML characters as they are. The
+ * line and paragraph separators are escaped too, as Gson always does.
+ */
+final class GsonCharacterEscapes extends CharacterEscapes {
+    private static final long serialVersionUID = 1L;
+
+    private static final int[] ASCII_ESCAPES = standardAsciiEscapesForJSON();
+    private static final SerializableString[] ASCII_SEQUENCES = new SerializableString[128];
+    private static final SerializableString LINE_SEPARATOR = new SerializedString("\\u2028");
+    private static final SerializableString PARAGRAPH_SEPARATOR = new SerializedString("\\u2029");
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            escape(c);
+        }
+        for (char c : "<>&='".toCharArray()) {
+            escape(c);
+        }
+
+        // Short forms, as Gson writes them.
+        ASCII_ESCAPES['\t'] = 't';
+        ASCII_ESCAPES['\b'] = 'b';
+        ASCII_ESCAPES['\n'] = 'n';
+        ASCII_ESCAPES['\r'] = 'r';
+        ASCII_ESCAPES['\f'] = 'f';
+    }
+
+    private static void escape(final int c) {
+        ASCII_ESCAPES[c] = ESCAPE_CUSTOM;
+        ASCII_SEQUENCES[c] = new SerializedString(String.format("\\u%04x", c));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getEscapeCodesForAscii() {
+        return ASCII_ESCAPES;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SerializableString getEscapeSequence(int ch) {
+        if (ch < ASCII_SEQUENCES.length) {
+            return ASCII_SEQUENCES[ch];
+        }
+        if (ch == '\u2028') {
+            return LINE_SEPARATOR;
+        }
+        return ch == '\u2029' ? PARAGRAPH_SEPARATOR : null;
+    }
+}
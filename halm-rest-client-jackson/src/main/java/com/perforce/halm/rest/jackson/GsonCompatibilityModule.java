@@ -0,0 +1,135 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.jackson;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
+import com.perforce.halm.rest.types.deserializers.PolymorphicTypeAdapterFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configures Jackson to read and write the model classes as the client's Gson configuration does: property order and
+ * polymorphic types from {@link GsonAnnotationIntrospector}, timestamps in the format of {@link InstantTypeAdapter},
+ * and nulls for primitive fields skipped, leaving the field's default.
+ */
+final class GsonCompatibilityModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    private static final Class<?>[] PRIMITIVES = {
+        boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class
+    };
+
+    private final transient List<PolymorphicTypeAdapterFactory<?>> polymorphicTypes;
+
+    /**
+     * Constructor
+     *
+     * @param polymorphicTypes The polymorphic types, by base type
+     */
+    GsonCompatibilityModule(final List<PolymorphicTypeAdapterFactory<?>> polymorphicTypes) {
+        super("GsonCompatibilityModule");
+        this.polymorphicTypes = new ArrayList<>(polymorphicTypes);
+        this.addSerializer(Instant.class, new InstantSerializer());
+        this.addDeserializer(Instant.class, new InstantDeserializer());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.insertAnnotationIntrospector(new GsonAnnotationIntrospector(this.polymorphicTypes));
+
+        for (PolymorphicTypeAdapterFactory<?> factory : this.polymorphicTypes) {
+            for (Map.Entry<String, ? extends Class<?>> subtype : factory.getSubtypes().entrySet()) {
+                context.registerSubtypes(new NamedType(subtype.getValue(), subtype.getKey()));
+            }
+        }
+
+        for (Class<?> primitive : PRIMITIVES) {
+            context.configOverride(primitive).setSetterInfo(JsonSetter.Value.forValueNulls(Nulls.SKIP));
+        }
+    }
+
+    /**
+     * Writes timestamps with {@link InstantTypeAdapter#format(Instant)}.
+     */
+    static final class InstantSerializer extends StdScalarSerializer<Instant> {
+        private static final long serialVersionUID = 1L;
+
+        InstantSerializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public void serialize(Instant value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(InstantTypeAdapter.format(value));
+        }
+    }
+
+    /**
+     * Reads timestamps with {@link InstantTypeAdapter#parse(CharSequence)}.
+     */
+    static final class InstantDeserializer extends StdScalarDeserializer<Instant> {
+        private static final long serialVersionUID = 1L;
+
+        InstantDeserializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public Instant deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.hasToken(JsonToken.VALUE_STRING)) {
+                return (Instant) ctxt.handleUnexpectedToken(Instant.class, p);
+            }
+            String text = p.getText();
+            try {
+                return InstantTypeAdapter.parse(text);
+            }
+            catch (DateTimeParseException ex) {
+                return (Instant) ctxt.handleWeirdStringValue(Instant.class, text, ex.getMessage());
+            }
+        }
+    }
+}
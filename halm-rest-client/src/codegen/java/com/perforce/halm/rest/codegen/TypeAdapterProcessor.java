@@ -0,0 +1,827 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a streaming Gson TypeAdapter for each class marked with GenerateTypeAdapter, and a
+ * GeneratedTypeAdapterFactory that creates them. The factory is written to the longest package shared by the
+ * marked classes.
+ *
+ * Each adapter reads and writes the class the way Gson's reflective adapter does: subclass fields before superclass
+ * fields, static and transient fields skipped, SerializedName and JsonAdapter honoured, and JSON nulls ignored for
+ * primitive fields. Fields are accessed directly when the adapter can see them, otherwise through their getter and
+ * setter. These may be package-private, so the fields themselves can stay private. Where the public getter has a
+ * different type than the field, the accessors can add a suffix to the usual name, or to its singular for plural field
+ * names, as in getItemsContainer() and getTestCaseIDArray(). Values are written with the adapter for the field's
+ * declared type, lists of strings and of other generated classes are read and written by the adapter itself. Final
+ * fields without a setter keep the value their constructor gives them, where Gson would overwrite it. Adapters also
+ * implement PartialObjectReader, so a polymorphic adapter that has read the discriminator can hand the rest of the
+ * object over without building a JSON tree.
+ */
+@SupportedAnnotationTypes(TypeAdapterProcessor.ANNOTATION)
+public final class TypeAdapterProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "com.perforce.halm.rest.types.GenerateTypeAdapter";
+    static final String FACTORY_NAME = "GeneratedTypeAdapterFactory";
+
+    private static final String PARTIAL_OBJECT_READER =
+        "com.perforce.halm.rest.types.deserializers.PartialObjectReader";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+    private static final String TYPE_ADAPTER = "com.google.gson.TypeAdapter";
+    private static final String TYPE_ADAPTER_FACTORY = "com.google.gson.TypeAdapterFactory";
+
+    private final List<TypeElement> generated = new ArrayList<>();
+    private boolean factoryWritten = false;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = this.processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        if (annotation == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (this.factoryWritten) {
+                this.error(element, "The type adapter factory was already written, classes can't be marked " +
+                    "in generated sources.");
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            List<Property> properties = this.collectProperties(type);
+            if (properties != null) {
+                this.writeSource(type, type.getSimpleName() + "TypeAdapter", this.adapterSource(type, properties),
+                    type);
+                this.generated.add(type);
+            }
+        }
+
+        if (!this.generated.isEmpty() && !this.factoryWritten && !roundEnv.processingOver()) {
+            this.writeFactory();
+            this.factoryWritten = true;
+        }
+        return true;
+    }
+
+    /**
+     * Collects the JSON properties of a marked class, in the order Gson writes them.
+     *
+     * @param type The marked class
+     * @return The properties, or null if the class can't have a generated adapter. The reason is reported as an
+     * error.
+     */
+    private List<Property> collectProperties(final TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            return this.error(type, "Generated type adapters are only supported for top level classes.");
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+            return this.error(type, "Generated type adapters can't be used for abstract or generic classes.");
+        }
+        if (this.annotation(type, JSON_ADAPTER) != null) {
+            return this.error(type, "The class already names its adapter with JsonAdapter.");
+        }
+
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                hasConstructor = true;
+            }
+        }
+        if (!hasConstructor) {
+            return this.error(type, "The class needs a no-arg constructor that isn't private.");
+        }
+
+        Types types = this.processingEnv.getTypeUtils();
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        List<ExecutableElement> methods = ElementFilter.methodsIn(
+            this.processingEnv.getElementUtils().getAllMembers(type));
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> jsonNames = new HashSet<>();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+
+                Property property = this.property(type, field, types.asMemberOf(declaredType, field), methods);
+                if (property == null) {
+                    return null;
+                }
+                for (String name : property.jsonNames) {
+                    if (!jsonNames.add(name)) {
+                        return this.error(field, "More than one field is named '" + name + "' in JSON.");
+                    }
+                }
+                properties.add(property);
+            }
+
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ?
+                (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return properties;
+    }
+
+    /**
+     * Works out how the generated adapter reads, writes and accesses a single field.
+     *
+     * @param owner The marked class
+     * @param field The field
+     * @param fieldType The field's type as a member of the marked class
+     * @param methods All of the marked class's methods, including inherited ones
+     * @return The property, or null if the field can't be handled. The reason is reported as an error.
+     */
+    private Property property(final TypeElement owner, final VariableElement field, final TypeMirror fieldType,
+                              final List<ExecutableElement> methods) {
+        Types types = this.processingEnv.getTypeUtils();
+        String fieldName = field.getSimpleName().toString();
+        Property property = new Property();
+        property.fieldType = fieldType;
+        property.adapterName = fieldName + "Adapter";
+
+        AnnotationMirror serializedName = this.annotation(field, SERIALIZED_NAME);
+        if (serializedName != null) {
+            property.jsonNames.add((String) this.annotationValue(serializedName, "value").getValue());
+            AnnotationValue alternates = this.annotationValue(serializedName, "alternate");
+            if (alternates != null) {
+                for (Object alternate : (List<?>) alternates.getValue()) {
+                    property.jsonNames.add((String) ((AnnotationValue) alternate).getValue());
+                }
+            }
+        }
+        else {
+            property.jsonNames.add(fieldName);
+        }
+
+        String typeName = this.typeName(fieldType);
+        if (typeName == null) {
+            return this.error(field, "Fields with type variables aren't supported.");
+        }
+        property.boxedTypeName = fieldType.getKind().isPrimitive() ?
+            types.boxedClass(types.getPrimitiveType(fieldType.getKind())).getQualifiedName().toString() :
+            typeName;
+
+        AnnotationMirror jsonAdapter = this.annotation(field, JSON_ADAPTER);
+        if (jsonAdapter != null) {
+            TypeMirror adapterType = (TypeMirror) this.annotationValue(jsonAdapter, "value").getValue();
+            AnnotationValue nullSafe = this.annotationValue(jsonAdapter, "nullSafe");
+            String suffix = nullSafe == null || (Boolean) nullSafe.getValue() ? ".nullSafe()" : "";
+            String adapterTypeName = this.typeName(adapterType);
+            if (this.isSubtype(adapterType, TYPE_ADAPTER)) {
+                property.adapterInit = "new " + adapterTypeName + "()" + suffix;
+            }
+            else if (this.isSubtype(adapterType, TYPE_ADAPTER_FACTORY)) {
+                property.adapterInit = "new " + adapterTypeName + "().create(gson, " + this.typeToken(fieldType) +
+                    ")" + suffix;
+            }
+            else {
+                return this.error(field, "Only TypeAdapter and TypeAdapterFactory classes are supported by " +
+                    "generated type adapters.");
+            }
+        }
+        else if (this.isInlinedList(fieldType)) {
+            property.elementTypeName = this.typeName(((DeclaredType) fieldType).getTypeArguments().get(0));
+            property.boxedTypeName = property.elementTypeName;
+            if (!property.elementTypeName.equals("java.lang.String")) {
+                property.adapterInit = "gson.getAdapter(" + property.elementTypeName + ".class)";
+            }
+        }
+        else if (!typeName.equals("java.lang.String")) {
+            property.adapterInit = "gson.getAdapter(" + this.typeToken(fieldType) + ")";
+        }
+
+        PackageElement ownerPackage = this.processingEnv.getElementUtils().getPackageOf(owner);
+        if (this.isVisible(field, ownerPackage)) {
+            property.getter = "value." + fieldName;
+            if (!field.getModifiers().contains(Modifier.FINAL)) {
+                property.setter = "value." + fieldName + " = %s";
+            }
+        }
+
+        // Accessors with the usual name win over suffixed ones, whatever order they are declared in.
+        String suffixedGetter = null;
+        String suffixedSetter = null;
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.STATIC) || !this.isVisible(method, ownerPackage)) {
+                continue;
+            }
+
+            String methodName = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty() && types.isSameType(method.getReturnType(), fieldType)) {
+                if (property.getter == null && (isAccessorName(methodName, "get", fieldName, false) ||
+                    (fieldType.getKind() == TypeKind.BOOLEAN && isAccessorName(methodName, "is", fieldName, false)))) {
+                    property.getter = "value." + methodName + "()";
+                }
+                else if (suffixedGetter == null && isAccessorName(methodName, "get", fieldName, true)) {
+                    suffixedGetter = "value." + methodName + "()";
+                }
+            }
+            else if (method.getParameters().size() == 1 &&
+                types.isSameType(method.getParameters().get(0).asType(), fieldType)) {
+                if (property.setter == null && isAccessorName(methodName, "set", fieldName, false)) {
+                    property.setter = "value." + methodName + "(%s)";
+                }
+                else if (suffixedSetter == null && isAccessorName(methodName, "set", fieldName, true)) {
+                    suffixedSetter = "value." + methodName + "(%s)";
+                }
+            }
+        }
+        if (property.getter == null) {
+            property.getter = suffixedGetter;
+        }
+        if (property.setter == null && !field.getModifiers().contains(Modifier.FINAL)) {
+            property.setter = suffixedSetter;
+        }
+
+        if (property.getter == null) {
+            return this.error(field, "The generated type adapter can't read " + fieldName + ". Add a matching " +
+                "getter, which may be package-private.");
+        }
+        if (property.setter == null && !field.getModifiers().contains(Modifier.FINAL)) {
+            return this.error(field, "The generated type adapter can't set " + fieldName + ". Add a matching " +
+                "setter, which may be package-private.");
+        }
+        return property;
+    }
+
+    /**
+     * Builds the source of the generated adapter for a class.
+     *
+     * @param type The marked class
+     * @param properties The class's JSON properties
+     * @return Java source of the adapter
+     */
+    private String adapterSource(final TypeElement type, final List<Property> properties) {
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String adapterName = type.getSimpleName() + "TypeAdapter";
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(TypeAdapterProcessor.class.getName()).append(", do not edit.\n");
+        source.append("package ").append(packageName).append(";\n\n");
+        source.append("/**\n * Streaming Gson adapter for {@link ").append(typeName).append("}.\n */\n");
+        source.append("public final class ").append(adapterName).append(" extends com.google.gson.TypeAdapter<")
+            .append(typeName).append(">\n    implements ").append(PARTIAL_OBJECT_READER).append('<').append(typeName)
+            .append("> {\n");
+
+        // Names in the order the properties are written, indexed like the cases in read.
+        source.append("    private static final String[] NAMES = {");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i > 0 ? ", " : "").append('"').append(escape(properties.get(i).jsonNames.get(0))).append('"');
+        }
+        source.append("};\n\n");
+
+        for (Property property : properties) {
+            if (property.adapterInit != null) {
+                source.append("    private final com.google.gson.TypeAdapter<").append(property.boxedTypeName)
+                    .append("> ").append(property.adapterName).append(";\n");
+            }
+        }
+
+        source.append("\n    @SuppressWarnings(\"unchecked\")\n");
+        source.append("    public ").append(adapterName).append("(final com.google.gson.Gson gson) {\n");
+        for (Property property : properties) {
+            if (property.adapterInit != null) {
+                source.append("        this.").append(property.adapterName).append(" = (com.google.gson.TypeAdapter<")
+                    .append(property.boxedTypeName).append(">) (com.google.gson.TypeAdapter<?>) ")
+                    .append(property.adapterInit).append(";\n");
+            }
+        }
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public void write(final com.google.gson.stream.JsonWriter out, final ").append(typeName)
+            .append(" value) throws java.io.IOException {\n");
+        source.append("        if (value == null) {\n            out.nullValue();\n            return;\n        }\n\n");
+        source.append("        out.beginObject();\n");
+        for (Property property : properties) {
+            source.append("        out.name(\"").append(escape(property.jsonNames.get(0))).append("\");\n");
+            if (property.elementTypeName != null) {
+                source.append("        this.").append(listMethod("write", property)).append("(out, ")
+                    .append(property.getter).append(");\n");
+            }
+            else if (property.adapterInit == null) {
+                source.append("        out.value(").append(property.getter).append(");\n");
+            }
+            else {
+                source.append("        this.").append(property.adapterName).append(".write(out, ")
+                    .append(property.getter).append(");\n");
+            }
+        }
+        source.append("        out.endObject();\n    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public ").append(typeName)
+            .append(" read(final com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        source.append("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n")
+            .append("            in.nextNull();\n            return null;\n        }\n\n");
+        source.append("        ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+        source.append("        in.beginObject();\n");
+        source.append("        this.readProperties(in, value, 0);\n");
+        source.append("        in.endObject();\n        return value;\n    }\n\n");
+
+        // The first property was read by the caller, only string properties can be set from its value.
+        source.append("    @Override\n");
+        source.append("    public ").append(typeName)
+            .append(" readRemaining(final com.google.gson.stream.JsonReader in, final String firstName,\n")
+            .append("            final String firstValue) throws java.io.IOException {\n");
+        source.append("        ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+        source.append("        int index = indexOf(firstName);\n");
+        source.append("        switch (index) {\n");
+        for (int index = 0; index < properties.size(); index++) {
+            Property property = properties.get(index);
+            if (property.setter != null && property.elementTypeName == null && property.adapterInit == null) {
+                source.append("            case ").append(index).append(":\n");
+                source.append("                ").append(String.format(property.setter, "firstValue")).append(";\n");
+                source.append("                break;\n");
+            }
+        }
+        source.append("            default:\n                break;\n");
+        source.append("        }\n");
+        source.append("        this.readProperties(in, value, index + 1);\n");
+        source.append("        in.endObject();\n        return value;\n    }\n\n");
+
+        source.append("    private void readProperties(final com.google.gson.stream.JsonReader in, final ")
+            .append(typeName).append(" value,\n            final int first) throws java.io.IOException {\n");
+        source.append("        int expected = first;\n");
+        source.append("        while (in.hasNext()) {\n");
+        source.append("            String name = in.nextName();\n");
+        source.append("            // Properties usually arrive in the order they are written, so try the next one ")
+            .append("before looking\n            // the name up.\n");
+        source.append("            int index = expected < NAMES.length && NAMES[expected].equals(name) ? expected : ")
+            .append("indexOf(name);\n");
+        source.append("            switch (index) {\n");
+        for (int index = 0; index < properties.size(); index++) {
+            Property property = properties.get(index);
+            boolean primitive = property.setter != null && property.elementTypeName == null &&
+                property.adapterInit != null && property.fieldType.getKind().isPrimitive();
+            source.append("                case ").append(index).append(primitive ? ": {\n" : ":\n");
+
+            if (property.setter == null) {
+                // Final field without a setter, its value comes from the constructor.
+                source.append("                    in.skipValue();\n");
+            }
+            else if (property.elementTypeName != null) {
+                source.append("                    ").append(String.format(property.setter,
+                    "this." + listMethod("read", property) + "(in)")).append(";\n");
+            }
+            else if (property.adapterInit == null) {
+                source.append("                    ").append(String.format(property.setter, "readString(in)"))
+                    .append(";\n");
+            }
+            else if (primitive) {
+                // Gson leaves primitive fields alone when the JSON value is null.
+                String local = property.adapterName + "Value";
+                source.append("                    ").append(property.boxedTypeName).append(' ').append(local)
+                    .append(" = this.").append(property.adapterName).append(".read(in);\n");
+                source.append("                    if (").append(local).append(" != null) {\n");
+                source.append("                        ").append(String.format(property.setter, local))
+                    .append(";\n");
+                source.append("                    }\n");
+                source.append("                    break;\n");
+                source.append("                }\n");
+                continue;
+            }
+            else {
+                source.append("                    ").append(String.format(property.setter,
+                    "this." + property.adapterName + ".read(in)")).append(";\n");
+            }
+            source.append("                    break;\n");
+        }
+        source.append("                default:\n                    in.skipValue();\n");
+        source.append("            }\n");
+        source.append("            if (index >= 0) {\n                expected = index + 1;\n            }\n");
+        source.append("        }\n    }\n\n");
+
+        source.append("    private static int indexOf(final String name) {\n");
+        source.append("        switch (name) {\n");
+        for (int index = 0; index < properties.size(); index++) {
+            for (String name : properties.get(index).jsonNames) {
+                source.append("            case \"").append(escape(name)).append("\":\n");
+            }
+            source.append("                return ").append(index).append(";\n");
+        }
+        source.append("            default:\n                return -1;\n        }\n    }\n\n");
+
+        for (Property property : properties) {
+            if (property.elementTypeName != null) {
+                this.appendListMethods(source, property);
+            }
+        }
+
+        // Same as Gson's String adapter, booleans are read as strings.
+        source.append("    private static String readString(final com.google.gson.stream.JsonReader in) ")
+            .append("throws java.io.IOException {\n");
+        source.append("        com.google.gson.stream.JsonToken token = in.peek();\n");
+        source.append("        if (token == com.google.gson.stream.JsonToken.NULL) {\n")
+            .append("            in.nextNull();\n            return null;\n        }\n");
+        source.append("        if (token == com.google.gson.stream.JsonToken.BOOLEAN) {\n")
+            .append("            return Boolean.toString(in.nextBoolean());\n        }\n");
+        source.append("        return in.nextString();\n    }\n}\n");
+        return source.toString();
+    }
+
+    /**
+     * Appends the methods that read and write a list property. Lists are written with an index where they allow it,
+     * Gson's collection adapter always uses an iterator. Lists are read into an ArrayList, as Gson does.
+     *
+     * @param source Source of the adapter
+     * @param property The list property
+     */
+    private void appendListMethods(final StringBuilder source, final Property property) {
+        String listType = "java.util.List<" + property.elementTypeName + ">";
+        String writeElement = property.adapterInit == null ? "out.value(%s);" :
+            "this." + property.adapterName + ".write(out, %s);";
+        String readElement = property.adapterInit == null ? "readString(in)" :
+            "this." + property.adapterName + ".read(in)";
+
+        source.append("    private void ").append(listMethod("write", property))
+            .append("(final com.google.gson.stream.JsonWriter out, final ").append(listType)
+            .append(" list) throws java.io.IOException {\n");
+        source.append("        if (list == null) {\n            out.nullValue();\n            return;\n        }\n\n");
+        source.append("        out.beginArray();\n");
+        source.append("        if (list instanceof java.util.RandomAccess) {\n");
+        source.append("            for (int i = 0; i < list.size(); i++) {\n");
+        source.append("                ").append(String.format(writeElement, "list.get(i)")).append("\n");
+        source.append("            }\n        }\n        else {\n");
+        source.append("            for (").append(property.elementTypeName).append(" element : list) {\n");
+        source.append("                ").append(String.format(writeElement, "element")).append("\n");
+        source.append("            }\n        }\n");
+        source.append("        out.endArray();\n    }\n\n");
+
+        source.append("    private ").append(listType).append(' ').append(listMethod("read", property))
+            .append("(final com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        source.append("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n")
+            .append("            in.nextNull();\n            return null;\n        }\n\n");
+        source.append("        ").append(listType).append(" list = new java.util.ArrayList<>();\n");
+        source.append("        in.beginArray();\n");
+        source.append("        while (in.hasNext()) {\n");
+        source.append("            list.add(").append(readElement).append(");\n");
+        source.append("        }\n");
+        source.append("        in.endArray();\n        return list;\n    }\n\n");
+    }
+
+    /**
+     * Writes the factory that creates the generated adapters.
+     */
+    private void writeFactory() {
+        Elements elements = this.processingEnv.getElementUtils();
+        String[] common = null;
+        for (TypeElement type : this.generated) {
+            String[] segments = elements.getPackageOf(type).getQualifiedName().toString().split("\\.");
+            if (common == null) {
+                common = segments;
+                continue;
+            }
+
+            int length = 0;
+            while (length < common.length && length < segments.length && common[length].equals(segments[length])) {
+                length++;
+            }
+            String[] shared = new String[length];
+            System.arraycopy(common, 0, shared, 0, length);
+            common = shared;
+        }
+        String packageName = String.join(".", common);
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(TypeAdapterProcessor.class.getName()).append(", do not edit.\n");
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Creates the generated streaming adapters for the model classes. Subclasses of the ")
+            .append("model classes\n * are left to Gson's other adapters.\n */\n");
+        source.append("public final class ").append(FACTORY_NAME)
+            .append(" implements com.google.gson.TypeAdapterFactory {\n");
+        source.append("    @Override\n    @SuppressWarnings(\"unchecked\")\n");
+        source.append("    public <T> com.google.gson.TypeAdapter<T> create(final com.google.gson.Gson gson, ")
+            .append("final com.google.gson.reflect.TypeToken<T> type) {\n");
+        source.append("        Class<? super T> rawType = type.getRawType();\n");
+        for (TypeElement type : this.generated) {
+            String typeName = type.getQualifiedName().toString();
+            source.append("        if (rawType == ").append(typeName).append(".class) {\n");
+            source.append("            return (com.google.gson.TypeAdapter<T>) new ")
+                .append(elements.getPackageOf(type).getQualifiedName()).append('.').append(type.getSimpleName())
+                .append("TypeAdapter(gson);\n        }\n");
+        }
+        source.append("        return null;\n    }\n}\n");
+
+        this.writeSource(packageName.isEmpty() ? null : elements.getPackageElement(packageName), FACTORY_NAME,
+            source.toString(), this.generated.toArray(new Element[0]));
+    }
+
+    /**
+     * Writes a generated source file.
+     *
+     * @param location Type or package the file belongs to, null for the unnamed package
+     * @param simpleName Simple name of the generated class
+     * @param source Java source of the class
+     * @param originatingElements Elements the file was generated from
+     */
+    private void writeSource(final Element location, final String simpleName, final String source,
+                             final Element... originatingElements) {
+        String packageName = location == null ? "" :
+            this.processingEnv.getElementUtils().getPackageOf(location).getQualifiedName().toString();
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, originatingElements)
+            .openWriter()) {
+            writer.write(source);
+        }
+        catch (IOException ex) {
+            this.error(originatingElements[0], "Couldn't write " + qualifiedName + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * @param type A type
+     * @return Java source for a TypeToken of the type, or a class literal when the type isn't parameterized
+     */
+    private String typeToken(final TypeMirror type) {
+        String typeName = this.typeName(type);
+        String erasure = this.typeName(this.processingEnv.getTypeUtils().erasure(type));
+        if (typeName.equals(erasure)) {
+            return typeName + ".class";
+        }
+        return "new com.google.gson.reflect.TypeToken<" + typeName + ">() {}";
+    }
+
+    /**
+     * @param type A type
+     * @return Java source for the type, without any type annotations. Null if the type has type variables.
+     */
+    private String typeName(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return type.getKind().name().toLowerCase(java.util.Locale.ROOT);
+            case ARRAY:
+                String component = this.typeName(((ArrayType) type).getComponentType());
+                return component != null ? component + "[]" : null;
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    String bound = this.typeName(wildcard.getExtendsBound());
+                    return bound != null ? "? extends " + bound : null;
+                }
+                if (wildcard.getSuperBound() != null) {
+                    String bound = this.typeName(wildcard.getSuperBound());
+                    return bound != null ? "? super " + bound : null;
+                }
+                return "?";
+            case DECLARED:
+                DeclaredType declared = (DeclaredType) type;
+                StringBuilder name = new StringBuilder(
+                    ((TypeElement) declared.asElement()).getQualifiedName().toString());
+                if (!declared.getTypeArguments().isEmpty()) {
+                    List<String> arguments = new ArrayList<>();
+                    for (TypeMirror argument : declared.getTypeArguments()) {
+                        String argumentName = this.typeName(argument);
+                        if (argumentName == null) {
+                            return null;
+                        }
+                        arguments.add(argumentName);
+                    }
+                    name.append('<').append(String.join(", ", arguments)).append('>');
+                }
+                return name.toString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param type A field type
+     * @return True if the type is a List of strings or of classes with generated adapters, which the adapter reads
+     * and writes itself
+     */
+    private boolean isInlinedList(final TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        DeclaredType declared = (DeclaredType) type;
+        if (!((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.util.List") ||
+            declared.getTypeArguments().size() != 1) {
+            return false;
+        }
+
+        TypeMirror element = declared.getTypeArguments().get(0);
+        if (element.getKind() != TypeKind.DECLARED || !((DeclaredType) element).getTypeArguments().isEmpty()) {
+            return false;
+        }
+
+        TypeElement elementType = (TypeElement) ((DeclaredType) element).asElement();
+        return elementType.getQualifiedName().contentEquals("java.lang.String") ||
+            this.annotation(elementType, ANNOTATION) != null;
+    }
+
+    /**
+     * @param action read or write
+     * @param property A list property
+     * @return Name of the adapter method that reads or writes the list
+     */
+    private static String listMethod(final String action, final Property property) {
+        String name = property.adapterName.substring(0, property.adapterName.length() - "Adapter".length());
+        return action + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "List";
+    }
+
+    /**
+     * Checks whether a method is named like an accessor of a field, ignoring case as the processor always has.
+     *
+     * @param methodName Name of the method
+     * @param prefix get, is or set
+     * @param fieldName Name of the field
+     * @param suffixed Whether the name has a suffix after the field name, or after its singular if it ends in s. The
+     *                 suffix starts with an upper case letter.
+     * @return True if the method has the accessor's name
+     */
+    private static boolean isAccessorName(final String methodName, final String prefix, final String fieldName,
+                                          final boolean suffixed) {
+        String name = prefix + fieldName;
+        if (!suffixed) {
+            return methodName.equalsIgnoreCase(name);
+        }
+        return hasSuffix(methodName, name) ||
+            (name.endsWith("s") && hasSuffix(methodName, name.substring(0, name.length() - 1)));
+    }
+
+    /**
+     * @param methodName Name of a method
+     * @param name Name the method's name should start with, ignoring case
+     * @return True if the method's name is the name followed by a suffix starting with an upper case letter
+     */
+    private static boolean hasSuffix(final String methodName, final String name) {
+        return methodName.length() > name.length() && methodName.regionMatches(true, 0, name, 0, name.length()) &&
+            Character.isUpperCase(methodName.charAt(name.length()));
+    }
+
+    /**
+     * @param element A field or method
+     * @param fromPackage Package of the generated adapter
+     * @return True if code in the package can use the element
+     */
+    private boolean isVisible(final Element element, final PackageElement fromPackage) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC) ||
+            this.processingEnv.getElementUtils().getPackageOf(element).equals(fromPackage);
+    }
+
+    /**
+     * @param type A type
+     * @param superName Qualified name of a class or interface
+     * @return True if the type is a subtype of the named class or interface
+     */
+    private boolean isSubtype(final TypeMirror type, final String superName) {
+        Types types = this.processingEnv.getTypeUtils();
+        TypeElement superElement = this.processingEnv.getElementUtils().getTypeElement(superName);
+        return superElement != null && types.isSubtype(types.erasure(type), types.erasure(superElement.asType()));
+    }
+
+    /**
+     * @param element An annotated element
+     * @param annotationName Qualified name of the annotation
+     * @return The annotation on the element, or null if it isn't there
+     */
+    private AnnotationMirror annotation(final Element element, final String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param annotation An annotation
+     * @param name Name of the annotation element
+     * @return The element's explicit value, or null if it was left at its default
+     */
+    private AnnotationValue annotationValue(final AnnotationMirror annotation, final String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+            annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reports an error against an element.
+     *
+     * @param element The element the error is about
+     * @param message The error message
+     * @return Always null
+     */
+    private <T> T error(final Element element, final String message) {
+        Messager messager = this.processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+
+    /**
+     * @param value A string
+     * @return The string escaped for a Java string literal
+     */
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * A single JSON property of a marked class.
+     */
+    private static final class Property {
+        // The first name is written, the rest are alternates accepted when reading.
+        private final List<String> jsonNames = new ArrayList<>();
+        private TypeMirror fieldType;
+        private String boxedTypeName;
+        private String adapterName;
+        // Element type of lists the adapter reads and writes itself, null for other fields.
+        private String elementTypeName;
+        // Null for strings, which are read and written inline. The element adapter for lists.
+        private String adapterInit;
+        private String getter;
+        // Format with the expression for the value to set.
+        private String setter;
+    }
+}
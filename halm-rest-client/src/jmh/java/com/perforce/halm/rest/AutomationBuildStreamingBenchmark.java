@@ -0,0 +1,103 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import feign.RequestTemplate;
+import feign.gson.GsonEncoder;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory cost of sending a large automation build, Feign's GsonEncoder against the streaming request body. Both
+ * write the same JSON, the encoder into a string and then a byte array that are held until the request is sent, the
+ * streaming body straight into the request sink (a blackhole here).
+ *
+ * Run with the GC profiler and compare gc.alloc.rate.norm, the bytes allocated per submission:
+ * ./gradlew jmh -Pjmh.includes=AutomationBuildStreamingBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AutomationBuildStreamingBenchmark {
+    @Param({"100000"})
+    public int resultCount;
+
+    private Client client;
+    private Gson gson;
+    private GsonJsonCodec codec;
+    private AutomationBuild build;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Never connects, only used for its Gson configuration.
+        client = new Client(new ConnectionInfo("http://localhost:8080", "administrator", ""));
+        gson = client.buildGson();
+        codec = new GsonJsonCodec(gson);
+        build = BenchmarkData.newAutomationBuild(resultCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public byte[] feignGsonEncoder() {
+        RequestTemplate template = new RequestTemplate();
+        new GsonEncoder(gson).encode(build, AutomationBuild.class, template);
+        return template.body();
+    }
+
+    @Benchmark
+    public BufferedSink streamingRequestBody() throws IOException {
+        BufferedSink sink = Okio.buffer(Okio.blackhole());
+        new JsonRequestBody(codec, build, AutomationBuild.class).writeTo(sink);
+        sink.flush();
+        return sink;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.AutomationResultStatus;
+import okhttp3.mockwebserver.MockResponse;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class BenchmarkData {
+    private static final String[] SUITES = {"LoginTests", "CheckoutTests", "SearchTests", "ProfileTests", "ReportTests"};
+    private static final String[] BROWSERS = {"Chrome", "Firefox", "Edge", "Safari"};
+
+    /**
+     * Constructor, private due to static class
+     */
+    private BenchmarkData() {}
+
+    /**
+     * Builds an automation build with results that look like a typical CI run. Result names, statuses and
+     * environments repeat, error messages are only set on failures. The same count always yields the same build.
+     *
+     * @param resultCount Number of results in the build
+     * @return The automation build
+     */
+    static AutomationBuild newAutomationBuild(final int resultCount) {
+        Random random = new Random(resultCount);
+        AutomationBuild build = new AutomationBuild();
+        build.setNumber("1234");
+        build.setDescription("Nightly regression run");
+        build.setBranch("main");
+        build.setExternalURL("https://ci.example.com/job/nightly/1234");
+        build.setStartDate("2024-03-01T02:00:00Z");
+        build.setDuration(3600);
+        build.addProperty(new NameValuePair("Commit", "3f2a9c1"));
+
+        for (int i = 0; i < resultCount; i++) {
+            String suite = SUITES[i % SUITES.length];
+            AutomationResultStatus status = random.nextInt(20) == 0 ? AutomationResultStatus.FAILED : AutomationResultStatus.PASSED;
+
+            AutomationResult result = new AutomationResult();
+            result.setName("test" + i);
+            result.setUniqueName("com.example." + suite + ".test" + i);
+            result.setStatus(new IDLabelPair(status.id(), status.name()));
+            result.setTags(Arrays.asList("regression", suite));
+            result.setOS("Linux");
+            result.setOSVersion("6.1");
+            result.setBrowser(BROWSERS[random.nextInt(BROWSERS.length)]);
+            result.setStartDate("2024-03-01T02:00:00Z");
+            result.setDuration(random.nextInt(5000) / 1000.0);
+            if (status == AutomationResultStatus.FAILED) {
+                result.setErrorMessage("Expected element #submit to be visible within 5000ms, but it was hidden.");
+            }
+            build.addResult(result);
+        }
+        return build;
+    }
+
+    /**
+     * Builds the JSON of an automation suites response, properties in the server's order with the discriminators
+     * last. Every suite has a Jenkins run configuration with one build parameter of each type.
+     *
+     * @param suiteCount Number of suites in the response
+     * @return The response body
+     */
+    static String automationSuitesJson(final int suiteCount) {
+        return automationSuitesJson(suiteCount, false);
+    }
+
+    /**
+     * Builds the JSON of an automation suites response, see {@link #automationSuitesJson(int)}.
+     *
+     * @param suiteCount Number of suites in the response
+     * @param discriminatorsFirst Whether the discriminators come first instead of last
+     * @return The response body
+     */
+    static String automationSuitesJson(final int suiteCount, final boolean discriminatorsFirst) {
+        StringBuilder builder = new StringBuilder("{\"automationSuitesData\":[");
+        for (int i = 0; i < suiteCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"active\":true,\"description\":\"Nightly suite\",\"id\":").append(i + 1)
+                .append(",\"name\":\"Suite ").append(i + 1).append("\",\"owners\":[],\"runConfiguration\":{");
+            if (discriminatorsFirst) {
+                builder.append("\"type\":\"jenkins\",")
+                    .append("\"automatedTestConfig\":{\"id\":1,\"name\":\"Jenkins Test Configuration\"},")
+                    .append("\"jenkins\":{\"defaultBuildParameters\":[")
+                    .append("{\"type\":\"text\",\"name\":\"BRANCH\",\"text\":\"main\"},")
+                    .append("{\"type\":\"password\",\"name\":\"TOKEN\",\"password\":\"secret\"},")
+                    .append("{\"type\":\"ignore\",\"name\":\"NODE\"}],")
+                    .append("\"projectName\":\"Project").append(i % 10)
+                    .append("\",\"remoteAuthenticationToken\":null}},");
+            }
+            else {
+                builder.append("\"automatedTestConfig\":{\"id\":1,\"name\":\"Jenkins Test Configuration\"},")
+                    .append("\"jenkins\":{\"defaultBuildParameters\":[")
+                    .append("{\"name\":\"BRANCH\",\"text\":\"main\",\"type\":\"text\"},")
+                    .append("{\"name\":\"TOKEN\",\"password\":\"secret\",\"type\":\"password\"},")
+                    .append("{\"name\":\"NODE\",\"type\":\"ignore\"}],")
+                    .append("\"projectName\":\"Project").append(i % 10)
+                    .append("\",\"remoteAuthenticationToken\":null},")
+                    .append("\"type\":\"jenkins\"},");
+            }
+            builder.append("\"scriptIDPrefix\":\"_HALM\",\"testCaseIDs\":[1,2,3]}");
+        }
+        return builder.append("]}").toString();
+    }
+
+    /**
+     * Builds the JSON of a menu response, a field menu with the given number of items.
+     *
+     * @param itemCount Number of menu items
+     * @return The response body
+     */
+    static String menuJson(final int itemCount) {
+        StringBuilder builder = new StringBuilder("{\"fields\":{\"fieldsData\":[")
+            .append("{\"id\":17,\"itemType\":\"testCases\",\"longName\":\"Test Case Status\"},")
+            .append("{\"id\":42,\"itemType\":\"testRuns\",\"longName\":\"Test Run Status\"}]},")
+            .append("\"id\":4,\"items\":{\"itemsData\":[");
+        for (int i = 0; i < itemCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"fieldStyle\":");
+            if (i % 3 == 0) {
+                builder.append("null");
+            }
+            else {
+                builder.append("{\"id\":").append(i % 3).append(",\"name\":\"Style ").append(i % 3).append("\"}");
+            }
+            builder.append(",\"id\":").append(i + 1).append(",\"label\":\"Status ").append(i + 1).append("\"}");
+        }
+        return builder.append("]},\"name\":\"Automation Result Status\"}").toString();
+    }
+
+    /**
+     * Builds the JSON of a project list response.
+     *
+     * @param projectCount Number of projects
+     * @return The response body
+     */
+    static String projectListJson(final int projectCount) {
+        StringBuilder builder = new StringBuilder("{\"projects\":[");
+        for (int i = 0; i < projectCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i + 1).append(",\"name\":\"Project ").append(i + 1)
+                .append("\",\"uuid\":\"").append(new UUID(i, i * 31L)).append("\"}");
+        }
+        return builder.append("],\"projectsLoading\":0}").toString();
+    }
+
+    /**
+     * @return Response to a project token request
+     */
+    static MockResponse tokenResponse() {
+        return new MockResponse().setBody(String.format(
+            "{\"tokenType\":\"Bearer\",\"expiresOn\":\"%s\",\"accessToken\":\"abc\"}",
+            Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS)));
+    }
+}
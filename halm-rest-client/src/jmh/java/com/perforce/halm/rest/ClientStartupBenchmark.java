@@ -0,0 +1,94 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.perforce.halm.rest.responses.ProjectListResponse;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a new client's first calls, up to and including reading and writing their JSON. Clients sharing the
+ * default codec registry against clients that each build their own, which is what every client did before codec
+ * registries were shared. The HTTP exchange itself is left out, it costs the same either way.
+ *
+ * ./gradlew jmh -Pjmh.includes=ClientStartupBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientStartupBenchmark {
+    private static final String PROJECTS_JSON = "{\"projects\":[{\"id\":7,\"name\":\"Sample Project\"," +
+        "\"uuid\":\"{a07e5d12-c02e-430b-980f-b5ff9fd97c0b}\"}],\"projectsLoading\":0}";
+
+    private final ConnectionInfo connectionInfo = new ConnectionInfo("http://localhost:8080", "administrator", "");
+    private AutomationBuild build;
+    private String buildJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        build = BenchmarkData.newAutomationBuild(10);
+        buildJson = CodecRegistry.getDefault().getGson().toJson(build);
+    }
+
+    @Benchmark
+    public Object sharedRegistry() {
+        return firstCalls(new ClientOptions());
+    }
+
+    @Benchmark
+    public Object registryPerClient() {
+        ClientOptions options = new ClientOptions();
+        options.setCodecRegistry(CodecRegistry.builder().build());
+        return firstCalls(options);
+    }
+
+    private Object firstCalls(final ClientOptions options) {
+        // Never connects, the calls' JSON is read and written with the client's Gson instance.
+        try (Client client = new Client(connectionInfo, options)) {
+            Gson gson = client.buildGson();
+            gson.fromJson(PROJECTS_JSON, ProjectListResponse.class);
+            gson.toJson(build);
+            return gson.fromJson(buildJson, AutomationBuild.class);
+        }
+    }
+}
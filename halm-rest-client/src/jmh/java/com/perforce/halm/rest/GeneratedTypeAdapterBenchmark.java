@@ -0,0 +1,135 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.deserializers.AutomationTypeAdapters;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of an automation build, the generated type adapters against Gson's reflective
+ * adapters. Both Gson instances have the client's configuration, the reflective one without the generated factory.
+ * The first* benchmarks decode a small build with a new Gson instance each time, which includes building the
+ * adapters, the cost a client pays on its first calls.
+ *
+ * Add the GC profiler to compare gc.alloc.rate.norm as well:
+ * ./gradlew jmh -Pjmh.includes=GeneratedTypeAdapterBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratedTypeAdapterBenchmark {
+    @Param({"1000"})
+    public int resultCount;
+
+    private Client client;
+    private Gson generated;
+    private Gson reflective;
+    private AutomationBuild build;
+    private String json;
+    private String smallJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Never connects, only used for its Gson configuration.
+        client = new Client(new ConnectionInfo("http://localhost:8080", "administrator", ""));
+        generated = client.buildGson();
+        reflective = newReflectiveGson();
+        build = BenchmarkData.newAutomationBuild(resultCount);
+        json = reflective.toJson(build);
+        smallJson = reflective.toJson(BenchmarkData.newAutomationBuild(10));
+    }
+
+    private static Gson newReflectiveGson() {
+        return new GsonBuilder()
+            .registerTypeAdapter(Instant.class, new InstantTypeAdapter())
+            .registerTypeAdapterFactory(AutomationTypeAdapters.suiteRunConfigurations())
+            .registerTypeAdapterFactory(AutomationTypeAdapters.buildRunConfigurations())
+            .registerTypeAdapterFactory(AutomationTypeAdapters.jenkinsBuildParameters())
+            .create();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public String encodeGenerated() {
+        return generated.toJson(build);
+    }
+
+    @Benchmark
+    public String encodeReflective() {
+        return reflective.toJson(build);
+    }
+
+    @Benchmark
+    public AutomationBuild decodeGenerated() {
+        return generated.fromJson(json, AutomationBuild.class);
+    }
+
+    @Benchmark
+    public AutomationBuild decodeReflective() {
+        return reflective.fromJson(json, AutomationBuild.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AutomationBuild firstDecodeGenerated() {
+        return CodecRegistry.builder().build().getGson().fromJson(smallJson, AutomationBuild.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AutomationBuild firstDecodeReflective() {
+        return newReflectiveGson().fromJson(smallJson, AutomationBuild.class);
+    }
+}
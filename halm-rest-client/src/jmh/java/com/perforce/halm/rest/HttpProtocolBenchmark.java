@@ -0,0 +1,132 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent getMenu throughput for each {@link HttpProtocol}, against a local server that takes a millisecond to
+ * respond. The HTTP/2 and HTTP/1.1 modes use TLS, prior knowledge uses plain HTTP.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=HttpProtocolBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class HttpProtocolBenchmark {
+    private static final String MENU_BODY = "{\"name\":\"Menu\",\"id\":1,\"items\":[{\"id\":1,\"label\":\"Item\"}]}";
+
+    @Param({"HTTP_2", "HTTP_1_1", "H2_PRIOR_KNOWLEDGE"})
+    public HttpProtocol protocol;
+
+    private MockWebServer server;
+    private Client client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().endsWith("/token")) {
+                    return new MockResponse().setBody(String.format(
+                        "{\"tokenType\":\"Bearer\",\"expiresOn\":\"%s\",\"accessToken\":\"abc\"}",
+                        Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS)));
+                }
+                return new MockResponse().setBody(MENU_BODY).setHeadersDelay(1, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        ConnectionInfo connectionInfo;
+        if (protocol == HttpProtocol.H2_PRIOR_KNOWLEDGE) {
+            server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+            server.start();
+            connectionInfo = new ConnectionInfo(getServerURL("http"), "administrator", "");
+        }
+        else {
+            HeldCertificate certificate = new HeldCertificate.Builder()
+                .addSubjectAlternativeName("localhost")
+                .addSubjectAlternativeName("127.0.0.1")
+                .build();
+            server.useHttps(new HandshakeCertificates.Builder().heldCertificate(certificate).build().sslSocketFactory(), false);
+            server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+            server.start();
+            connectionInfo = new ConnectionInfo(getServerURL("https"), "administrator", "",
+                Collections.singletonList(certificate.certificatePem()));
+        }
+
+        ClientOptions options = new ClientOptions();
+        options.setHttpProtocol(protocol);
+        client = new Client(connectionInfo, options);
+        client.getMenu("project", "1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.close();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public Object getMenu() {
+        return client.getMenu("project", "1");
+    }
+
+    private String getServerURL(final String scheme) {
+        return String.format("%s://%s:%d", scheme, server.getHostName(), server.getPort());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and formatting timestamps, java.time against InstantTypeAdapter. Half the timestamps have milliseconds,
+ * the two shapes the server sends. Scores are per timestamp.
+ *
+ * ./gradlew jmh -Pjmh.includes=InstantCodecBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(InstantCodecBenchmark.COUNT)
+public class InstantCodecBenchmark {
+    static final int COUNT = 1024;
+
+    private final Instant[] instants = new Instant[COUNT];
+    private final String[] timestamps = new String[COUNT];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            // 2020 to 2030
+            long epochSecond = 1577836800L + (long) (random.nextDouble() * 315360000L);
+            instants[i] = Instant.ofEpochSecond(epochSecond, i % 2 == 0 ? 0 : random.nextInt(1000) * 1_000_000L);
+            timestamps[i] = instants[i].toString();
+        }
+    }
+
+    @Benchmark
+    public void instantParse(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(Instant.parse(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void adapterParse(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(InstantTypeAdapter.parse(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void instantToString(Blackhole blackhole) {
+        for (Instant instant : instants) {
+            blackhole.consume(instant.toString());
+        }
+    }
+
+    @Benchmark
+    public void adapterFormat(Blackhole blackhole) {
+        for (Instant instant : instants) {
+            blackhole.consume(InstantTypeAdapter.format(instant));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfiguration;
+import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfigurationMarshaller;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameter;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterMarshaller;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfiguration;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfigurationMarshaller;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and encoding automation suites, with run configurations and build parameters handled by the old
+ * marshallers against the polymorphic adapter factories. The marshallers read and write each value through a JSON
+ * tree. The factories only read through one when the discriminator isn't the first property, as in the server's
+ * responses. Everything else uses the generated adapters in both.
+ *
+ * ./gradlew jmh -Pjmh.includes=PolymorphicTypeAdapterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolymorphicTypeAdapterBenchmark {
+    @Param({"1000"})
+    public int suiteCount;
+
+    @Param({"false", "true"})
+    public boolean discriminatorsFirst;
+
+    private Gson marshallers;
+    private Gson factories;
+    private String json;
+    private AutomationSuitesContainer suites;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("deprecation")
+    public void setUp() {
+        marshallers = new GsonBuilder()
+            .registerTypeAdapterFactory(new GeneratedTypeAdapterFactory())
+            .registerTypeAdapter(Instant.class, new InstantTypeAdapter())
+            .registerTypeAdapter(AutomationSuiteRunConfiguration.class, new AutomationSuiteRunConfigurationMarshaller())
+            .registerTypeAdapter(AutomationBuildRunConfiguration.class, new AutomationBuildRunConfigurationMarshaller())
+            .registerTypeAdapter(JenkinsBuildParameter.class, new JenkinsBuildParameterMarshaller())
+            .create();
+        factories = CodecRegistry.getDefault().getGson();
+
+        json = BenchmarkData.automationSuitesJson(suiteCount, discriminatorsFirst);
+        suites = factories.fromJson(json, AutomationSuitesContainer.class);
+    }
+
+    @Benchmark
+    public AutomationSuitesContainer decodeMarshallers() {
+        return marshallers.fromJson(json, AutomationSuitesContainer.class);
+    }
+
+    @Benchmark
+    public AutomationSuitesContainer decodeFactories() {
+        return factories.fromJson(json, AutomationSuitesContainer.class);
+    }
+
+    @Benchmark
+    public String encodeMarshallers() {
+        return marshallers.toJson(suites, AutomationSuitesContainer.class);
+    }
+
+    @Benchmark
+    public String encodeFactories() {
+        return factories.toJson(suites, AutomationSuitesContainer.class);
+    }
+}
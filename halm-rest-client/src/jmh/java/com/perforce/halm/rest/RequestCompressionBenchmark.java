@@ -0,0 +1,131 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End to end latency of submitting a large automation build, with and without gzip request compression, to a local
+ * server that reads request bodies at WAN speed. The wireBytes counter reports the request body bytes the server
+ * received per submission.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=RequestCompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestCompressionBenchmark {
+    /**
+     * Simulated link speed, 10 megabits per second
+     */
+    private static final long WAN_BYTES_PER_SECOND = 10_000_000 / 8;
+
+    @Param({"20000", "100000"})
+    public int resultCount;
+
+    @Param({"false", "true"})
+    public boolean compress;
+
+    private final AtomicLong lastBodySize = new AtomicLong();
+    private MockWebServer server;
+    private Client client;
+    private AutomationBuild build;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().endsWith("/token")) {
+                    return BenchmarkData.tokenResponse();
+                }
+                lastBodySize.set(request.getBodySize());
+                return new MockResponse().setBody("{\"id\":1,\"number\":\"1234\"}");
+            }
+
+            @Override
+            public MockResponse peek() {
+                // The server reads request bodies with the throttling of the peeked response.
+                return new MockResponse().throttleBody(WAN_BYTES_PER_SECOND / 10, 100, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+
+        ClientOptions options = new ClientOptions();
+        options.setRequestCompressionThreshold(compress ? ClientOptions.DEFAULT_REQUEST_COMPRESSION_THRESHOLD : null);
+        client = new Client(new ConnectionInfo(String.format("http://%s:%d", server.getHostName(), server.getPort()),
+            "administrator", ""), options);
+        build = BenchmarkData.newAutomationBuild(resultCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.close();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public Object submitAutomationBuild(WireCounters counters) {
+        Object response = client.submitAutomationBuild(build, "project", "1");
+        counters.wireBytes = lastBodySize.get();
+        return response;
+    }
+
+    /**
+     * Request body bytes received by the server for the last submission.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireCounters {
+        public long wireBytes;
+    }
+}
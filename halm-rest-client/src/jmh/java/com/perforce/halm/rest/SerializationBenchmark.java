@@ -0,0 +1,116 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.perforce.halm.rest.responses.MenuResponse;
+import com.perforce.halm.rest.responses.ProjectListResponse;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the client's own Gson configuration on its largest requests and responses, to catch regressions in
+ * the serialization paths. Encodes automation builds of increasing size and decodes automation suite, menu and project
+ * list responses. The other benchmarks compare alternatives, this one tracks what the client does today.
+ *
+ * ./gradlew jmh -Pjmh.includes=SerializationBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SerializationBenchmark {
+    private static final Gson GSON = CodecRegistry.getDefault().getGson();
+
+    /**
+     * Automation builds to encode, by result count.
+     */
+    @State(Scope.Benchmark)
+    public static class Builds {
+        @Param({"1000", "10000", "100000"})
+        public int resultCount;
+
+        AutomationBuild build;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            build = BenchmarkData.newAutomationBuild(resultCount);
+        }
+    }
+
+    /**
+     * Response bodies to decode, about the size of a large project's.
+     */
+    @State(Scope.Benchmark)
+    public static class Responses {
+        String automationSuites;
+        String menu;
+        String projectList;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            automationSuites = BenchmarkData.automationSuitesJson(1000);
+            menu = BenchmarkData.menuJson(500);
+            projectList = BenchmarkData.projectListJson(200);
+        }
+    }
+
+    @Benchmark
+    public String encodeAutomationBuild(Builds builds) {
+        return GSON.toJson(builds.build, AutomationBuild.class);
+    }
+
+    @Benchmark
+    public AutomationSuitesContainer decodeAutomationSuites(Responses responses) {
+        return GSON.fromJson(responses.automationSuites, AutomationSuitesContainer.class);
+    }
+
+    @Benchmark
+    public MenuResponse decodeMenu(Responses responses) {
+        return GSON.fromJson(responses.menu, MenuResponse.class);
+    }
+
+    @Benchmark
+    public ProjectListResponse decodeProjectList(Responses responses) {
+        return GSON.fromJson(responses.projectList, ProjectListResponse.class);
+    }
+}
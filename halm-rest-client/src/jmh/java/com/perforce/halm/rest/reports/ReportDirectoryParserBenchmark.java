@@ -0,0 +1,136 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.reports;
+
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Scaling of {@link ReportDirectoryParser} with its parallelism, reading a sharded build's worth of JUnit reports.
+ * Time per directory should drop close to linearly with the parallelism until it reaches the number of cores (or
+ * the disk's throughput, the reports are usually in the page cache after the first iteration).
+ *
+ * ./gradlew jmh -Pjmh.includes=ReportDirectoryParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReportDirectoryParserBenchmark {
+    @Param({"2000"})
+    public int reportCount;
+
+    @Param({"50"})
+    public int testsPerReport;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Path directory;
+    private List<Path> reports;
+    private ReportDirectoryParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("halm-reports-");
+        Random random = new Random(42);
+        for (int i = 0; i < reportCount; i++) {
+            writeReport(directory.resolve(String.format("shard-%d/TEST-com.example.Test%04d.xml", i % 16, i)), i, random);
+        }
+        reports = ReportDirectoryParser.findReports(directory);
+        parser = new ReportDirectoryParser(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public AutomationBuild parseDirectory() throws IOException {
+        AutomationBuild build = new AutomationBuild();
+        parser.parse(reports, build::addResult);
+        return build;
+    }
+
+    /**
+     * Writes a Surefire style JUnit report, about one in twenty tests failing with a stack trace.
+     */
+    private void writeReport(final Path file, final int index, final Random random) throws IOException {
+        Files.createDirectories(file.getParent());
+        String className = String.format("com.example.Test%04d", index);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write(String.format("<testsuite name=\"%s\" tests=\"%d\">\n", className, testsPerReport));
+            writer.write("  <properties><property name=\"java.version\" value=\"17\"/></properties>\n");
+            for (int i = 0; i < testsPerReport; i++) {
+                writer.write(String.format("  <testcase name=\"test%d\" classname=\"%s\" time=\"%.3f\"", i, className,
+                    random.nextDouble()));
+                if (random.nextInt(20) == 0) {
+                    writer.write(">\n    <failure message=\"expected: &lt;true&gt; but was: &lt;false&gt;\">");
+                    for (int frame = 0; frame < 30; frame++) {
+                        writer.write(String.format("\tat %s.test%d(Test.java:%d)\n", className, i, frame));
+                    }
+                    writer.write("</failure>\n  </testcase>\n");
+                }
+                else {
+                    writer.write("/>\n");
+                }
+            }
+            writer.write("</testsuite>\n");
+        }
+    }
+}
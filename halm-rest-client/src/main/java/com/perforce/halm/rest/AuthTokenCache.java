@@ -0,0 +1,422 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread safe cache of Helix ALM project auth tokens.
+ *
+ * Token requests are single-flight. When several threads miss the cache for the same project at the same time, only
+ * the first of them requests a token from the REST API, the others wait for and share that request's result. Failed
+ * token requests are not cached, the next caller will try again.
+ *
+ * When a refresh margin is set, cached tokens are renewed in the background that long before they expire, so callers
+ * don't normally wait on a token request. The refreshes keep the cache, and the client that owns it, in use until the
+ * cache is closed. Expiry times are issued by the server, they are corrected for any difference between the
+ * server and local clocks. Background refresh errors are ignored, a token that expires anyway because its renewal
+ * failed is treated as a cache miss.
+ *
+ * Waiting is done on a {@link CompletableFuture} rather than a monitor, so waiting virtual threads are not pinned.
+ */
+final class AuthTokenCache implements Closeable {
+    /**
+     * Minimum delay before retrying a failed background refresh
+     */
+    private static final long MIN_REFRESH_RETRY_MILLIS = 1000;
+
+    /**
+     * Retrieves new auth tokens from the REST API
+     */
+    interface TokenFetcher {
+        /**
+         * Retrieves a new auth token, blocking the calling thread.
+         *
+         * @param projectID Helix ALM project identifier
+         * @return Returns the new auth token
+         */
+        AuthInfoToken fetch(String projectID);
+
+        /**
+         * Asynchronously retrieves a new auth token.
+         *
+         * @param projectID Helix ALM project identifier
+         * @return Future that completes with the new auth token
+         */
+        CompletableFuture<AuthInfoToken> fetchAsync(String projectID);
+    }
+
+    private final ConcurrentMap<String, CompletableFuture<AuthInfoToken>> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ScheduledFuture<?>> refreshes = new ConcurrentHashMap<>();
+    private final TokenFetcher fetcher;
+    private final ServerClock serverClock;
+    @Nullable
+    private final Duration refreshMargin;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor
+     *
+     * @param fetcher Retrieves new auth tokens on a cache miss
+     * @param serverClock Used to convert server issued expiry times to local times
+     * @param refreshMargin How long before expiry tokens are renewed in the background, null to disable
+     */
+    AuthTokenCache(final TokenFetcher fetcher, final ServerClock serverClock, @Nullable final Duration refreshMargin) {
+        this(fetcher, serverClock, refreshMargin, Clock.systemUTC(), ClientExecutors.scheduler());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param fetcher Retrieves new auth tokens on a cache miss
+     * @param serverClock Used to convert server issued expiry times to local times
+     * @param refreshMargin How long before expiry tokens are renewed in the background, null to disable
+     * @param clock The local clock
+     * @param scheduler Runs the background refreshes
+     */
+    AuthTokenCache(final TokenFetcher fetcher, final ServerClock serverClock, @Nullable final Duration refreshMargin,
+                   final Clock clock, final ScheduledExecutorService scheduler) {
+        this.fetcher = fetcher;
+        this.serverClock = serverClock;
+        this.refreshMargin = refreshMargin;
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the cached token for the project, retrieving one on the calling thread if needed.
+     *
+     * @param projectID Helix ALM project identifier
+     * @return Returns a Helix ALM auth token
+     */
+    AuthInfoToken get(final String projectID) {
+        while (true) {
+            CompletableFuture<AuthInfoToken> existing = this.tokens.get(projectID);
+            if (existing != null && !this.isStale(existing)) {
+                return join(existing);
+            }
+
+            CompletableFuture<AuthInfoToken> pending = new CompletableFuture<>();
+            if (!this.claim(projectID, existing, pending)) {
+                // Another caller claimed the miss first, go wait on their request instead.
+                continue;
+            }
+
+            // This thread won the race, it is responsible for retrieving the token.
+            return this.fetch(projectID, pending);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #get(String)}
+     *
+     * @param projectID Helix ALM project identifier
+     * @return Future that completes with a Helix ALM auth token
+     */
+    CompletableFuture<AuthInfoToken> getAsync(final String projectID) {
+        while (true) {
+            CompletableFuture<AuthInfoToken> existing = this.tokens.get(projectID);
+            if (existing != null && !this.isStale(existing)) {
+                return existing;
+            }
+
+            CompletableFuture<AuthInfoToken> pending = new CompletableFuture<>();
+            if (!this.claim(projectID, existing, pending)) {
+                continue;
+            }
+
+            this.fetchAsync(projectID).whenComplete((token, error) -> {
+                if (error != null) {
+                    this.fail(projectID, pending, error);
+                }
+                else {
+                    this.complete(projectID, pending, token);
+                }
+            });
+            return pending;
+        }
+    }
+
+    /**
+     * Renews a token the server rejected. The rejected token is dropped from the cache, unless another caller has
+     * already replaced it, and the current token is returned. Concurrent renewals for the same project share a single
+     * token request.
+     *
+     * Renewals run on OkHttp dispatcher threads, so they never wait on a pending asynchronous token request: that
+     * request may be queued behind the very calls that are waiting for it. A token is requested on the calling thread
+     * instead.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param rejectedAuthHeader Authorization header of the rejected token
+     * @return Returns the renewed Helix ALM auth token
+     */
+    AuthInfoToken renew(final String projectID, final String rejectedAuthHeader) {
+        while (true) {
+            CompletableFuture<AuthInfoToken> existing = this.tokens.get(projectID);
+            if (existing != null && !existing.isDone()) {
+                // Don't wait on the pending request, replace it with a token retrieved on this thread.
+                AuthInfoToken token = this.fetcher.fetch(projectID);
+                this.put(projectID, token);
+                return token;
+            }
+
+            if (existing != null && !existing.isCompletedExceptionally() && !this.isExpired(existing.join()) &&
+                !rejectedAuthHeader.equals(existing.join().getAuthorizationHeader())) {
+                // Another caller already renewed the token.
+                return existing.join();
+            }
+
+            CompletableFuture<AuthInfoToken> pending = new CompletableFuture<>();
+            if (this.claim(projectID, existing, pending)) {
+                return this.fetch(projectID, pending);
+            }
+        }
+    }
+
+    /**
+     * Replaces the cached token for the project.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param token Token to cache
+     */
+    void put(final String projectID, final AuthInfoToken token) {
+        this.tokens.put(projectID, CompletableFuture.completedFuture(token));
+        this.scheduleRefresh(projectID, token);
+    }
+
+    /**
+     * Stops all background token refreshes.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.refreshes.values().forEach(refresh -> refresh.cancel(false));
+        this.refreshes.clear();
+    }
+
+    /**
+     * Checks if a token has expired, according to the local clock.
+     *
+     * @param token Token to check
+     * @return Returns true if the token has expired
+     */
+    boolean isExpired(final AuthInfoToken token) {
+        Instant expiresOn = token.getExpiresOn();
+        return expiresOn != null && !this.serverClock.toLocal(expiresOn).isAfter(this.clock.instant());
+    }
+
+    /**
+     * @param future Cached token request
+     * @return Returns true if the cached request completed with a token that has since expired
+     */
+    private boolean isStale(final CompletableFuture<AuthInfoToken> future) {
+        return future.isDone() && !future.isCompletedExceptionally() && this.isExpired(future.join());
+    }
+
+    /**
+     * Attempts to become the caller responsible for retrieving the project's token.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param existing The stale cache entry that was seen, or null if there was none
+     * @param pending The request to publish for other callers to wait on
+     * @return Returns true if this caller is now responsible for completing pending
+     */
+    private boolean claim(final String projectID, @Nullable final CompletableFuture<AuthInfoToken> existing,
+                          final CompletableFuture<AuthInfoToken> pending) {
+        return existing == null
+            ? this.tokens.putIfAbsent(projectID, pending) == null
+            : this.tokens.replace(projectID, existing, pending);
+    }
+
+    /**
+     * Retrieves a token on the calling thread for a request this caller claimed. The pending request is completed
+     * however the retrieval ends, so callers waiting on it are never left hanging.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param pending The claimed request
+     * @return Returns the new auth token
+     */
+    private AuthInfoToken fetch(final String projectID, final CompletableFuture<AuthInfoToken> pending) {
+        AuthInfoToken token = null;
+        Throwable error = null;
+        try {
+            token = this.fetcher.fetch(projectID);
+            return token;
+        }
+        catch (Throwable ex) {
+            error = ex;
+            throw ex;
+        }
+        finally {
+            if (error == null) {
+                this.complete(projectID, pending, token);
+            }
+            else {
+                this.fail(projectID, pending, error);
+            }
+        }
+    }
+
+    /**
+     * Completes a pending token request and schedules its background refresh.
+     */
+    private void complete(final String projectID, final CompletableFuture<AuthInfoToken> pending,
+                          final AuthInfoToken token) {
+        pending.complete(token);
+        this.scheduleRefresh(projectID, token);
+    }
+
+    /**
+     * Fails a pending token request, removing it from the cache so the next caller tries again.
+     */
+    private void fail(final String projectID, final CompletableFuture<AuthInfoToken> pending, final Throwable error) {
+        this.tokens.remove(projectID, pending);
+        pending.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error);
+    }
+
+    /**
+     * Starts an asynchronous token request, converting any immediate failure into a failed future.
+     */
+    private CompletableFuture<AuthInfoToken> fetchAsync(final String projectID) {
+        try {
+            return this.fetcher.fetchAsync(projectID);
+        }
+        catch (RuntimeException ex) {
+            CompletableFuture<AuthInfoToken> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+    }
+
+    /**
+     * Schedules the background refresh of a newly cached token.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param token The newly cached token
+     */
+    private void scheduleRefresh(final String projectID, final AuthInfoToken token) {
+        if (this.refreshMargin == null || this.closed || token.getExpiresOn() == null) {
+            return;
+        }
+
+        long remainingMillis = this.getRemainingMillis(token);
+        if (remainingMillis <= 0) {
+            // Already expired, the next caller will request a new token.
+            return;
+        }
+
+        // Refresh a margin before expiry, but never more often than once per half the remaining lifetime. This keeps
+        // short-lived tokens from being refreshed in a tight loop.
+        long delayMillis = Math.max(remainingMillis - this.refreshMargin.toMillis(), remainingMillis / 2);
+        this.schedule(projectID, delayMillis);
+    }
+
+    /**
+     * Schedules a background refresh for the project, replacing any refresh already scheduled.
+     */
+    private void schedule(final String projectID, final long delayMillis) {
+        ScheduledFuture<?> refresh = this.scheduler.schedule(() -> this.refresh(projectID),
+            delayMillis, TimeUnit.MILLISECONDS);
+
+        ScheduledFuture<?> previous = this.refreshes.put(projectID, refresh);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        if (this.closed) {
+            refresh.cancel(false);
+        }
+    }
+
+    /**
+     * Requests a new token for the project, replacing the cached token on success. Refresh errors are ignored, they
+     * aren't reported to any caller. The refresh is retried while the cached token remains valid, once it expires
+     * the next caller requests a token itself and gets the error if it happens again.
+     *
+     * @param projectID Helix ALM project identifier
+     */
+    private void refresh(final String projectID) {
+        if (this.closed) {
+            return;
+        }
+
+        this.fetchAsync(projectID).whenComplete((token, error) -> {
+            if (error == null) {
+                this.put(projectID, token);
+                return;
+            }
+
+            CompletableFuture<AuthInfoToken> cached = this.tokens.get(projectID);
+            if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+                long remainingMillis = this.getRemainingMillis(cached.join());
+                if (remainingMillis > MIN_REFRESH_RETRY_MILLIS && !this.closed) {
+                    this.schedule(projectID, Math.max(MIN_REFRESH_RETRY_MILLIS, remainingMillis / 4));
+                }
+            }
+        });
+    }
+
+    /**
+     * @param token Token to check
+     * @return Milliseconds until the token expires, according to the local clock
+     */
+    private long getRemainingMillis(final AuthInfoToken token) {
+        return this.serverClock.toLocal(token.getExpiresOn()).toEpochMilli() - this.clock.millis();
+    }
+
+    /**
+     * Waits for a pending token request, rethrowing the request's own exception if it failed.
+     *
+     * @param future Pending token request
+     * @return The token
+     */
+    private static AuthInfoToken join(final CompletableFuture<AuthInfoToken> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+}
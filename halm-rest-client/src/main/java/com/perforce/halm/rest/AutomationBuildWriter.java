@@ -0,0 +1,283 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the results of an automation build one at a time, for builds with too many results to hold in memory.
+ * Up to a set number of results are kept in memory, once there are more they are serialized to a temporary file.
+ * The build is then submitted with {@link Client#submitAutomationBuild(AutomationBuildWriter, String, String)},
+ * which streams the results from the file.
+ *
+ * Writers are not thread safe. Close the writer once the build was submitted to delete the temporary file.
+ */
+public final class AutomationBuildWriter implements Closeable {
+    /**
+     * Default maximum number of results held in memory.
+     */
+    public static final int DEFAULT_MAX_BUFFERED_RESULTS = 1000;
+
+    private final Gson gson;
+    private final AutomationBuild build;
+    private final int maxBufferedResults;
+    private final List<AutomationResult> buffered = new ArrayList<>();
+    private Path spillFile;
+    private BufferedSink spillSink;
+    private JsonRequestBody.Utf8SinkWriter spillWriter;
+    private int spilledResultCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Constructor, see {@link Client#newAutomationBuildWriter(AutomationBuild, int)}.
+     *
+     * @param gson Gson instance to serialize with
+     * @param build The build's details. Results it already has are written first, results added to it later are
+     *              ignored.
+     * @param maxBufferedResults Maximum number of results held in memory
+     */
+    AutomationBuildWriter(final Gson gson, final AutomationBuild build, final int maxBufferedResults) {
+        this.gson = gson;
+        this.build = build;
+        this.maxBufferedResults = Math.max(1, maxBufferedResults);
+        if (build.getResults() != null) {
+            this.buffered.addAll(build.getResults());
+        }
+    }
+
+    /**
+     * Adds a result to the build.
+     *
+     * @param result The result to add
+     * @throws IOException Thrown if the results held in memory could not be written to the temporary file
+     */
+    public void addResult(final AutomationResult result) throws IOException {
+        this.ensureOpen();
+        this.buffered.add(result);
+        if (this.buffered.size() >= this.maxBufferedResults) {
+            this.spill();
+        }
+    }
+
+    /**
+     * @return Number of results added to the build
+     */
+    public int getResultCount() {
+        return this.spilledResultCount + this.buffered.size();
+    }
+
+    /**
+     * @return Number of results written to the temporary file
+     */
+    public int getSpilledResultCount() {
+        return this.spilledResultCount;
+    }
+
+    /**
+     * Builds the body submitting the build with the results added so far. Results added afterwards are not part of
+     * the body, so it can be sent again for retries.
+     *
+     * @return The request body
+     * @throws IOException Thrown if the temporary file could not be flushed
+     */
+    RequestBody newRequestBody() throws IOException {
+        this.ensureOpen();
+        long spilledBytes = 0;
+        if (this.spillSink != null) {
+            this.spillSink.flush();
+            spilledBytes = Files.size(this.spillFile);
+        }
+
+        String prefix = resultsPrefix(this.gson, this.build) + "[";
+        return new SpilledBuildBody(prefix, this.spillFile, spilledBytes, new ArrayList<>(this.buffered));
+    }
+
+    /**
+     * Serializes a build's details for a body that writes its results separately. The results are written after
+     * the returned prefix, followed by a closing brace.
+     *
+     * @param gson Gson instance to serialize with
+     * @param build The build, its results are ignored
+     * @return The build's JSON up to the results value
+     */
+    static String resultsPrefix(final Gson gson, final AutomationBuild build) {
+        JsonObject header = gson.toJsonTree(build, AutomationBuild.class).getAsJsonObject();
+        header.remove("results");
+        String headerJson = gson.toJson(header);
+        return headerJson.substring(0, headerJson.length() - 1) + (header.size() > 0 ? "," : "") + "\"results\":";
+    }
+
+    /**
+     * Deletes the temporary file. Closing a writer more than once has no effect.
+     *
+     * @throws IOException Thrown if the temporary file could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.buffered.clear();
+        if (this.spillSink != null) {
+            try {
+                this.spillSink.close();
+            }
+            finally {
+                Files.deleteIfExists(this.spillFile);
+            }
+        }
+    }
+
+    /**
+     * Writes the results held in memory to the temporary file, creating it if needed.
+     *
+     * @throws IOException Thrown if the results could not be written
+     */
+    private void spill() throws IOException {
+        if (this.spillSink == null) {
+            this.spillFile = Files.createTempFile("halm-build-", ".json");
+            this.spillSink = Okio.buffer(Okio.sink(this.spillFile));
+            this.spillWriter = new JsonRequestBody.Utf8SinkWriter(this.spillSink);
+        }
+
+        for (AutomationResult result : this.buffered) {
+            if (this.spilledResultCount++ > 0) {
+                this.spillSink.writeByte(',');
+            }
+            writeResult(this.gson, this.spillWriter, result);
+        }
+        this.buffered.clear();
+    }
+
+    /**
+     * @throws IllegalStateException Thrown if the writer was closed
+     */
+    private void ensureOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("The automation build writer was closed.");
+        }
+    }
+
+    /**
+     * Serializes a single result.
+     *
+     * @param gson Gson instance to serialize with
+     * @param out Writer to serialize to
+     * @param result The result
+     * @throws IOException Thrown if the result could not be written
+     */
+    private static void writeResult(final Gson gson, final JsonRequestBody.Utf8SinkWriter out, final AutomationResult result) throws IOException {
+        // A JsonWriter per result, each result is a separate top level value.
+        JsonWriter writer = gson.newJsonWriter(out);
+        try {
+            gson.toJson(result, AutomationResult.class, writer);
+        }
+        catch (JsonIOException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Request body streaming the build from the temporary file, followed by the results still held in memory.
+     */
+    private final class SpilledBuildBody extends RequestBody {
+        private final String prefix;
+        private final Path file;
+        private final long fileBytes;
+        private final List<AutomationResult> results;
+
+        private SpilledBuildBody(final String prefix, final Path file, final long fileBytes, final List<AutomationResult> results) {
+            this.prefix = prefix;
+            this.file = file;
+            this.fileBytes = fileBytes;
+            this.results = results;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public MediaType contentType() {
+            return JsonRequestBody.JSON;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            sink.writeUtf8(this.prefix);
+            boolean first = true;
+            if (this.fileBytes > 0) {
+                try (Source source = Okio.source(this.file)) {
+                    sink.write(source, this.fileBytes);
+                }
+                first = false;
+            }
+
+            JsonRequestBody.Utf8SinkWriter writer = new JsonRequestBody.Utf8SinkWriter(sink);
+            for (AutomationResult result : this.results) {
+                if (!first) {
+                    sink.writeByte(',');
+                }
+                first = false;
+                writeResult(gson, writer, result);
+            }
+            sink.writeUtf8("]}");
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.perforce.halm.rest.responses.ChunkedSubmitAutomationBuildResponse;
+import com.perforce.halm.rest.responses.SubmitAutomationBuildResponse;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Submits an automation build in chunks. The first chunk creates the build, the remaining chunks are then submitted
+ * with the created build's number so they are added to it, at most a set number at a time. If neither the build nor
+ * the first chunk's response has a number, the remaining chunks are not submitted and the submission fails.
+ */
+final class ChunkedSubmission {
+    private final List<AutomationBuild> chunks;
+    private final int maxConcurrentChunks;
+    private final Function<AutomationBuild, CompletableFuture<SubmitAutomationBuildResponse>> submitter;
+    private final AtomicReferenceArray<SubmitAutomationBuildResponse> responses;
+    private final AtomicInteger nextChunk = new AtomicInteger(1);
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+
+    /**
+     * Constructor
+     *
+     * @param chunks The chunks to submit, see {@link #split(AutomationBuild, ChunkingOptions, Gson)}
+     * @param maxConcurrentChunks Maximum number of chunks submitted at once
+     * @param submitter Submits a single chunk
+     */
+    ChunkedSubmission(final List<AutomationBuild> chunks, final int maxConcurrentChunks,
+                      final Function<AutomationBuild, CompletableFuture<SubmitAutomationBuildResponse>> submitter) {
+        this.chunks = chunks;
+        this.maxConcurrentChunks = Math.max(1, maxConcurrentChunks);
+        this.submitter = submitter;
+        this.responses = new AtomicReferenceArray<>(chunks.size());
+    }
+
+    /**
+     * Splits a build into chunks. Every chunk has the build's details and a slice of its results.
+     *
+     * @param build The build to split
+     * @param options Limits on the size of each chunk
+     * @param gson Gson instance the results are serialized with, to measure their size
+     * @return The chunks, there is always at least one
+     */
+    static List<AutomationBuild> split(final AutomationBuild build, final ChunkingOptions options, final Gson gson) {
+        List<AutomationResult> results = build.getResults() != null ? build.getResults() : Collections.emptyList();
+        int maxResults = Math.max(1, options.getMaxResultsPerChunk());
+        Long maxSize = options.getMaxChunkSize();
+        ByteCountingWriter counter = maxSize != null ? new ByteCountingWriter() : null;
+
+        List<AutomationBuild> chunks = new ArrayList<>();
+        int start = 0;
+        long chunkSize = 0;
+        for (int i = 0; i < results.size(); i++) {
+            long resultSize = 0;
+            if (counter != null) {
+                counter.count = 0;
+                gson.toJson(results.get(i), AutomationResult.class, counter);
+                resultSize = counter.count + 1;
+            }
+
+            boolean full = i - start >= maxResults || (counter != null && i > start && chunkSize + resultSize > maxSize);
+            if (full) {
+                chunks.add(copyWithResults(build, results.subList(start, i)));
+                start = i;
+                chunkSize = 0;
+            }
+            chunkSize += resultSize;
+        }
+        chunks.add(copyWithResults(build, results.subList(start, results.size())));
+        return chunks;
+    }
+
+    /**
+     * Submits the chunks.
+     *
+     * @return Future that completes with the aggregated response once every chunk was submitted, or a chunk failed
+     */
+    CompletableFuture<ChunkedSubmitAutomationBuildResponse> submit() {
+        return this.submitter.apply(this.chunks.get(0)).thenCompose(first -> {
+            this.responses.set(0, first);
+            if (first.isError() || this.chunks.size() == 1) {
+                return CompletableFuture.completedFuture(this.aggregate());
+            }
+
+            // Add the remaining chunks to the build the first one created.
+            String number = first.getNumber() != null ? first.getNumber() : this.chunks.get(0).getNumber();
+            if (number == null) {
+                // Without a number each remaining chunk would create a build of its own.
+                ChunkedSubmitAutomationBuildResponse response = this.aggregate();
+                response.setErrorMessage("The server didn't return the number of the build the first chunk created, " +
+                    "the remaining chunks couldn't be added to it.");
+                return CompletableFuture.completedFuture(response);
+            }
+            for (AutomationBuild chunk : this.chunks.subList(1, this.chunks.size())) {
+                chunk.setNumber(number);
+            }
+
+            int laneCount = Math.min(this.maxConcurrentChunks, this.chunks.size() - 1);
+            CompletableFuture<?>[] lanes = new CompletableFuture<?>[laneCount];
+            for (int i = 0; i < laneCount; i++) {
+                lanes[i] = this.submitNext();
+            }
+            return CompletableFuture.allOf(lanes).thenApply(ignored -> this.aggregate());
+        });
+    }
+
+    /**
+     * Submits the next chunk, and once it completes the one after that, until no chunks are left or a chunk failed.
+     *
+     * @return Future that completes once this lane has no more chunks to submit
+     */
+    private CompletableFuture<Void> submitNext() {
+        int index = this.nextChunk.getAndIncrement();
+        if (index >= this.chunks.size() || this.failed.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.submitter.apply(this.chunks.get(index)).thenCompose(response -> {
+            this.responses.set(index, response);
+            if (response.isError()) {
+                this.failed.set(true);
+            }
+            return this.submitNext();
+        });
+    }
+
+    /**
+     * @return The aggregated response of the chunks submitted so far
+     */
+    private ChunkedSubmitAutomationBuildResponse aggregate() {
+        List<SubmitAutomationBuildResponse> submitted = new ArrayList<>();
+        int submittedResultCount = 0;
+        for (int i = 0; i < this.chunks.size(); i++) {
+            SubmitAutomationBuildResponse response = this.responses.get(i);
+            if (response != null) {
+                submitted.add(response);
+                if (response.isSuccess()) {
+                    submittedResultCount += this.chunks.get(i).getResults().size();
+                }
+            }
+        }
+        return new ChunkedSubmitAutomationBuildResponse(submitted, this.chunks.size(), submittedResultCount);
+    }
+
+    /**
+     * Copies a build's details, with the specified results.
+     *
+     * @param build The build to copy
+     * @param results The results of the copy
+     * @return The copy
+     */
+    private static AutomationBuild copyWithResults(final AutomationBuild build, final List<AutomationResult> results) {
+        AutomationBuild chunk = new AutomationBuild();
+        chunk.setNumber(build.getNumber());
+        chunk.setDescription(build.getDescription());
+        chunk.setBranch(build.getBranch());
+        chunk.setTestRunSet(build.getTestRunSet());
+        chunk.setRunConfigurationInfo(build.getRunConfigurationInfo());
+        chunk.setExternalURL(build.getExternalURL());
+        chunk.setStartDate(build.getStartDate());
+        chunk.setDuration(build.getDuration());
+        chunk.setSourceOverride(build.getSourceOverride());
+        chunk.setPendingRunID(build.getPendingRunID());
+        chunk.setProperties(build.getProperties());
+        chunk.setResults(results);
+        return chunk;
+    }
+
+    /**
+     * Writer that only counts the UTF-8 encoded size of what is written to it.
+     */
+    private static final class ByteCountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(int c) {
+            char ch = (char) c;
+            if (ch < 0x80) {
+                this.count += 1;
+            }
+            else if (ch < 0x800 || Character.isSurrogate(ch)) {
+                // Each half of a surrogate pair counts for half of the pair's four bytes.
+                this.count += 2;
+            }
+            else {
+                this.count += 3;
+            }
+        }
+
+        @Override
+        public void write(@NotNull String str, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                this.write(str.charAt(i));
+            }
+        }
+
+        @Override
+        public void write(@NotNull char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                this.write(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Nothing to flush.
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Nothing to close.
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Controls how {@link Client#submitAutomationBuildChunked(com.perforce.halm.rest.types.automation.build.AutomationBuild,
+ * String, String, ChunkingOptions)} splits a build's results into chunks, and how many chunks are submitted at once.
+ */
+public class ChunkingOptions {
+    private int maxResultsPerChunk = 5000;
+
+    @Nullable
+    private Long maxChunkSize;
+
+    private int maxConcurrentChunks = 4;
+
+    /**
+     * @return The maximum number of results in a chunk.
+     */
+    public int getMaxResultsPerChunk() {
+        return maxResultsPerChunk;
+    }
+
+    /**
+     * @param maxResultsPerChunk The maximum number of results in a chunk.
+     */
+    public void setMaxResultsPerChunk(int maxResultsPerChunk) {
+        this.maxResultsPerChunk = maxResultsPerChunk;
+    }
+
+    /**
+     * @return The maximum serialized size, in bytes, of the results in a chunk, or null if chunks are only limited by
+     *         the number of results
+     */
+    @Nullable
+    public Long getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * A single result larger than the limit is still submitted, in a chunk of its own.
+     *
+     * @param maxChunkSize The maximum serialized size, in bytes, of the results in a chunk. Set to null (the default)
+     *                     to only limit chunks by the number of results.
+     */
+    public void setMaxChunkSize(@Nullable Long maxChunkSize) {
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * @return The maximum number of chunks submitted at once, after the first chunk has created the build.
+     */
+    public int getMaxConcurrentChunks() {
+        return maxConcurrentChunks;
+    }
+
+    /**
+     * @param maxConcurrentChunks The maximum number of chunks submitted at once, after the first chunk has created the
+     *                            build.
+     */
+    public void setMaxConcurrentChunks(int maxConcurrentChunks) {
+        this.maxConcurrentChunks = maxConcurrentChunks;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker for a single Helix ALM REST API server. Every {@link Client} targeting the same URL with a
+ * {@link CircuitBreakerConfig} shares the same breaker, so once the server is found to be down no client keeps
+ * sending it requests. While the circuit is open, calls fail immediately with a response for which
+ * {@link com.perforce.halm.rest.responses.AbstractAPIResponse#isCircuitBreakerOpen()} returns true.
+ */
+public final class CircuitBreaker {
+    /**
+     * Circuit breaker states
+     */
+    public enum State {
+        /**
+         * Calls are made, and their outcomes tracked.
+         */
+        CLOSED,
+
+        /**
+         * Calls fail without being made.
+         */
+        OPEN,
+
+        /**
+         * A limited number of trial calls are made to check whether the server has recovered.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Value returned by {@link #tryAcquire()} when a call is not permitted.
+     */
+    static final long NOT_PERMITTED = -1;
+
+    private static final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumNumberOfCalls;
+    private final long waitNanosInOpenState;
+    private final int permittedCallsInHalfOpenState;
+
+    // A lock rather than synchronized, so calls on virtual threads don't pin their carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private State state = State.CLOSED;
+
+    // Incremented on every state change, so outcomes of calls permitted in an earlier state are ignored.
+    private long generation = 0;
+    private long openedAt;
+
+    // Ring buffer of the most recent call outcomes.
+    private final byte[] outcomes;
+    private int outcomeCount;
+    private int nextOutcome;
+    private int failedCalls;
+    private int slowCalls;
+    private int halfOpenPermits;
+
+    /**
+     * Constructor
+     *
+     * @param config Breaker thresholds
+     */
+    CircuitBreaker(final CircuitBreakerConfig config) {
+        if (config.getSlidingWindowSize() <= 0 || config.getPermittedCallsInHalfOpenState() <= 0) {
+            throw new IllegalArgumentException("The sliding window size and permitted half-open calls must be greater than zero.");
+        }
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.slowCallNanos = config.getSlowCallDuration().toNanos();
+        this.minimumNumberOfCalls = Math.max(1, Math.min(config.getMinimumNumberOfCalls(), config.getSlidingWindowSize()));
+        this.waitNanosInOpenState = config.getWaitDurationInOpenState().toNanos();
+        this.permittedCallsInHalfOpenState = config.getPermittedCallsInHalfOpenState();
+        this.outcomes = new byte[config.getSlidingWindowSize()];
+    }
+
+    /**
+     * Retrieves the shared circuit breaker for a server, creating it with the specified configuration if needed.
+     * Once created, a server's breaker keeps the configuration it was created with.
+     *
+     * @param url Helix ALM REST API server URL
+     * @param config Breaker thresholds to use if the breaker is created
+     * @return Returns the server's circuit breaker
+     */
+    static CircuitBreaker forServer(final String url, final CircuitBreakerConfig config) {
+        return breakers.computeIfAbsent(url, key -> new CircuitBreaker(config));
+    }
+
+    /**
+     * @return The breaker's current state
+     */
+    public State getState() {
+        this.lock.lock();
+        try {
+            this.checkOpenStateElapsed(System.nanoTime());
+            return this.state;
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a call may be made.
+     *
+     * @return A permit to pass to {@link #onResult(long, long, boolean)} once the call completes, or
+     *         {@link #NOT_PERMITTED} if the call must not be made
+     */
+    long tryAcquire() {
+        this.lock.lock();
+        try {
+            this.checkOpenStateElapsed(System.nanoTime());
+            switch (this.state) {
+                case CLOSED:
+                    return this.generation;
+                case HALF_OPEN:
+                    if (this.halfOpenPermits > 0) {
+                        this.halfOpenPermits--;
+                        return this.generation;
+                    }
+                    return NOT_PERMITTED;
+                default:
+                    return NOT_PERMITTED;
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param permit The permit returned by {@link #tryAcquire()} for the call
+     * @param durationNanos How long the call took
+     * @param failed Whether the call failed
+     */
+    void onResult(final long permit, final long durationNanos, final boolean failed) {
+        this.lock.lock();
+        try {
+            if (permit != this.generation || this.state == State.OPEN) {
+                return;
+            }
+
+            byte outcome = (byte) ((failed ? FAILED : 0) | (durationNanos >= this.slowCallNanos ? SLOW : 0));
+            this.record(outcome);
+
+            if (this.state == State.HALF_OPEN) {
+                if (this.outcomeCount >= this.permittedCallsInHalfOpenState) {
+                    this.transitionTo(this.isOverThreshold() ? State.OPEN : State.CLOSED);
+                }
+            }
+            else if (this.outcomeCount >= this.minimumNumberOfCalls && this.isOverThreshold()) {
+                this.transitionTo(State.OPEN);
+            }
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Moves an open circuit to half-open once it has been open long enough. Must be called with the lock held.
+     *
+     * @param now Current System.nanoTime()
+     */
+    private void checkOpenStateElapsed(final long now) {
+        if (this.state == State.OPEN && now - this.openedAt >= this.waitNanosInOpenState) {
+            this.transitionTo(State.HALF_OPEN);
+        }
+    }
+
+    /**
+     * Changes state, and resets the tracked outcomes. Must be called with the lock held.
+     *
+     * @param newState The state to change to
+     */
+    private void transitionTo(final State newState) {
+        this.state = newState;
+        this.generation++;
+        this.outcomeCount = 0;
+        this.nextOutcome = 0;
+        this.failedCalls = 0;
+        this.slowCalls = 0;
+        this.halfOpenPermits = newState == State.HALF_OPEN ? this.permittedCallsInHalfOpenState : 0;
+        if (newState == State.OPEN) {
+            this.openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Adds an outcome to the sliding window, replacing the oldest outcome once the window is full. Must be called
+     * with the lock held.
+     *
+     * @param outcome The outcome's FAILED and SLOW flags
+     */
+    private void record(final byte outcome) {
+        if (this.outcomeCount == this.outcomes.length) {
+            byte evicted = this.outcomes[this.nextOutcome];
+            this.failedCalls -= evicted & FAILED;
+            this.slowCalls -= (evicted & SLOW) >> 1;
+        }
+        else {
+            this.outcomeCount++;
+        }
+
+        this.outcomes[this.nextOutcome] = outcome;
+        this.nextOutcome = (this.nextOutcome + 1) % this.outcomes.length;
+        this.failedCalls += outcome & FAILED;
+        this.slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    /**
+     * @return Returns true if the tracked failure or slow call rate has reached its threshold. Must be called with
+     *         the lock held.
+     */
+    private boolean isOverThreshold() {
+        float failureRate = this.failedCalls * 100f / this.outcomeCount;
+        float slowCallRate = this.slowCalls * 100f / this.outcomeCount;
+        return failureRate >= this.failureRateThreshold || slowCallRate >= this.slowCallRateThreshold;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.time.Duration;
+
+/**
+ * Thresholds controlling when a {@link CircuitBreaker} opens, and how it recovers.
+ *
+ * The breaker tracks the outcome of the most recent calls. Once at least {@link #getMinimumNumberOfCalls()} calls
+ * were made, it opens when the percentage of failed calls (connection errors and 5xx responses), or of calls slower
+ * than {@link #getSlowCallDuration()}, reaches its threshold. After {@link #getWaitDurationInOpenState()} it lets a
+ * few trial calls through, and closes again if they succeed.
+ */
+public class CircuitBreakerConfig {
+    private float failureRateThreshold = 50;
+    private float slowCallRateThreshold = 100;
+    private Duration slowCallDuration = Duration.ofSeconds(60);
+    private int slidingWindowSize = 20;
+    private int minimumNumberOfCalls = 10;
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+    private int permittedCallsInHalfOpenState = 3;
+
+    /**
+     * @return Percentage of failed calls at which the circuit opens.
+     */
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @param failureRateThreshold Percentage of failed calls at which the circuit opens.
+     */
+    public void setFailureRateThreshold(float failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    /**
+     * @return Percentage of slow calls at which the circuit opens.
+     */
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @param slowCallRateThreshold Percentage of slow calls at which the circuit opens.
+     */
+    public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    /**
+     * @return Calls taking at least this long are slow.
+     */
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * @param slowCallDuration Calls taking at least this long are slow.
+     */
+    public void setSlowCallDuration(Duration slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    /**
+     * @return Number of most recent calls the failure and slow call rates are calculated from.
+     */
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    /**
+     * @param slidingWindowSize Number of most recent calls the failure and slow call rates are calculated from.
+     */
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    /**
+     * @return Number of calls that must be made before the circuit can open.
+     */
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    /**
+     * @param minimumNumberOfCalls Number of calls that must be made before the circuit can open.
+     */
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    /**
+     * @return How long the circuit stays open before trial calls are let through.
+     */
+    public Duration getWaitDurationInOpenState() {
+        return waitDurationInOpenState;
+    }
+
+    /**
+     * @param waitDurationInOpenState How long the circuit stays open before trial calls are let through.
+     */
+    public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+        this.waitDurationInOpenState = waitDurationInOpenState;
+    }
+
+    /**
+     * @return Number of trial calls let through while the circuit is half-open.
+     */
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * @param permittedCallsInHalfOpenState Number of trial calls let through while the circuit is half-open.
+     */
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.responses.ErrorResponse;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Guards calls with a {@link CircuitBreaker}. While the circuit is open, calls are not sent and get a 503 response
+ * with the {@link ErrorResponse#CIRCUIT_BREAKER_OPEN_CODE} error code instead, which flows through the same error
+ * handling as any other API error.
+ */
+final class CircuitBreakerInterceptor implements Interceptor {
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final String OPEN_CIRCUIT_BODY = String.format(
+        "{\"message\":\"The Helix ALM REST API server is unavailable, the request was not sent.\",\"statusCode\":%d,\"code\":\"%s\"}",
+        SERVICE_UNAVAILABLE, ErrorResponse.CIRCUIT_BREAKER_OPEN_CODE);
+
+    private final CircuitBreaker breaker;
+
+    /**
+     * Constructor
+     *
+     * @param breaker The breaker guarding the server
+     */
+    CircuitBreakerInterceptor(final CircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        long permit = this.breaker.tryAcquire();
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(SERVICE_UNAVAILABLE)
+                .message("Service Unavailable")
+                .body(ResponseBody.create(OPEN_CIRCUIT_BODY, JSON))
+                .build();
+        }
+
+        long start = System.nanoTime();
+        try {
+            Response response = chain.proceed(request);
+            this.breaker.onResult(permit, System.nanoTime() - start, response.code() >= 500);
+            return response;
+        }
+        catch (IOException | RuntimeException ex) {
+            this.breaker.onResult(permit, System.nanoTime() - start, true);
+            throw ex;
+        }
+    }
+}
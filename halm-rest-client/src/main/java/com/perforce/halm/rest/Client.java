@@ -27,49 +27,71 @@
 package com.perforce.halm.rest;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.perforce.halm.rest.responses.AbstractAPIResponse;
+import com.perforce.halm.rest.responses.ChunkedSubmitAutomationBuildResponse;
 import com.perforce.halm.rest.responses.ErrorResponse;
 import com.perforce.halm.rest.responses.MenuResponse;
 import com.perforce.halm.rest.responses.ProjectListResponse;
 import com.perforce.halm.rest.responses.SubmitAutomationBuildResponse;
 import com.perforce.halm.rest.types.VersionInfo;
 import com.perforce.halm.rest.types.automation.build.AutomationBuild;
-import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfiguration;
-import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfigurationMarshaller;
-import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameter;
-import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterMarshaller;
-import com.perforce.halm.rest.types.deserializers.InstantDeserializer;
-import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfiguration;
-import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfigurationMarshaller;
+import com.perforce.halm.rest.types.automation.build.AutomationResultTable;
 import com.perforce.halm.rest.types.automation.suite.AutomationSuite;
 import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import feign.AsyncFeign;
 import feign.Feign;
 import feign.FeignException;
-import feign.gson.GsonDecoder;
-import feign.gson.GsonEncoder;
+import feign.Retryer;
 import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 interface GenericAPIRequest <T extends AbstractAPIResponse> {
     T call();
 }
 
+interface GenericAsyncAPIRequest <T extends AbstractAPIResponse> {
+    CompletableFuture<T> call();
+}
+
 /**
- * Helix ALM REST API client
+ * Helix ALM REST API client. Clients targeting the same server share their underlying HTTP connections, close the
+ * client once it is no longer needed so those connections can be released.
  */
-public class Client {
+public class Client implements Closeable {
     private final ConnectionInfo connectionInfo;
+    private final ClientOptions options;
+    private final ExecutorService executor;
+    private final HttpClientRegistry.Lease httpClientLease;
     private final HelixALM halmClient;
-    private final Gson gson = this.buildGson();
-
-    private final HashMap<String, AuthInfoToken> projectTokens = new HashMap<>();
+    private final HelixALMAsync halmAsyncClient;
+    private final StreamingHelixALMClient streamingClient;
+    private final boolean streamRequestBodies;
+    private final Gson gson;
+    private final FeignJsonCodec feignCodec;
+    private final ServerClock serverClock = new ServerClock();
+    private final AuthTokenCache projectTokens;
+    @Nullable
+    private final CircuitBreaker circuitBreaker;
+    @Nullable
+    private final RateLimiter rateLimiter;
 
     /**
      * Constructor
@@ -77,21 +99,123 @@ public class Client {
      * @param inConnectionInfo - Helix ALM REST API connection information
      */
     public Client(final ConnectionInfo inConnectionInfo) {
+        this(inConnectionInfo, new ClientOptions());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param inConnectionInfo - Helix ALM REST API connection information
+     * @param inOptions - Options controlling how the client talks to the REST API
+     */
+    public Client(final ConnectionInfo inConnectionInfo, final ClientOptions inOptions) {
+        if (inOptions.getHttpProtocol() == HttpProtocol.H2_PRIOR_KNOWLEDGE &&
+            inConnectionInfo.url.regionMatches(true, 0, "https:", 0, 6)) {
+            throw new IllegalArgumentException("HTTP/2 with prior knowledge can't be used with HTTPS URLs.");
+        }
+
         this.connectionInfo = inConnectionInfo;
+        this.options = inOptions;
+        this.gson = this.buildGson();
+        JsonCodec codec = inOptions.getJsonCodec() != null ? inOptions.getJsonCodec() : new GsonJsonCodec(this.gson);
+        this.feignCodec = new FeignJsonCodec(codec);
+        this.executor = ClientExecutors.newExecutor(inOptions.getExecutionMode(), "halm-rest-client-");
+        this.httpClientLease = HttpClientRegistry.acquire(inConnectionInfo, inOptions);
+        this.rateLimiter = inOptions.getRateLimiter();
+
+        this.projectTokens = new AuthTokenCache(new AuthTokenCache.TokenFetcher() {
+            @Override
+            public AuthInfoToken fetch(final String projectID) {
+                return halmClient.getAuthToken(connectionInfo.authInfo.getAuthorizationHeader(), projectID);
+            }
 
-        OkHttpClient httpClient;
-        if (inConnectionInfo.pemCerts == null) {
-            httpClient = HttpClientUtils.getSafeOkHttpClient();
+            @Override
+            public CompletableFuture<AuthInfoToken> fetchAsync(final String projectID) {
+                return halmAsyncClient.getAuthToken(connectionInfo.authInfo.getAuthorizationHeader(), projectID);
+            }
+        }, this.serverClock, inOptions.getTokenRefreshMargin());
+
+        // Derive this client's OkHttpClient from the shared one. It keeps sharing the connection pool, dispatcher
+        // and SSL context, but can have its own interceptors.
+        OkHttpClient.Builder httpClientBuilder = this.httpClientLease.getHttpClient().newBuilder()
+            .protocols(inOptions.getHttpProtocol().getProtocols())
+            .addInterceptor(new ProjectTagInterceptor());
+        if (inOptions.getCircuitBreakerConfig() != null) {
+            // Outermost, so an open circuit also stops retries and a retried call counts as a single outcome.
+            this.circuitBreaker = CircuitBreaker.forServer(inConnectionInfo.url, inOptions.getCircuitBreakerConfig());
+            httpClientBuilder.addInterceptor(new CircuitBreakerInterceptor(this.circuitBreaker));
         }
         else {
-            httpClient = HttpClientUtils.getTrustingOkHttpClient(inConnectionInfo.pemCerts);
+            this.circuitBreaker = null;
+        }
+        RetryPolicy retryPolicy = inOptions.getRetryPolicy();
+        if (retryPolicy != null) {
+            RetryBudget retryBudget = retryPolicy.getRetryBudget() != null
+                ? retryPolicy.getRetryBudget() : RetryBudget.forServer(inConnectionInfo.url);
+            httpClientBuilder.addInterceptor(new RetryInterceptor(retryPolicy, retryBudget, this.rateLimiter));
         }
+        httpClientBuilder.addInterceptor(this.serverClock);
+        if (inOptions.getRequestCompressionThreshold() != null) {
+            // Innermost, so retried requests are compressed again from the original body.
+            httpClientBuilder.addInterceptor(new RequestCompressionInterceptor(inConnectionInfo.url,
+                inOptions.getRequestCompressionThreshold()));
+        }
+        OkHttpClient httpClient = httpClientBuilder
+            .authenticator(new ProjectTokenAuthenticator(this.projectTokens))
+            .build();
 
+        // Retries are made by the RetryInterceptor, according to the retry policy.
         this.halmClient = Feign.builder()
             .client(new feign.okhttp.OkHttpClient(httpClient))
-            .encoder(new GsonEncoder(this.gson))
-            .decoder(new GsonDecoder(this.gson))
+            .retryer(Retryer.NEVER_RETRY)
+            .encoder(this.feignCodec)
+            .decoder(this.feignCodec)
             .target(HelixALM.class, connectionInfo.url);
+
+        this.halmAsyncClient = AsyncFeign.<Object>builder()
+            .client(new feign.okhttp.OkHttpClient(httpClient))
+            .retryer(Retryer.NEVER_RETRY)
+            .encoder(this.feignCodec)
+            .decoder(this.feignCodec)
+            .target(HelixALMAsync.class, connectionInfo.url);
+
+        this.streamingClient = new StreamingHelixALMClient(httpClient, connectionInfo.url, this.gson, codec);
+        this.streamRequestBodies = inOptions.isStreamRequestBodies();
+    }
+
+    /**
+     * Releases this client's reference to the shared HTTP connections. The client should not be used after closing.
+     */
+    @Override
+    public void close() {
+        this.projectTokens.close();
+        this.executor.shutdown();
+        this.httpClientLease.close();
+    }
+
+    /**
+     * @return The circuit breaker guarding calls to the server, or null if calls are not guarded
+     */
+    @Nullable
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * @return The options this client was created with
+     */
+    public ClientOptions getOptions() {
+        return this.options;
+    }
+
+    /**
+     * The executor this client runs bulk requests on. Depending on {@link ClientOptions#getExecutionMode()} it runs
+     * tasks on platform or virtual threads, callers may use it to run their own blocking requests.
+     *
+     * @return See description
+     */
+    public ExecutorService getExecutor() {
+        return this.executor;
     }
 
     /**
@@ -109,9 +233,20 @@ public class Client {
      * @return REST API, HALM Server version information.
      */
     public VersionInfo getVersions() {
+        this.acquirePermit(RateLimiter.Operation.READ);
         return this.halmClient.getVersions();
     }
 
+    /**
+     * Asynchronously retrieve version information from the REST API.
+     *
+     * @return Future that completes with the REST API, HALM Server version information.
+     */
+    public CompletableFuture<VersionInfo> getVersionsAsync() {
+        return this.acquirePermitAsync(RateLimiter.Operation.READ)
+            .thenCompose(ignored -> this.halmAsyncClient.getVersions());
+    }
+
     /**
      * Checks to see if the currently configured connection has a live REST API server on the other side.
      * This request ignores all certificate and security concerns and will attempt to get version information about
@@ -125,8 +260,8 @@ public class Client {
 
         HelixALM tmpClient = Feign.builder()
             .client(new feign.okhttp.OkHttpClient(unsafeClient))
-            .encoder(new GsonEncoder(this.gson))
-            .decoder(new GsonDecoder(this.gson))
+            .encoder(this.feignCodec)
+            .decoder(this.feignCodec)
             .target(HelixALM.class, this.connectionInfo.getUrl());
 
         try {
@@ -146,7 +281,16 @@ public class Client {
      * @return Helix ALM project information
      */
     public ProjectListResponse getProjects() {
-        return this.callAPIHandleErrors(() -> this.halmClient.getProjects(this.connectionInfo.authInfo.getAuthorizationHeader()), ProjectListResponse::new);
+        return this.callAPIHandleErrors(RateLimiter.Operation.READ, () -> this.halmClient.getProjects(this.connectionInfo.authInfo.getAuthorizationHeader()), ProjectListResponse::new);
+    }
+
+    /**
+     * Asynchronously retrieves the Helix ALM Server projects.
+     *
+     * @return Future that completes with the Helix ALM project information
+     */
+    public CompletableFuture<ProjectListResponse> getProjectsAsync() {
+        return this.callAPIHandleErrorsAsync(RateLimiter.Operation.READ, () -> this.halmAsyncClient.getProjects(this.connectionInfo.authInfo.getAuthorizationHeader()), ProjectListResponse::new);
     }
 
     /**
@@ -157,7 +301,19 @@ public class Client {
      * @return Menu information
      */
     public MenuResponse getMenu(final String projectID, final String menuID) {
-        return this.callAPIHandleErrors(() -> this.halmClient.getMenu(this.getAuthorizationHeader(projectID), projectID, menuID), MenuResponse::new);
+        return this.callAPIHandleErrors(RateLimiter.Operation.READ, () -> this.halmClient.getMenu(this.getAuthorizationHeader(projectID), projectID, menuID), MenuResponse::new);
+    }
+
+    /**
+     * Asynchronously retrieves a specific menu definition.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param menuID Menu identifier.
+     * @return Future that completes with the menu information
+     */
+    public CompletableFuture<MenuResponse> getMenuAsync(final String projectID, final String menuID) {
+        return this.callAPIHandleErrorsAsync(RateLimiter.Operation.READ, () -> this.getAuthorizationHeaderAsync(projectID)
+            .thenCompose(authHeader -> this.halmAsyncClient.getMenu(authHeader, projectID, menuID)), MenuResponse::new);
     }
 
     /**
@@ -174,6 +330,20 @@ public class Client {
         return token;
     }
 
+    /**
+     * Asynchronously retrieves a Helix ALM authorization token, this retrieved token is cached on this client instance.
+     *
+     * @param projectID Helix ALM project identifier.
+     * @return Future that completes with the Helix ALM Authorization token
+     */
+    public CompletableFuture<AuthInfoToken> getAuthTokenAsync(final String projectID) {
+        return this.halmAsyncClient.getAuthToken(this.connectionInfo.authInfo.getAuthorizationHeader(), projectID)
+            .thenApply(token -> {
+                this.projectTokens.put(projectID, token);
+                return token;
+            });
+    }
+
     /**
      * Retrieves Helix ALM automation suites from the specified project
      *
@@ -181,12 +351,74 @@ public class Client {
      * @return List of AutomationSuites
      */
     public List<AutomationSuite> getAutomationSuites(final String projectID) {
+        this.acquirePermit(RateLimiter.Operation.READ);
         AuthInfoToken authToken = this.getNewOrExistingAuthToken(projectID);
         AutomationSuitesContainer suitesContainer = this.halmClient.getAutomationSuites(authToken.getAuthorizationHeader(), projectID);
 
         return suitesContainer.getAutomationSuitesData();
     }
 
+    /**
+     * Retrieves Helix ALM automation suites from each of the specified projects. The requests are run concurrently
+     * on this client's executor.
+     *
+     * @param projectIDs Helix ALM project identifiers
+     * @return Lists of AutomationSuites, keyed by project identifier in the order the projects were given
+     */
+    public Map<String, List<AutomationSuite>> getAutomationSuites(final Collection<String> projectIDs) {
+        Map<String, Future<List<AutomationSuite>>> futures = new LinkedHashMap<>();
+        for (String projectID : projectIDs) {
+            futures.put(projectID, this.executor.submit(() -> this.getAutomationSuites(projectID)));
+        }
+
+        Map<String, List<AutomationSuite>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<List<AutomationSuite>>> entry : futures.entrySet()) {
+            results.put(entry.getKey(), awaitBulkResult(entry.getValue()));
+        }
+        return results;
+    }
+
+    /**
+     * Asynchronously retrieves Helix ALM automation suites from the specified project. Errors complete the future
+     * exceptionally, the same way {@link #getAutomationSuites(String)} throws them.
+     *
+     * @param projectID Helix ALM project identifier
+     * @return Future that completes with the list of AutomationSuites
+     */
+    public CompletableFuture<List<AutomationSuite>> getAutomationSuitesAsync(final String projectID) {
+        return this.acquirePermitAsync(RateLimiter.Operation.READ)
+            .thenCompose(ignored -> this.getNewOrExistingAuthTokenAsync(projectID))
+            .thenCompose(authToken -> this.halmAsyncClient.getAutomationSuites(authToken.getAuthorizationHeader(), projectID))
+            .thenApply(AutomationSuitesContainer::getAutomationSuitesData);
+    }
+
+    /**
+     * Retrieves Helix ALM automation suites from the specified project one at a time. Each suite is passed to the
+     * action as soon as it was read from the response, so projects with many suites don't need to be held in memory
+     * at once. Errors are thrown the same way {@link #getAutomationSuites(String)} throws them.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param action Called with each suite, in the order the server returns them
+     */
+    public void forEachAutomationSuite(final String projectID, final Consumer<AutomationSuite> action) {
+        this.acquirePermit(RateLimiter.Operation.READ);
+        this.streamingClient.forEachAutomationSuite(this.getAuthorizationHeader(projectID), projectID, action);
+    }
+
+    /**
+     * Asynchronous version of {@link #forEachAutomationSuite(String, Consumer)}. The action is called on an HTTP
+     * client thread, and should not block.
+     *
+     * @param projectID Helix ALM project identifier
+     * @param action Called with each suite, in the order the server returns them
+     * @return Future that completes once every suite was passed to the action
+     */
+    public CompletableFuture<Void> forEachAutomationSuiteAsync(final String projectID, final Consumer<AutomationSuite> action) {
+        return this.acquirePermitAsync(RateLimiter.Operation.READ)
+            .thenCompose(ignored -> this.getAuthorizationHeaderAsync(projectID))
+            .thenCompose(authHeader -> this.streamingClient.forEachAutomationSuiteAsync(authHeader, projectID, action));
+    }
+
     /**
      * Submits a build and its results to a Helix ALM automation suite
      *
@@ -196,7 +428,161 @@ public class Client {
      * @return Submit automation build response
      */
     public SubmitAutomationBuildResponse submitAutomationBuild(final AutomationBuild automationBuild, final String projectID, final String suiteID) {
-        return this.callAPIHandleErrors(() -> this.halmClient.submitAutomationBuild(automationBuild, this.getAuthorizationHeader(projectID), projectID, suiteID), SubmitAutomationBuildResponse::new);
+        if (this.streamRequestBodies) {
+            return this.callAPIHandleErrors(RateLimiter.Operation.WRITE, () -> this.streamingClient.submitAutomationBuild(automationBuild, this.getAuthorizationHeader(projectID), projectID, suiteID), SubmitAutomationBuildResponse::new);
+        }
+        return this.callAPIHandleErrors(RateLimiter.Operation.WRITE, () -> this.halmClient.submitAutomationBuild(automationBuild, this.getAuthorizationHeader(projectID), projectID, suiteID), SubmitAutomationBuildResponse::new);
+    }
+
+    /**
+     * Asynchronously submits a build and its results to a Helix ALM automation suite
+     *
+     * @param automationBuild The build to submit
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Future that completes with the submit automation build response
+     */
+    public CompletableFuture<SubmitAutomationBuildResponse> submitAutomationBuildAsync(final AutomationBuild automationBuild, final String projectID, final String suiteID) {
+        if (this.streamRequestBodies) {
+            return this.callAPIHandleErrorsAsync(RateLimiter.Operation.WRITE, () -> this.getAuthorizationHeaderAsync(projectID)
+                .thenCompose(authHeader -> this.streamingClient.submitAutomationBuildAsync(automationBuild, authHeader, projectID, suiteID)), SubmitAutomationBuildResponse::new);
+        }
+        return this.callAPIHandleErrorsAsync(RateLimiter.Operation.WRITE, () -> this.getAuthorizationHeaderAsync(projectID)
+            .thenCompose(authHeader -> this.halmAsyncClient.submitAutomationBuild(automationBuild, authHeader, projectID, suiteID)), SubmitAutomationBuildResponse::new);
+    }
+
+    /**
+     * Creates a writer collecting the results of a build one at a time, for builds with too many results to hold in
+     * memory. Submit the build with {@link #submitAutomationBuild(AutomationBuildWriter, String, String)}.
+     *
+     * @param automationBuild The build's details
+     * @return The writer, close it once the build was submitted
+     */
+    public AutomationBuildWriter newAutomationBuildWriter(final AutomationBuild automationBuild) {
+        return this.newAutomationBuildWriter(automationBuild, AutomationBuildWriter.DEFAULT_MAX_BUFFERED_RESULTS);
+    }
+
+    /**
+     * Creates a writer collecting the results of a build one at a time, for builds with too many results to hold in
+     * memory. Submit the build with {@link #submitAutomationBuild(AutomationBuildWriter, String, String)}.
+     *
+     * @param automationBuild The build's details
+     * @param maxBufferedResults Maximum number of results held in memory, more are written to a temporary file
+     * @return The writer, close it once the build was submitted
+     */
+    public AutomationBuildWriter newAutomationBuildWriter(final AutomationBuild automationBuild, final int maxBufferedResults) {
+        return new AutomationBuildWriter(this.gson, automationBuild, maxBufferedResults);
+    }
+
+    /**
+     * Submits a build collected with an {@link AutomationBuildWriter} to a Helix ALM automation suite. The results
+     * are streamed from the writer's temporary file.
+     *
+     * @param writer The writer holding the build to submit
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Submit automation build response
+     * @throws UncheckedIOException Thrown if the writer's temporary file could not be flushed
+     */
+    public SubmitAutomationBuildResponse submitAutomationBuild(final AutomationBuildWriter writer, final String projectID, final String suiteID) {
+        RequestBody body = newRequestBody(writer);
+        return this.callAPIHandleErrors(RateLimiter.Operation.WRITE, () -> this.streamingClient.submitAutomationBuild(body, this.getAuthorizationHeader(projectID), projectID, suiteID), SubmitAutomationBuildResponse::new);
+    }
+
+    /**
+     * Asynchronous version of {@link #submitAutomationBuild(AutomationBuildWriter, String, String)}. The writer may
+     * be used again once this returns, results added afterwards are not submitted.
+     *
+     * @param writer The writer holding the build to submit
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Future that completes with the submit automation build response
+     * @throws UncheckedIOException Thrown if the writer's temporary file could not be flushed
+     */
+    public CompletableFuture<SubmitAutomationBuildResponse> submitAutomationBuildAsync(final AutomationBuildWriter writer, final String projectID, final String suiteID) {
+        RequestBody body = newRequestBody(writer);
+        return this.callAPIHandleErrorsAsync(RateLimiter.Operation.WRITE, () -> this.getAuthorizationHeaderAsync(projectID)
+            .thenCompose(authHeader -> this.streamingClient.submitAutomationBuildAsync(body, authHeader, projectID, suiteID)), SubmitAutomationBuildResponse::new);
+    }
+
+    /**
+     * @param writer The writer holding the build to submit
+     * @return Request body submitting the writer's build
+     */
+    private static RequestBody newRequestBody(final AutomationBuildWriter writer) {
+        try {
+            return writer.newRequestBody();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Submits a build whose results are held in an {@link AutomationResultTable} to a Helix ALM automation suite.
+     * The results are streamed straight from the table.
+     *
+     * @param automationBuild The build's details, its own results are ignored
+     * @param results The build's results
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Submit automation build response
+     */
+    public SubmitAutomationBuildResponse submitAutomationBuild(final AutomationBuild automationBuild, final AutomationResultTable results, final String projectID, final String suiteID) {
+        RequestBody body = new ResultTableRequestBody(this.gson, automationBuild, results);
+        return this.callAPIHandleErrors(RateLimiter.Operation.WRITE, () -> this.streamingClient.submitAutomationBuild(body, this.getAuthorizationHeader(projectID), projectID, suiteID), SubmitAutomationBuildResponse::new);
+    }
+
+    /**
+     * Asynchronous version of {@link #submitAutomationBuild(AutomationBuild, AutomationResultTable, String, String)}.
+     * Don't modify the build or table until the future completes.
+     *
+     * @param automationBuild The build's details, its own results are ignored
+     * @param results The build's results
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Future that completes with the submit automation build response
+     */
+    public CompletableFuture<SubmitAutomationBuildResponse> submitAutomationBuildAsync(final AutomationBuild automationBuild, final AutomationResultTable results, final String projectID, final String suiteID) {
+        RequestBody body = new ResultTableRequestBody(this.gson, automationBuild, results);
+        return this.callAPIHandleErrorsAsync(RateLimiter.Operation.WRITE, () -> this.getAuthorizationHeaderAsync(projectID)
+            .thenCompose(authHeader -> this.streamingClient.submitAutomationBuildAsync(body, authHeader, projectID, suiteID)), SubmitAutomationBuildResponse::new);
+    }
+
+    /**
+     * Submits a build and its results to a Helix ALM automation suite in chunks, for builds too large to submit at
+     * once. The first chunk creates the build, the remaining chunks are added to it using the build number the server
+     * returned. Chunks are submitted a limited number at a time.
+     *
+     * @param automationBuild The build to submit
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @param chunking Limits on the size of the chunks and how many are submitted at once
+     * @return Aggregated response of the submitted chunks
+     */
+    public ChunkedSubmitAutomationBuildResponse submitAutomationBuildChunked(final AutomationBuild automationBuild, final String projectID, final String suiteID, final ChunkingOptions chunking) {
+        try {
+            return this.submitAutomationBuildChunkedAsync(automationBuild, projectID, suiteID, chunking).join();
+        }
+        catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+        }
+    }
+
+    /**
+     * Asynchronously submits a build and its results to a Helix ALM automation suite in chunks. See
+     * {@link #submitAutomationBuildChunked(AutomationBuild, String, String, ChunkingOptions)}.
+     *
+     * @param automationBuild The build to submit
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @param chunking Limits on the size of the chunks and how many are submitted at once
+     * @return Future that completes with the aggregated response of the submitted chunks
+     */
+    public CompletableFuture<ChunkedSubmitAutomationBuildResponse> submitAutomationBuildChunkedAsync(final AutomationBuild automationBuild, final String projectID, final String suiteID, final ChunkingOptions chunking) {
+        List<AutomationBuild> chunks = ChunkedSubmission.split(automationBuild, chunking, this.gson);
+        return new ChunkedSubmission(chunks, chunking.getMaxConcurrentChunks(),
+            chunk -> this.submitAutomationBuildAsync(chunk, projectID, suiteID)).submit();
     }
 
     /**
@@ -210,6 +596,17 @@ public class Client {
         return authToken != null ? authToken.getAuthorizationHeader() : "";
     }
 
+    /**
+     * Asynchronous version of {@link #getAuthorizationHeader(String)}
+     *
+     * @param projectID The project ID to get the authorization header string for
+     * @return Future that completes with the authorization header
+     */
+    protected CompletableFuture<String> getAuthorizationHeaderAsync(final String projectID) {
+        return this.getNewOrExistingAuthTokenAsync(projectID)
+            .thenApply(authToken -> authToken != null ? authToken.getAuthorizationHeader() : "");
+    }
+
     /**
      * Parses an error response body.
      *
@@ -245,47 +642,168 @@ public class Client {
             response = request.call();
         }
         catch (FeignException ex) {
-            //todo: Enhancement: Improve logging in this area.
+            response = this.handleAPIError(ex, responseSupplier);
+        }
+        return response;
+    }
 
-            ErrorResponse errorResponse = null;
-            if (ex.responseBody().isPresent()) {
-                String responseBody = StandardCharsets.UTF_8.decode(ex.responseBody().get()).toString();
-                errorResponse = parseErrorResponse(responseBody);
+    /**
+     * Rate limited version of {@link #callAPIHandleErrors(GenericAPIRequest, Supplier)}. Waits for a permit from
+     * the client's rate limiter before making the request.
+     *
+     * @param operation Kind of operation the request performs
+     * @param request The request lambda to process that will return the response if successful
+     * @param responseSupplier The supplier to create an object of type T if we are forced to create our own
+     * @return See description
+     * @param <T> The type of response we are dealing with for this API call
+     */
+    protected <T extends AbstractAPIResponse> T callAPIHandleErrors(RateLimiter.Operation operation, GenericAPIRequest<T> request, Supplier<T> responseSupplier) {
+        this.acquirePermit(operation);
+        return this.callAPIHandleErrors(request, responseSupplier);
+    }
+
+    /**
+     * Rate limited version of {@link #callAPIHandleErrorsAsync(GenericAsyncAPIRequest, Supplier)}. The request is
+     * started once a permit from the client's rate limiter is available, without blocking the caller.
+     *
+     * @param operation Kind of operation the request performs
+     * @param request The request lambda that starts the request and returns the future response
+     * @param responseSupplier The supplier to create an object of type T if we are forced to create our own
+     * @return See description
+     * @param <T> The type of response we are dealing with for this API call
+     */
+    protected <T extends AbstractAPIResponse> CompletableFuture<T> callAPIHandleErrorsAsync(RateLimiter.Operation operation, GenericAsyncAPIRequest<T> request, Supplier<T> responseSupplier) {
+        return this.callAPIHandleErrorsAsync(() -> this.acquirePermitAsync(operation).thenCompose(ignored -> request.call()),
+            responseSupplier);
+    }
+
+    /**
+     * Waits for a permit from the client's rate limiter, if it has one.
+     *
+     * @param operation Kind of operation to acquire a permit for
+     */
+    protected void acquirePermit(final RateLimiter.Operation operation) {
+        if (this.rateLimiter != null) {
+            this.rateLimiter.acquire(operation);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #acquirePermit(RateLimiter.Operation)}
+     *
+     * @param operation Kind of operation to acquire a permit for
+     * @return Future that completes once the permit is available
+     */
+    protected CompletableFuture<Void> acquirePermitAsync(final RateLimiter.Operation operation) {
+        return this.rateLimiter != null ? this.rateLimiter.acquireAsync(operation) : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Asynchronous version of {@link #callAPIHandleErrors(GenericAPIRequest, Supplier)}. API call errors complete the
+     * returned future normally, with the error captured in the response. Any other errors complete it exceptionally.
+     *
+     * @param request The request lambda that starts the request and returns the future response
+     * @param responseSupplier The supplier to create an object of type T if we are forced to create our own
+     * @return See description
+     * @param <T> The type of response we are dealing with for this API call
+     */
+    protected <T extends AbstractAPIResponse> CompletableFuture<T> callAPIHandleErrorsAsync(GenericAsyncAPIRequest<T> request, Supplier<T> responseSupplier) {
+        CompletableFuture<T> future;
+        try {
+            future = request.call();
+        }
+        catch (FeignException ex) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+        }
+
+        return future.handle((response, error) -> {
+            if (error == null) {
+                return response;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof FeignException) {
+                return this.handleAPIError((FeignException) cause, responseSupplier);
             }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
 
-            response = responseSupplier.get();
-            response.handleFeignException(ex, errorResponse);
+    /**
+     * Converts an API call error into a response of the expected type.
+     *
+     * @param ex The API call error
+     * @param responseSupplier The supplier to create an object of type T
+     * @return A response of type T describing the error
+     * @param <T> The type of response we are dealing with for this API call
+     */
+    protected <T extends AbstractAPIResponse> T handleAPIError(FeignException ex, Supplier<T> responseSupplier) {
+        //todo: Enhancement: Improve logging in this area.
+
+        ErrorResponse errorResponse = null;
+        if (ex.responseBody().isPresent()) {
+            String responseBody = StandardCharsets.UTF_8.decode(ex.responseBody().get()).toString();
+            errorResponse = parseErrorResponse(responseBody);
         }
+
+        T response = responseSupplier.get();
+        response.handleFeignException(ex, errorResponse);
         return response;
     }
 
     /**
-     * Checks if we already have an auth token for the specified project, retrieves one if needed, and returns it .
+     * Checks if we already have an auth token for the specified project, retrieves one if needed, and returns it.
+     * Concurrent callers missing the cache for the same project share a single token request.
      *
      * @param projectID Project identifier
      * @return Returns a Helix ALM auth token
      */
     protected AuthInfoToken getNewOrExistingAuthToken(final String projectID) {
-        AuthInfoToken result = this.projectTokens.get(projectID);
+        return this.projectTokens.get(projectID);
+    }
 
-        if (result == null) {
-            result = this.getAuthToken(projectID);
-        }
+    /**
+     * Asynchronous version of {@link #getNewOrExistingAuthToken(String)}
+     *
+     * @param projectID Project identifier
+     * @return Future that completes with a Helix ALM auth token
+     */
+    protected CompletableFuture<AuthInfoToken> getNewOrExistingAuthTokenAsync(final String projectID) {
+        return this.projectTokens.getAsync(projectID);
+    }
 
-        return result;
+    /**
+     * Waits for the result of a bulk request, rethrowing the request's own exception if it failed.
+     *
+     * @param future The pending bulk request
+     * @return The bulk request result
+     * @param <R> The type of result
+     */
+    private static <R> R awaitBulkResult(final Future<R> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new CompletionException(ex.getCause());
+        }
     }
 
     /**
-     * Builds an instance of Gson. This function exists so that we can unit test deserialization.
+     * Retrieves the Gson instance of the client's codec registry. This function exists so that we can unit test
+     * deserialization. It is called once, while the client is constructed. Register extra adapters with
+     * {@link ClientOptions#setCodecRegistry(CodecRegistry)} rather than overriding it.
      *
-     * @return Gson instance
+     * @return Gson instance, shared by every client with the same codec registry
      */
     protected Gson buildGson() {
-        return new GsonBuilder()
-            .registerTypeAdapter(Instant.class, new InstantDeserializer())
-            .registerTypeAdapter(AutomationSuiteRunConfiguration.class, new AutomationSuiteRunConfigurationMarshaller())
-            .registerTypeAdapter(AutomationBuildRunConfiguration.class, new AutomationBuildRunConfigurationMarshaller())
-            .registerTypeAdapter(JenkinsBuildParameter.class, new JenkinsBuildParameterMarshaller())
-            .create();
+        return this.options.getCodecRegistry().getGson();
     }
 }
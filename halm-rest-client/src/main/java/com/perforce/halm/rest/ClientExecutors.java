@@ -0,0 +1,112 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utilities for creating the executors a {@link Client} runs its requests on.
+ */
+final class ClientExecutors {
+    /**
+     * Constructor, private due to static class
+     */
+    private ClientExecutors() {}
+
+    /**
+     * Lazily created holder for the shared scheduler
+     */
+    private static final class SchedulerHolder {
+        private static final ScheduledExecutorService scheduler = newScheduler();
+
+        private static ScheduledExecutorService newScheduler() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("halm-rest-scheduler-"));
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
+    /**
+     * Process wide scheduler for background work, such as refreshing auth tokens. Scheduled tasks must not block,
+     * they should hand off any requests to asynchronous calls.
+     *
+     * @return The shared scheduler
+     */
+    static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.scheduler;
+    }
+
+    /**
+     * Creates an executor for the specified execution mode. Falls back to platform threads if virtual threads were
+     * requested, but are not supported by the current runtime.
+     *
+     * @param mode Requested execution mode
+     * @param namePrefix Prefix for the names of the created threads
+     * @return Returns the newly created executor
+     */
+    static ExecutorService newExecutor(final ExecutionMode mode, final String namePrefix) {
+        if (mode == ExecutionMode.VIRTUAL_THREADS && VirtualThreads.isSupported()) {
+            return VirtualThreads.newExecutor(namePrefix);
+        }
+
+        // Matches the OkHttp dispatcher defaults, threads are created on demand and idle threads are reclaimed.
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * @param mode Requested execution mode
+     * @return The execution mode that will actually be used on the current runtime
+     */
+    static ExecutionMode effectiveMode(final ExecutionMode mode) {
+        return mode == ExecutionMode.VIRTUAL_THREADS && VirtualThreads.isSupported()
+            ? ExecutionMode.VIRTUAL_THREADS
+            : ExecutionMode.PLATFORM_THREADS;
+    }
+
+    /**
+     * Creates a thread factory for named daemon threads.
+     *
+     * @param namePrefix Prefix for the names of the created threads
+     * @return Returns the thread factory
+     */
+    static ThreadFactory daemonThreadFactory(final String namePrefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
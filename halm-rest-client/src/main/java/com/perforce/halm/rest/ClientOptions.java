@@ -0,0 +1,254 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Optional settings that control how a {@link Client} talks to the Helix ALM REST API.
+ */
+public class ClientOptions {
+    /**
+     * Suggested amount of time before expiry to refresh project auth tokens, see
+     * {@link #setTokenRefreshMargin(Duration)}
+     */
+    public static final Duration DEFAULT_TOKEN_REFRESH_MARGIN = Duration.ofMinutes(1);
+
+    /**
+     * Suggested minimum request body size, in bytes, to compress. Smaller bodies gain little from compression.
+     */
+    public static final long DEFAULT_REQUEST_COMPRESSION_THRESHOLD = 64 * 1024;
+
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+
+    private HttpProtocol httpProtocol = HttpProtocol.HTTP_2;
+
+    @Nullable
+    private Duration tokenRefreshMargin;
+
+    @Nullable
+    private RetryPolicy retryPolicy = new RetryPolicy();
+
+    @Nullable
+    private CircuitBreakerConfig circuitBreakerConfig;
+
+    @Nullable
+    private RateLimiter rateLimiter;
+
+    @Nullable
+    private Long requestCompressionThreshold;
+
+    private boolean streamRequestBodies = false;
+
+    private CodecRegistry codecRegistry = CodecRegistry.getDefault();
+
+    @Nullable
+    private JsonCodec jsonCodec;
+
+    /**
+     * @return The kind of threads the client runs asynchronous and bulk requests on.
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * @param executionMode The kind of threads the client runs asynchronous and bulk requests on.
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * @return The HTTP protocols the client may use.
+     */
+    public HttpProtocol getHttpProtocol() {
+        return httpProtocol;
+    }
+
+    /**
+     * @param httpProtocol The HTTP protocols the client may use.
+     */
+    public void setHttpProtocol(HttpProtocol httpProtocol) {
+        this.httpProtocol = httpProtocol;
+    }
+
+    /**
+     * How long before a project auth token expires the client renews it in the background. Tokens are never
+     * refreshed more often than once per half of their remaining lifetime.
+     *
+     * @return The refresh margin, or null if background token refresh is disabled
+     */
+    @Nullable
+    public Duration getTokenRefreshMargin() {
+        return tokenRefreshMargin;
+    }
+
+    /**
+     * Background refreshes keep running until the client is closed, so a client that enables them must be closed
+     * when it is no longer needed.
+     *
+     * @param tokenRefreshMargin How long before a project auth token expires the client renews it in the background,
+     *                           for example {@link #DEFAULT_TOKEN_REFRESH_MARGIN}. Set to null (the default) to
+     *                           disable background token refresh, expired tokens are then renewed when they are next
+     *                           used.
+     */
+    public void setTokenRefreshMargin(@Nullable Duration tokenRefreshMargin) {
+        this.tokenRefreshMargin = tokenRefreshMargin;
+    }
+
+    /**
+     * @return The policy deciding when failed requests are retried, or null if requests are never retried
+     */
+    @Nullable
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @param retryPolicy The policy deciding when failed requests are retried. Set to null to never retry requests.
+     *                    Unless the policy has its own {@link RetryBudget}, retries are limited by a budget shared by
+     *                    every client of the same server, so many clients can't add up to a retry storm.
+     */
+    public void setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * @return Thresholds for the server's circuit breaker, or null if calls are not guarded by a circuit breaker
+     */
+    @Nullable
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * @param circuitBreakerConfig Thresholds for the server's circuit breaker. The breaker is shared by every client
+     *                             targeting the same URL, and is created with the configuration of the first of them.
+     *                             Set to null (the default) to not guard calls with a circuit breaker.
+     */
+    public void setCircuitBreakerConfig(@Nullable CircuitBreakerConfig circuitBreakerConfig) {
+        this.circuitBreakerConfig = circuitBreakerConfig;
+    }
+
+    /**
+     * @return The limiter for the rate of requests the client makes, or null if requests are not rate limited
+     */
+    @Nullable
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @param rateLimiter The limiter for the rate of requests the client makes. Use the same limiter for several
+     *                    clients to limit their combined rate. Set to null (the default) to not limit requests.
+     *                    Every attempt takes a permit, including retries made by the retry policy.
+     */
+    public void setRateLimiter(@Nullable RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @return Minimum request body size, in bytes, that is compressed with gzip, or null if request bodies are never
+     *         compressed
+     */
+    @Nullable
+    public Long getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    /**
+     * Request bodies at least this large, in practice automation build submissions, are sent compressed with gzip.
+     * Compression stops for servers that don't accept compressed request bodies.
+     *
+     * @param requestCompressionThreshold Minimum request body size, in bytes, to compress. Set to null (the default)
+     *                                    to never compress request bodies. See
+     *                                    {@link #DEFAULT_REQUEST_COMPRESSION_THRESHOLD}.
+     */
+    public void setRequestCompressionThreshold(@Nullable Long requestCompressionThreshold) {
+        this.requestCompressionThreshold = requestCompressionThreshold;
+    }
+
+    /**
+     * @return Whether large request bodies, such as automation build submissions, are streamed to the server.
+     */
+    public boolean isStreamRequestBodies() {
+        return streamRequestBodies;
+    }
+
+    /**
+     * Streamed request bodies are serialized to JSON as they are sent, so a large automation build is never held in
+     * memory as a string or byte array. Streamed bodies are sent with chunked transfer encoding.
+     *
+     * @param streamRequestBodies Whether large request bodies are streamed to the server. Defaults to false.
+     */
+    public void setStreamRequestBodies(boolean streamRequestBodies) {
+        this.streamRequestBodies = streamRequestBodies;
+    }
+
+    /**
+     * @return The JSON codecs the client reads and writes REST API objects with.
+     */
+    public CodecRegistry getCodecRegistry() {
+        return codecRegistry;
+    }
+
+    /**
+     * Clients with the same registry share its Gson instance, and with it the adapters Gson has already built. Use
+     * a registry from {@link CodecRegistry#builder()} to add adapters, and share it between clients.
+     *
+     * @param codecRegistry The JSON codecs the client reads and writes REST API objects with. Defaults to
+     *                      {@link CodecRegistry#getDefault()}.
+     */
+    public void setCodecRegistry(CodecRegistry codecRegistry) {
+        this.codecRegistry = codecRegistry;
+    }
+
+    /**
+     * @return The codec the client reads and writes REST API objects with, or null to use the codec registry's Gson
+     * instance.
+     */
+    @Nullable
+    public JsonCodec getJsonCodec() {
+        return jsonCodec;
+    }
+
+    /**
+     * Replaces Gson for the requests and responses that are read or written whole. Streamed automation suites and
+     * chunked or table backed builds still use the codec registry. Other requests and responses bypass the type
+     * adapters registered with the codec registry, for example an InterningTypeAdapterFactory, since those are Gson
+     * adapters.
+     *
+     * @param jsonCodec The codec the client reads and writes REST API objects with, or null to use the codec
+     *                  registry's Gson instance. Defaults to null.
+     */
+    public void setJsonCodec(@Nullable JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+    }
+}
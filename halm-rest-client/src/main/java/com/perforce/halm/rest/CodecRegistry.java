@@ -0,0 +1,170 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import com.perforce.halm.rest.types.deserializers.AutomationTypeAdapters;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The JSON codecs a {@link Client} reads and writes REST API objects with. A registry is immutable and owns a single
+ * Gson instance, so every client using the same registry shares Gson's adapters, which are built the first time each
+ * type is read or written. Clients use the {@link #getDefault() default registry} unless their
+ * {@link ClientOptions#setCodecRegistry(CodecRegistry) options} name another one.
+ *
+ * Extensions register their own adapters on a builder, which starts with the default codecs. Later registrations
+ * take precedence over earlier ones. Build the registry once and share it between clients:
+ * <pre>
+ * CodecRegistry codecs = CodecRegistry.builder()
+ *     .registerTypeAdapterFactory(new InterningTypeAdapterFactory(new ValuePool()))
+ *     .build();
+ * options.setCodecRegistry(codecs);
+ * </pre>
+ */
+public final class CodecRegistry {
+    private final List<Consumer<GsonBuilder>> registrations;
+    private final Gson gson;
+
+    /**
+     * Constructor
+     *
+     * @param registrations Registrations to apply to the Gson builder, in order
+     */
+    private CodecRegistry(final List<Consumer<GsonBuilder>> registrations) {
+        this.registrations = registrations;
+
+        GsonBuilder builder = new GsonBuilder();
+        for (Consumer<GsonBuilder> registration : registrations) {
+            registration.accept(builder);
+        }
+        this.gson = builder.create();
+    }
+
+    /**
+     * @return The process wide registry with the default codecs
+     */
+    public static CodecRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return A builder that starts with the default codecs
+     */
+    public static Builder builder() {
+        return new Builder(defaultRegistrations());
+    }
+
+    /**
+     * @return A builder that starts with this registry's codecs
+     */
+    public Builder toBuilder() {
+        return new Builder(this.registrations);
+    }
+
+    /**
+     * @return The Gson instance of this registry. Gson instances are thread safe.
+     */
+    public Gson getGson() {
+        return this.gson;
+    }
+
+    /**
+     * @return The codecs every registry starts with. Model classes use their generated adapters, see
+     * {@link com.perforce.halm.rest.types.GenerateTypeAdapter}.
+     */
+    private static List<Consumer<GsonBuilder>> defaultRegistrations() {
+        List<Consumer<GsonBuilder>> registrations = new ArrayList<>();
+        registrations.add(builder -> builder.registerTypeAdapterFactory(new GeneratedTypeAdapterFactory()));
+        registrations.add(builder -> builder.registerTypeAdapter(Instant.class, new InstantTypeAdapter()));
+        registrations.add(builder -> builder.registerTypeAdapterFactory(AutomationTypeAdapters.suiteRunConfigurations()));
+        registrations.add(builder -> builder.registerTypeAdapterFactory(AutomationTypeAdapters.buildRunConfigurations()));
+        registrations.add(builder -> builder.registerTypeAdapterFactory(AutomationTypeAdapters.jenkinsBuildParameters()));
+        return registrations;
+    }
+
+    /**
+     * Builds codec registries. Builders aren't thread safe, the registries they build are.
+     */
+    public static final class Builder {
+        private final List<Consumer<GsonBuilder>> registrations;
+
+        /**
+         * Constructor
+         *
+         * @param registrations Registrations to start with
+         */
+        private Builder(final List<Consumer<GsonBuilder>> registrations) {
+            this.registrations = new ArrayList<>(registrations);
+        }
+
+        /**
+         * Registers an adapter for a single type, see {@link GsonBuilder#registerTypeAdapter(Type, Object)}.
+         *
+         * @param type The type the adapter is for
+         * @param typeAdapter A TypeAdapter, InstanceCreator, JsonSerializer or JsonDeserializer
+         * @return This builder
+         */
+        public Builder registerTypeAdapter(final Type type, final Object typeAdapter) {
+            this.registrations.add(builder -> builder.registerTypeAdapter(type, typeAdapter));
+            return this;
+        }
+
+        /**
+         * Registers an adapter factory, see {@link GsonBuilder#registerTypeAdapterFactory(TypeAdapterFactory)}.
+         *
+         * @param factory The factory
+         * @return This builder
+         */
+        public Builder registerTypeAdapterFactory(final TypeAdapterFactory factory) {
+            this.registrations.add(builder -> builder.registerTypeAdapterFactory(factory));
+            return this;
+        }
+
+        /**
+         * @return A new registry with the codecs registered so far
+         */
+        public CodecRegistry build() {
+            return new CodecRegistry(Collections.unmodifiableList(new ArrayList<>(this.registrations)));
+        }
+    }
+
+    /**
+     * Holds the default registry, built the first time it is used.
+     */
+    private static final class DefaultHolder {
+        private static final CodecRegistry INSTANCE = builder().build();
+    }
+}
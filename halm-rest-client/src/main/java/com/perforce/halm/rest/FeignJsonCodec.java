@@ -0,0 +1,94 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+
+/**
+ * Feign encoder and decoder that use a {@link JsonCodec}. They behave the same as Feign's GsonEncoder and
+ * GsonDecoder, which they replace.
+ */
+final class FeignJsonCodec implements Encoder, Decoder {
+    private final JsonCodec codec;
+
+    /**
+     * Constructor
+     *
+     * @param codec The codec to read and write JSON with
+     */
+    FeignJsonCodec(final JsonCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        StringWriter writer = new StringWriter();
+        try {
+            this.codec.toJson(object, bodyType, writer);
+        }
+        catch (IOException ex) {
+            // Only the writer can fail, a StringWriter doesn't.
+            throw new EncodeException(ex.getMessage(), ex);
+        }
+        template.body(writer.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object decode(Response response, Type type) throws IOException, DecodeException {
+        if (response.status() == 404 || response.status() == 204) {
+            return Util.emptyValueOf(type);
+        }
+        if (response.body() == null) {
+            return null;
+        }
+
+        Reader reader = response.body().asReader(Util.UTF_8);
+        try {
+            return this.codec.fromJson(reader, type);
+        }
+        finally {
+            Util.ensureClosed(reader);
+        }
+    }
+}
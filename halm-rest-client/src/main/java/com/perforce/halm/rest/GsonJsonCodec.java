@@ -0,0 +1,96 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * The default codec, reads and writes JSON with a Gson instance, usually that of a {@link CodecRegistry}.
+ */
+public final class GsonJsonCodec implements JsonCodec {
+    private final Gson gson;
+
+    /**
+     * Constructor
+     *
+     * @param gson Gson instance to read and write with
+     */
+    public GsonJsonCodec(final Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * @return The Gson instance this codec reads and writes with
+     */
+    public Gson getGson() {
+        return this.gson;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void toJson(Object value, Type type, Writer out) throws IOException {
+        JsonWriter writer = this.gson.newJsonWriter(out);
+        try {
+            this.gson.toJson(value, type, writer);
+        }
+        catch (JsonIOException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object fromJson(Reader in, Type type) throws IOException {
+        try {
+            return this.gson.fromJson(in, type);
+        }
+        catch (JsonIOException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    /**
+     * Gson wraps the writer's and reader's IOExceptions, report them as they were thrown.
+     */
+    private static IOException unwrap(final JsonIOException ex) {
+        if (ex.getCause() instanceof IOException) {
+            return (IOException) ex.getCause();
+        }
+        throw ex;
+    }
+}
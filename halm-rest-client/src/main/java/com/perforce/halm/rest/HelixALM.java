@@ -67,7 +67,7 @@ interface HelixALM {
      * @return Returns a menu definition
      */
     @RequestLine("GET /helix-alm/api/v0/{projectID}/configs/menus/{menuID}?expand=items,fields")
-    @Headers("Authorization: {authHeader}")
+    @Headers({"Authorization: {authHeader}", "X-Helix-ALM-Project: {projectID}"})
     MenuResponse getMenu(@Param("authHeader") String authHeader, @Param("projectID") String projectID, @Param("menuID") String menuID);
 
     /**
@@ -88,7 +88,7 @@ interface HelixALM {
      * @return Returns authorization suites
      */
     @RequestLine("GET /helix-alm/api/v0/{projectID}/automationSuites")
-    @Headers("Authorization: {authHeader}")
+    @Headers({"Authorization: {authHeader}", "X-Helix-ALM-Project: {projectID}"})
     AutomationSuitesContainer getAutomationSuites(@Param("authHeader") String authHeader, @Param("projectID") String projectID);
 
     /**
@@ -101,6 +101,6 @@ interface HelixALM {
      * @return Returns a stub for the build that was created
      */
     @RequestLine("POST /helix-alm/api/v0/{projectID}/automationSuites/{suiteID}/submitBuild")
-    @Headers({"Authorization: {authHeader}", "Content-Type: application/json"})
+    @Headers({"Authorization: {authHeader}", "Content-Type: application/json", "X-Helix-ALM-Project: {projectID}"})
     SubmitAutomationBuildResponse submitAutomationBuild(AutomationBuild automationBuild, @Param("authHeader") String authHeader, @Param("projectID") String projectID, @Param("suiteID") String suiteID);
 }
@@ -0,0 +1,225 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Process wide registry of OkHttpClients. Every {@link Client} targeting the same URL with the same set of trusted
+ * certificates and the same execution mode shares a single OkHttpClient, and with it a single connection pool, dispatcher and SSL context. This
+ * lets later clients reuse already established (and already TLS handshaked) connections.
+ *
+ * Entries are reference counted. Each {@link #acquire(ConnectionInfo)} must be matched with a {@link Lease#close()},
+ * once the last lease for an entry is closed the shared OkHttpClient is shut down and removed from the registry.
+ */
+final class HttpClientRegistry {
+    private static final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * Constructor, private due to static class
+     */
+    private HttpClientRegistry() {}
+
+    /**
+     * Retrieves the shared OkHttpClient for the specified connection, creating it if needed.
+     *
+     * @param connectionInfo Helix ALM REST API connection information
+     * @return A lease on the shared OkHttpClient. Close the lease once the client is no longer needed.
+     */
+    static Lease acquire(final ConnectionInfo connectionInfo) {
+        return acquire(connectionInfo, new ClientOptions());
+    }
+
+    /**
+     * Retrieves the shared OkHttpClient for the specified connection and options, creating it if needed.
+     *
+     * @param connectionInfo Helix ALM REST API connection information
+     * @param options Client options
+     * @return A lease on the shared OkHttpClient. Close the lease once the client is no longer needed.
+     */
+    static Lease acquire(final ConnectionInfo connectionInfo, final ClientOptions options) {
+        ExecutionMode mode = ClientExecutors.effectiveMode(options.getExecutionMode());
+        Key key = new Key(connectionInfo.url, connectionInfo.pemCerts, mode);
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(buildHttpClient(connectionInfo, mode));
+                entries.put(key, entry);
+            }
+
+            entry.refCount++;
+            return new Lease(key, entry.httpClient);
+        }
+    }
+
+    /**
+     * @return Number of shared OkHttpClients currently held by the registry.
+     */
+    static int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Releases a single reference to the entry with the specified key. Shuts down the entry's OkHttpClient if this
+     * was the last reference.
+     *
+     * @param key Registry key for the entry to release
+     */
+    private static void release(final Key key) {
+        OkHttpClient toShutdown = null;
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && --entry.refCount <= 0) {
+                entries.remove(key);
+                toShutdown = entry.httpClient;
+            }
+        }
+
+        // Shut down outside the lock, evicting connections can close sockets.
+        if (toShutdown != null) {
+            toShutdown.dispatcher().executorService().shutdown();
+            toShutdown.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Builds the OkHttpClient to share for the specified connection.
+     *
+     * @param connectionInfo Helix ALM REST API connection information
+     * @param mode Execution mode for the client's dispatcher
+     * @return Returns a newly constructed OkHttpClient
+     */
+    private static OkHttpClient buildHttpClient(final ConnectionInfo connectionInfo, final ExecutionMode mode) {
+        OkHttpClient httpClient;
+        if (connectionInfo.pemCerts == null) {
+            httpClient = HttpClientUtils.getSafeOkHttpClient();
+        }
+        else {
+            httpClient = HttpClientUtils.getTrustingOkHttpClient(connectionInfo.pemCerts);
+        }
+
+        if (mode == ExecutionMode.VIRTUAL_THREADS) {
+            // Asynchronous calls are run by the dispatcher, so give it virtual threads to run them on.
+            Dispatcher dispatcher = new Dispatcher(ClientExecutors.newExecutor(mode, "halm-rest-dispatcher-"));
+            httpClient = httpClient.newBuilder().dispatcher(dispatcher).build();
+        }
+
+        return httpClient;
+    }
+
+    /**
+     * A single reference to a shared OkHttpClient.
+     */
+    static final class Lease implements Closeable {
+        private final Key key;
+        private final OkHttpClient httpClient;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Lease(final Key key, final OkHttpClient httpClient) {
+            this.key = key;
+            this.httpClient = httpClient;
+        }
+
+        /**
+         * @return The shared OkHttpClient
+         */
+        OkHttpClient getHttpClient() {
+            return this.httpClient;
+        }
+
+        /**
+         * Releases this reference. Closing a lease more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (this.closed.compareAndSet(false, true)) {
+                HttpClientRegistry.release(this.key);
+            }
+        }
+    }
+
+    /**
+     * Shared OkHttpClient and its reference count.
+     */
+    private static final class Entry {
+        private final OkHttpClient httpClient;
+        private int refCount = 0;
+
+        private Entry(final OkHttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+    }
+
+    /**
+     * Registry key, the target URL, the set of trusted certificates and the execution mode. A null set of
+     * certificates (use the platform trust) is a different key than an empty set of certificates.
+     */
+    private static final class Key {
+        private final String url;
+        private final Set<String> pemCerts;
+        private final ExecutionMode mode;
+
+        private Key(final String url, final List<String> pemCerts, final ExecutionMode mode) {
+            this.url = url;
+            this.pemCerts = pemCerts != null ? new HashSet<>(pemCerts) : null;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return Objects.equals(this.url, other.url) && Objects.equals(this.pemCerts, other.pemCerts) &&
+                this.mode == other.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.url, this.pemCerts, this.mode);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HTTP protocols a client may use to talk to the Helix ALM REST API.
+ */
+public enum HttpProtocol {
+    /**
+     * Use HTTP/2 when the server supports it, negotiated during the TLS handshake, and HTTP/1.1 otherwise. Concurrent
+     * requests over HTTP/2 are multiplexed over a single connection. Plain HTTP connections always use HTTP/1.1.
+     */
+    HTTP_2(Protocol.HTTP_2, Protocol.HTTP_1_1),
+
+    /**
+     * Only use HTTP/1.1. Concurrent requests each need their own connection.
+     */
+    HTTP_1_1(Protocol.HTTP_1_1),
+
+    /**
+     * Use HTTP/2 over plain HTTP without negotiation (h2c with prior knowledge). Only for servers known to support it,
+     * such as local stand-ins for the REST API. Can't be used with HTTPS URLs.
+     */
+    H2_PRIOR_KNOWLEDGE(Protocol.H2_PRIOR_KNOWLEDGE);
+
+    private final List<Protocol> protocols;
+
+    HttpProtocol(final Protocol... protocols) {
+        this.protocols = Collections.unmodifiableList(Arrays.asList(protocols));
+    }
+
+    /**
+     * @return The OkHttp protocols to configure clients with
+     */
+    List<Protocol> getProtocols() {
+        return this.protocols;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Converts REST API objects to and from JSON. The client uses {@link GsonJsonCodec} unless another codec is set with
+ * {@link ClientOptions#setJsonCodec(JsonCodec)}, for example the Jackson codec from the halm-rest-client-jackson
+ * module.
+ *
+ * A codec must write the same JSON as GsonJsonCodec does with {@link CodecRegistry#getDefault()}: the same property
+ * names and order, nulls left out and the same string escaping. Codecs must be thread safe, clients share them
+ * between requests.
+ *
+ * Requests and responses that are read or written an element at a time, automation suites and chunked or table
+ * backed builds, always go through the codec registry's Gson instance.
+ */
+public interface JsonCodec {
+    /**
+     * Writes an object as JSON. The writer is neither flushed nor closed.
+     *
+     * @param value The object to write
+     * @param type The type to write the object as
+     * @param out Where to write the JSON
+     * @throws IOException If the writer fails
+     */
+    void toJson(Object value, Type type, Writer out) throws IOException;
+
+    /**
+     * Reads an object from JSON. The reader isn't closed.
+     *
+     * @param in The JSON to read
+     * @param type The type to read
+     * @return The object, or null if the JSON is empty or null
+     * @throws IOException If the reader fails. Malformed JSON, or JSON that doesn't match the type, is reported with
+     * an unchecked exception.
+     */
+    Object fromJson(Reader in, Type type) throws IOException;
+}
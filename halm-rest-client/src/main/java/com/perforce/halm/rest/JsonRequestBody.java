@@ -0,0 +1,159 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Request body that serializes an object to JSON as it is sent. The codec writes each value straight into the request
+ * sink, so the body is never held in memory as a string or byte array. The output is the same as the Feign clients
+ * produce with the same codec.
+ *
+ * The length isn't known up front, so the body is sent chunked. The body can be written more than once, for retries
+ * and authentication replays, as long as the object isn't modified in between.
+ */
+final class JsonRequestBody extends RequestBody {
+    static final MediaType JSON = MediaType.get("application/json");
+
+    private final JsonCodec codec;
+    private final Object value;
+    private final Type type;
+
+    /**
+     * Constructor
+     *
+     * @param codec The codec to serialize with
+     * @param value The object to send
+     * @param type The type to serialize the object as
+     */
+    JsonRequestBody(final JsonCodec codec, final Object value, final Type type) {
+        this.codec = codec;
+        this.value = value;
+        this.type = type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        // Not closed, the sink belongs to the caller.
+        Writer writer = new Utf8SinkWriter(sink);
+        this.codec.toJson(this.value, this.type, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writer that encodes straight into an Okio sink. Codecs make many small writes, which an OutputStreamWriter
+     * would buffer and encode with an allocation per write.
+     */
+    static final class Utf8SinkWriter extends Writer {
+        private final BufferedSink sink;
+
+        // High surrogate written on its own, waiting for the low surrogate that completes it.
+        private int pendingHighSurrogate = -1;
+
+        Utf8SinkWriter(final BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            char ch = (char) c;
+            if (this.pendingHighSurrogate >= 0) {
+                int high = this.pendingHighSurrogate;
+                this.pendingHighSurrogate = -1;
+                if (Character.isLowSurrogate(ch)) {
+                    this.sink.writeUtf8CodePoint(Character.toCodePoint((char) high, ch));
+                    return;
+                }
+                this.sink.writeUtf8CodePoint('?');
+            }
+
+            if (ch < 0x80) {
+                this.sink.writeByte(ch);
+            }
+            else if (Character.isHighSurrogate(ch)) {
+                this.pendingHighSurrogate = ch;
+            }
+            else {
+                this.sink.writeUtf8CodePoint(Character.isLowSurrogate(ch) ? '?' : ch);
+            }
+        }
+
+        @Override
+        public void write(@NotNull String str, int off, int len) throws IOException {
+            if (this.pendingHighSurrogate >= 0 || (len > 0 && Character.isHighSurrogate(str.charAt(off + len - 1)))) {
+                // Surrogate pair split across writes, rare enough to go a character at a time.
+                for (int i = off; i < off + len; i++) {
+                    this.write(str.charAt(i));
+                }
+                return;
+            }
+            this.sink.writeUtf8(str, off, off + len);
+        }
+
+        @Override
+        public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+            this.write(new String(cbuf, off, len), 0, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.sink.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // The sink belongs to the caller.
+            this.flush();
+        }
+    }
+}
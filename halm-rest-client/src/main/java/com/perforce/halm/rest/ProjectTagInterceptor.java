@@ -0,0 +1,101 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Tags requests made with a project auth token with their project, so the {@link ProjectTokenAuthenticator} knows
+ * which project's token to renew without parsing the request URL.
+ *
+ * Feign can only pass the project on as a header. This moves it from the internal {@link #PROJECT_HEADER} to a request
+ * tag, the header is never sent to the server.
+ */
+final class ProjectTagInterceptor implements Interceptor {
+    /**
+     * Internal header the Feign interfaces use to pass on the project of requests made with a project auth token
+     */
+    static final String PROJECT_HEADER = "X-Helix-ALM-Project";
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String projectID = request.header(PROJECT_HEADER);
+        if (projectID == null) {
+            return chain.proceed(request);
+        }
+
+        return chain.proceed(tag(request.newBuilder().removeHeader(PROJECT_HEADER), projectID).build());
+    }
+
+    /**
+     * Tags a request as made with the project's auth token.
+     *
+     * @param builder Builder of the request
+     * @param projectID Helix ALM project identifier
+     * @return Returns the builder
+     */
+    static Request.Builder tag(final Request.Builder builder, final String projectID) {
+        return builder.tag(ProjectTag.class, new ProjectTag(projectID));
+    }
+
+    /**
+     * @param request The request to check
+     * @return The project identifier, or null if the request was not made with a project auth token
+     */
+    @Nullable
+    static String getProjectID(final Request request) {
+        ProjectTag tag = request.tag(ProjectTag.class);
+        return tag != null ? tag.projectID : null;
+    }
+
+    /**
+     * Request tag holding the project of a request made with a project auth token
+     */
+    private static final class ProjectTag {
+        private final String projectID;
+
+        /**
+         * Constructor
+         *
+         * @param projectID Helix ALM project identifier
+         */
+        ProjectTag(final String projectID) {
+            this.projectID = projectID;
+        }
+    }
+}
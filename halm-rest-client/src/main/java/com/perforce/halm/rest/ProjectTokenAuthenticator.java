@@ -0,0 +1,92 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Recovers from project auth tokens that the server rejects, for example because they were revoked or expired
+ * earlier than expected. On a 401 response to a request made with a project auth token, the token is dropped from the
+ * cache, a new one is retrieved, and the original request is replayed once with the new token.
+ *
+ * Only requests tagged with their project by the {@link ProjectTagInterceptor} are replayed. The replay reuses the
+ * original request body. Bodies that are streamed rather than buffered (automation build submissions) are serialized
+ * again, or re-read from their spill file, to be sent a second time.
+ */
+final class ProjectTokenAuthenticator implements Authenticator {
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+
+    private final AuthTokenCache projectTokens;
+
+    /**
+     * Constructor
+     *
+     * @param projectTokens Cache of project auth tokens to renew rejected tokens through
+     */
+    ProjectTokenAuthenticator(final AuthTokenCache projectTokens) {
+        this.projectTokens = projectTokens;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, @NotNull Response response) {
+        Request request = response.request();
+        String authHeader = request.header(AUTHORIZATION_HEADER);
+        String projectID = ProjectTagInterceptor.getProjectID(request);
+
+        // Only replay once, and only requests that were made with a project auth token.
+        if (response.priorResponse() != null || authHeader == null || projectID == null) {
+            return null;
+        }
+
+        AuthInfoToken token;
+        try {
+            token = this.projectTokens.renew(projectID, authHeader);
+        }
+        catch (RuntimeException ex) {
+            // Couldn't get a new token, let the original 401 through to the caller.
+            //todo: Enhancement: Improve logging in this area.
+            return null;
+        }
+
+        if (authHeader.equals(token.getAuthorizationHeader())) {
+            return null;
+        }
+
+        return request.newBuilder()
+            .header(AUTHORIZATION_HEADER, token.getAuthorizationHeader())
+            .build();
+    }
+}
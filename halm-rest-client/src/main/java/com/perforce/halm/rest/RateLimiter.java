@@ -0,0 +1,170 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side rate limiter, with separate token buckets for reads and writes (such as submitting automation builds).
+ * Give the same limiter to several clients through {@link ClientOptions#setRateLimiter(RateLimiter)} to limit the
+ * combined rate of all of them.
+ *
+ * Each bucket holds up to its burst of permits and refills at its permit rate. Callers either wait for a permit
+ * ({@link #acquire(Operation)}), give up if it isn't available in time ({@link #tryAcquire(Operation)}), or get a
+ * future that completes once the permit is available ({@link #acquireAsync(Operation)}).
+ */
+public class RateLimiter {
+    /**
+     * Kinds of operations, each limited by its own bucket.
+     */
+    public enum Operation {
+        /**
+         * Requests that only retrieve data
+         */
+        READ,
+
+        /**
+         * Requests that change data on the server
+         */
+        WRITE
+    }
+
+    private final TokenBucket reads;
+    private final TokenBucket writes;
+
+    /**
+     * Constructor
+     *
+     * @param readsPerSecond Sustained rate of read requests
+     * @param readBurst Number of read requests allowed at once after a quiet period
+     * @param writesPerSecond Sustained rate of write requests
+     * @param writeBurst Number of write requests allowed at once after a quiet period
+     */
+    public RateLimiter(final double readsPerSecond, final int readBurst, final double writesPerSecond, final int writeBurst) {
+        this.reads = new TokenBucket(readsPerSecond, readBurst);
+        this.writes = new TokenBucket(writesPerSecond, writeBurst);
+    }
+
+    /**
+     * Waits until a permit for the operation is available. Waiting is not interrupted, but the thread's interrupt
+     * status is restored once the permit is acquired.
+     *
+     * @param operation Kind of operation to acquire a permit for
+     * @return How long the caller waited
+     */
+    public Duration acquire(final Operation operation) {
+        long wait = this.getBucket(operation).reserve();
+        sleepUninterruptibly(wait);
+        return Duration.ofNanos(wait);
+    }
+
+    /**
+     * Acquires a permit for the operation only if one is available immediately.
+     *
+     * @param operation Kind of operation to acquire a permit for
+     * @return Returns true if the permit was acquired
+     */
+    public boolean tryAcquire(final Operation operation) {
+        return this.getBucket(operation).tryReserve(0) >= 0;
+    }
+
+    /**
+     * Acquires a permit for the operation if one becomes available within the timeout, waiting for it if needed.
+     *
+     * @param operation Kind of operation to acquire a permit for
+     * @param timeout Longest time to wait for the permit
+     * @return Returns true if the permit was acquired
+     */
+    public boolean tryAcquire(final Operation operation, final Duration timeout) {
+        long wait = this.getBucket(operation).tryReserve(timeout.toNanos());
+        if (wait < 0) {
+            return false;
+        }
+        sleepUninterruptibly(wait);
+        return true;
+    }
+
+    /**
+     * Acquires a permit for the operation without blocking.
+     *
+     * @param operation Kind of operation to acquire a permit for
+     * @return Future that completes once the permit is available
+     */
+    public CompletableFuture<Void> acquireAsync(final Operation operation) {
+        long wait = this.getBucket(operation).reserve();
+        if (wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        ClientExecutors.scheduler().schedule(() -> permit.complete(null), wait, TimeUnit.NANOSECONDS);
+        return permit;
+    }
+
+    /**
+     * @param operation Kind of operation to get the metrics for
+     * @return Snapshot of the wait time metrics for the operation's bucket
+     */
+    public RateLimiterMetrics getMetrics(final Operation operation) {
+        return this.getBucket(operation).getMetrics();
+    }
+
+    /**
+     * @param operation Kind of operation
+     * @return The bucket limiting the operation
+     */
+    private TokenBucket getBucket(final Operation operation) {
+        return operation == Operation.WRITE ? this.writes : this.reads;
+    }
+
+    /**
+     * Sleeps for the specified time, even if interrupted. The interrupt status is restored afterwards.
+     *
+     * @param nanos Nanoseconds to sleep
+     */
+    private static void sleepUninterruptibly(final long nanos) {
+        boolean interrupted = false;
+        long end = System.nanoTime() + nanos;
+        try {
+            for (long remaining = nanos; remaining > 0; remaining = end - System.nanoTime()) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+                catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the wait time metrics for one of a {@link RateLimiter}'s buckets.
+ */
+public class RateLimiterMetrics {
+    private final long acquiredCount;
+    private final long delayedCount;
+    private final long rejectedCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    /**
+     * Constructor
+     *
+     * @param acquiredCount Number of permits acquired
+     * @param delayedCount Number of permits that had to be waited for
+     * @param rejectedCount Number of permits that were not acquired because they were not available in time
+     * @param totalWaitNanos Total time waited for permits
+     * @param maxWaitNanos Longest time waited for a single permit
+     */
+    RateLimiterMetrics(final long acquiredCount, final long delayedCount, final long rejectedCount,
+                       final long totalWaitNanos, final long maxWaitNanos) {
+        this.acquiredCount = acquiredCount;
+        this.delayedCount = delayedCount;
+        this.rejectedCount = rejectedCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * @return Number of permits acquired
+     */
+    public long getAcquiredCount() {
+        return acquiredCount;
+    }
+
+    /**
+     * @return Number of permits that had to be waited for
+     */
+    public long getDelayedCount() {
+        return delayedCount;
+    }
+
+    /**
+     * @return Number of permits that were not acquired because they were not available in time
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return Total time waited for permits
+     */
+    public Duration getTotalWait() {
+        return Duration.ofNanos(totalWaitNanos);
+    }
+
+    /**
+     * @return Longest time waited for a single permit
+     */
+    public Duration getMaxWait() {
+        return Duration.ofNanos(maxWaitNanos);
+    }
+
+    /**
+     * @return Average time waited per acquired permit
+     */
+    public Duration getAverageWait() {
+        return acquiredCount > 0 ? Duration.ofNanos(totalWaitNanos / acquiredCount) : Duration.ZERO;
+    }
+}
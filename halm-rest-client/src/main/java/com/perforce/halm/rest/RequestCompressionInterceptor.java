@@ -0,0 +1,167 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compresses large request bodies, such as automation build submissions, with gzip.
+ *
+ * Not every server accepts compressed request bodies, so whether a server does is tracked per server URL. A server
+ * that lists its accepted request encodings in an Accept-Encoding response header (RFC 7694) is taken at its word.
+ * Otherwise bodies are compressed until the server rejects one with 415 Unsupported Media Type, in which case that
+ * request is resent uncompressed and later requests to the server are no longer compressed.
+ */
+final class RequestCompressionInterceptor implements Interceptor {
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    private static final String GZIP = "gzip";
+    private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
+    private static final ConcurrentMap<String, Boolean> serverSupport = new ConcurrentHashMap<>();
+
+    private final String serverURL;
+    private final long threshold;
+
+    /**
+     * Constructor
+     *
+     * @param serverURL URL of the server requests are made to
+     * @param threshold Minimum request body size, in bytes, to compress
+     */
+    RequestCompressionInterceptor(final String serverURL, final long threshold) {
+        this.serverURL = serverURL;
+        this.threshold = threshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Boolean supported = serverSupport.get(this.serverURL);
+        if (Boolean.FALSE.equals(supported) || !this.shouldCompress(request)) {
+            return this.checkAcceptEncoding(chain.proceed(request));
+        }
+
+        Request compressed = request.newBuilder()
+            .header(CONTENT_ENCODING_HEADER, GZIP)
+            .method(request.method(), gzip(request.body()))
+            .build();
+        Response response = chain.proceed(compressed);
+
+        if (response.code() == UNSUPPORTED_MEDIA_TYPE && supported == null) {
+            serverSupport.put(this.serverURL, Boolean.FALSE);
+            response.close();
+            return chain.proceed(request);
+        }
+        if (response.isSuccessful()) {
+            serverSupport.putIfAbsent(this.serverURL, Boolean.TRUE);
+        }
+        return this.checkAcceptEncoding(response);
+    }
+
+    /**
+     * Checks whether a request's body is worth compressing. Bodies of unknown length are assumed to be large.
+     *
+     * @param request The request to check
+     * @return Returns true if the body should be compressed
+     */
+    private boolean shouldCompress(final Request request) throws IOException {
+        RequestBody body = request.body();
+        if (body == null || request.header(CONTENT_ENCODING_HEADER) != null) {
+            return false;
+        }
+
+        long length = body.contentLength();
+        return length < 0 || length >= this.threshold;
+    }
+
+    /**
+     * Records whether the server accepts gzip request bodies, if the response says.
+     *
+     * @param response A response from the server
+     * @return The response
+     */
+    private Response checkAcceptEncoding(final Response response) {
+        String acceptEncoding = response.header(ACCEPT_ENCODING_HEADER);
+        if (acceptEncoding != null) {
+            serverSupport.put(this.serverURL, acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP));
+        }
+        return response;
+    }
+
+    /**
+     * Wraps a request body so it is compressed as it is written. The compressed length isn't known up front, so the
+     * body is sent chunked.
+     *
+     * @param body The body to compress
+     * @return The compressing request body
+     */
+    private static RequestBody gzip(final RequestBody body) {
+        return new RequestBody() {
+            @Nullable
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public boolean isOneShot() {
+                return body.isOneShot();
+            }
+
+            @Override
+            public void writeTo(@NotNull BufferedSink sink) throws IOException {
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                    body.writeTo(gzipSink);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResultTable;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Request body submitting a build whose results are held in an {@link AutomationResultTable}. The results are
+ * written straight from the table's columns, without creating an {@link com.perforce.halm.rest.types.automation.build.AutomationResult}
+ * per row.
+ *
+ * The length isn't known up front, so the body is sent chunked. The body can be written more than once, as long as
+ * the build and table aren't modified in between.
+ */
+final class ResultTableRequestBody extends RequestBody {
+    private final Gson gson;
+    private final String prefix;
+    private final AutomationResultTable results;
+
+    /**
+     * Constructor
+     *
+     * @param gson Gson instance to serialize with
+     * @param build The build's details, its own results are ignored
+     * @param results The build's results
+     */
+    ResultTableRequestBody(final Gson gson, final AutomationBuild build, final AutomationResultTable results) {
+        this.gson = gson;
+        this.prefix = AutomationBuildWriter.resultsPrefix(gson, build);
+        this.results = results;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MediaType contentType() {
+        return JsonRequestBody.JSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        sink.writeUtf8(this.prefix);
+        // Not closed, the sink belongs to the caller.
+        JsonWriter writer = this.gson.newJsonWriter(new JsonRequestBody.Utf8SinkWriter(sink));
+        this.results.writeJson(writer);
+        writer.flush();
+        sink.writeUtf8("}");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how many retries are made against an already struggling server. The budget holds a number of tokens, every
+ * failed attempt withdraws one and every successful attempt returns a fraction of one. Retries are only made while
+ * more than half of the tokens remain, so once failures outnumber successes retries stop until the server recovers.
+ *
+ * A budget is shared by every client using the {@link RetryPolicy} that holds it. Policies without a budget use one
+ * shared by every client of the same server.
+ */
+public class RetryBudget {
+    /**
+     * Default number of tokens in the budget
+     */
+    public static final int DEFAULT_MAX_TOKENS = 10;
+
+    /**
+     * Default fraction of a token returned by every successful attempt
+     */
+    public static final double DEFAULT_TOKEN_RATIO = 0.1;
+
+    // Tokens are tracked in thousandths, so fractional deposits don't need a lock.
+    private static final long SCALE = 1000;
+
+    private static final ConcurrentMap<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    private final long maxTokens;
+    private final long tokenRatio;
+    private final AtomicLong tokens;
+
+    /**
+     * Constructor, uses the default number of tokens and token ratio.
+     */
+    public RetryBudget() {
+        this(DEFAULT_MAX_TOKENS, DEFAULT_TOKEN_RATIO);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxTokens Number of tokens in the budget
+     * @param tokenRatio Fraction of a token returned by every successful attempt
+     */
+    public RetryBudget(final int maxTokens, final double tokenRatio) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be greater than zero.");
+        }
+        if (tokenRatio < 0) {
+            throw new IllegalArgumentException("tokenRatio must not be negative.");
+        }
+        this.maxTokens = maxTokens * SCALE;
+        this.tokenRatio = Math.round(tokenRatio * SCALE);
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    /**
+     * Retrieves the budget shared by every client of a server whose retry policy has no budget of its own, creating it
+     * with the default number of tokens and token ratio if needed.
+     *
+     * @param url Helix ALM REST API server URL
+     * @return Returns the server's retry budget
+     */
+    static RetryBudget forServer(final String url) {
+        return budgets.computeIfAbsent(url, key -> new RetryBudget());
+    }
+
+    /**
+     * @return The number of tokens currently in the budget
+     */
+    public double getAvailableTokens() {
+        return (double) this.tokens.get() / SCALE;
+    }
+
+    /**
+     * Records a successful attempt.
+     */
+    void onSuccess() {
+        this.tokens.accumulateAndGet(this.tokenRatio, (current, delta) -> Math.min(this.maxTokens, current + delta));
+    }
+
+    /**
+     * Records a failed attempt, and checks whether it may be retried.
+     *
+     * @return Returns true if the budget allows retrying the attempt
+     */
+    boolean onFailure() {
+        long remaining = this.tokens.accumulateAndGet(SCALE, (current, delta) -> Math.max(0, current - delta));
+        return remaining > this.maxTokens / 2;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries failed requests according to a {@link RetryPolicy}.
+ *
+ * Retries are made from within the call, so asynchronous calls hold their dispatcher thread while waiting to retry.
+ * With a {@link RateLimiter}, each retry also waits for a permit, as the first attempt did before the call was made.
+ */
+final class RetryInterceptor implements Interceptor {
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+    @Nullable
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructor
+     *
+     * @param policy The policy deciding which requests are retried
+     * @param budget The budget limiting how many retries are made
+     */
+    RetryInterceptor(final RetryPolicy policy, final RetryBudget budget) {
+        this(policy, budget, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param policy The policy deciding which requests are retried
+     * @param budget The budget limiting how many retries are made
+     * @param rateLimiter The limiter retries take a permit from, or null if requests are not rate limited
+     */
+    RetryInterceptor(final RetryPolicy policy, final RetryBudget budget, @Nullable final RateLimiter rateLimiter) {
+        this.policy = policy;
+        this.budget = budget;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        long baseDelay = this.policy.getBaseDelay().toMillis();
+        long previousDelay = baseDelay;
+
+        for (int attempt = 1; ; attempt++) {
+            Response response = null;
+            IOException error = null;
+            try {
+                response = chain.proceed(request);
+            }
+            catch (IOException ex) {
+                error = ex;
+            }
+
+            if (response != null && !this.policy.isRetryable(request, response.code())) {
+                this.budget.onSuccess();
+                return response;
+            }
+            if (chain.call().isCanceled()) {
+                // Nobody is waiting for a retry.
+                if (response != null) {
+                    return response;
+                }
+                throw error;
+            }
+
+            boolean retryable = response != null || this.policy.isRetryable(request, error);
+            boolean withinBudget = this.budget.onFailure();
+            long delay = -1;
+            if (retryable && withinBudget && attempt < this.policy.getMaxAttempts()) {
+                Long retryAfter = response != null ? getRetryAfter(response) : null;
+                if (retryAfter == null) {
+                    // Decorrelated jitter, a random delay between the base delay and three times the previous delay.
+                    long upper = Math.max(baseDelay, previousDelay * 3);
+                    delay = Math.min(this.policy.getMaxDelay().toMillis(),
+                        ThreadLocalRandom.current().nextLong(baseDelay, upper + 1));
+                    previousDelay = delay;
+                }
+                else if (retryAfter <= this.policy.getMaxRetryAfter().toMillis()) {
+                    delay = retryAfter;
+                }
+            }
+
+            if (delay < 0) {
+                if (response != null) {
+                    return response;
+                }
+                throw error;
+            }
+
+            if (response != null) {
+                response.close();
+            }
+            sleep(delay);
+            if (chain.call().isCanceled()) {
+                throw new IOException("Canceled");
+            }
+            if (this.rateLimiter != null) {
+                this.rateLimiter.acquire(getOperation(request));
+            }
+        }
+    }
+
+    /**
+     * @param request The request being retried
+     * @return The kind of operation the request is, for the rate limiter
+     */
+    private static RateLimiter.Operation getOperation(final Request request) {
+        String method = request.method();
+        return "GET".equals(method) || "HEAD".equals(method) ? RateLimiter.Operation.READ : RateLimiter.Operation.WRITE;
+    }
+
+    /**
+     * Reads the delay the server asked for from the Retry-After header. The header is either a number of seconds, or
+     * a date relative to the response's Date header.
+     *
+     * @param response The response to read the header from
+     * @return The delay in milliseconds, or null if the response has no valid Retry-After header
+     */
+    @Nullable
+    private static Long getRetryAfter(final Response response) {
+        String value = response.header(RETRY_AFTER_HEADER);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        }
+        catch (NumberFormatException ex) {
+            // Not a number of seconds, try a date.
+        }
+
+        Date retryAt = response.headers().getDate(RETRY_AFTER_HEADER);
+        if (retryAt == null) {
+            return null;
+        }
+        Date serverNow = response.headers().getDate("Date");
+        long now = serverNow != null ? serverNow.getTime() : System.currentTimeMillis();
+        return Math.max(0, retryAt.getTime() - now);
+    }
+
+    /**
+     * Waits before retrying.
+     *
+     * @param delay Milliseconds to wait
+     * @throws InterruptedIOException Thrown if the thread is interrupted while waiting
+     */
+    private static void sleep(final long delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting to retry.");
+            interrupted.initCause(ex);
+            throw interrupted;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Request;
+import org.jetbrains.annotations.Nullable;
+
+import javax.net.ssl.SSLException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controls when and how often failed requests are retried.
+ *
+ * Responses that show the server did not process the request (429 Too Many Requests and 503 Service Unavailable by
+ * default), and connections that could not be established, are retried for every endpoint. Other failures, such as a
+ * connection reset while waiting for a response or a gateway error, are only retried for idempotent endpoints since
+ * the server may already have processed the request. GET, HEAD, PUT, DELETE and OPTIONS requests are idempotent,
+ * individual endpoints can be overridden with {@link #setIdempotent(String, boolean)}.
+ *
+ * Retries back off exponentially with decorrelated jitter, unless the server sends a Retry-After header. Retries are
+ * also limited by a {@link RetryBudget}, which by default is shared by every client of the same server.
+ */
+public class RetryPolicy {
+    private static final Set<String> IDEMPOTENT_METHODS =
+        new HashSet<>(Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS"));
+
+    private int maxAttempts = 3;
+    private Duration baseDelay = Duration.ofMillis(200);
+    private Duration maxDelay = Duration.ofSeconds(10);
+    private Duration maxRetryAfter = Duration.ofMinutes(1);
+    private Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(429, 503));
+    private Set<Integer> idempotentRetryableStatusCodes = new HashSet<>(Arrays.asList(502, 504));
+    private RetryBudget retryBudget;
+    private final Map<String, Boolean> idempotentEndpoints = new LinkedHashMap<>();
+
+    /**
+     * @return The maximum number of attempts made for a request, including the first one.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param maxAttempts The maximum number of attempts made for a request, including the first one.
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * @return The minimum delay between attempts.
+     */
+    public Duration getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * @param baseDelay The minimum delay between attempts.
+     */
+    public void setBaseDelay(Duration baseDelay) {
+        this.baseDelay = baseDelay;
+    }
+
+    /**
+     * @return The maximum delay between attempts, when the server does not send a Retry-After header.
+     */
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * @param maxDelay The maximum delay between attempts, when the server does not send a Retry-After header.
+     */
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * @return The longest Retry-After delay that is honored. Responses asking for a longer delay are not retried.
+     */
+    public Duration getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    /**
+     * @param maxRetryAfter The longest Retry-After delay that is honored. Responses asking for a longer delay are not
+     *                      retried.
+     */
+    public void setMaxRetryAfter(Duration maxRetryAfter) {
+        this.maxRetryAfter = maxRetryAfter;
+    }
+
+    /**
+     * @return Response status codes that are retried for every endpoint.
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    /**
+     * @param retryableStatusCodes Response status codes that are retried for every endpoint.
+     */
+    public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+        this.retryableStatusCodes = retryableStatusCodes;
+    }
+
+    /**
+     * @return Response status codes that are only retried for idempotent endpoints.
+     */
+    public Set<Integer> getIdempotentRetryableStatusCodes() {
+        return idempotentRetryableStatusCodes;
+    }
+
+    /**
+     * @param idempotentRetryableStatusCodes Response status codes that are only retried for idempotent endpoints.
+     */
+    public void setIdempotentRetryableStatusCodes(Set<Integer> idempotentRetryableStatusCodes) {
+        this.idempotentRetryableStatusCodes = idempotentRetryableStatusCodes;
+    }
+
+    /**
+     * @return The budget limiting how many retries are made, or null to use the budget shared by every client of the
+     *         server.
+     */
+    @Nullable
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * @param retryBudget The budget limiting how many retries are made. Share a budget between policies to limit
+     *                    retries across all of their clients. Set to null, the default, to use the budget shared by
+     *                    every client of the server.
+     */
+    public void setRetryBudget(@Nullable RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * @return Endpoints whose idempotency was overridden, keyed by endpoint.
+     */
+    public Map<String, Boolean> getIdempotentEndpoints() {
+        return Collections.unmodifiableMap(idempotentEndpoints);
+    }
+
+    /**
+     * Overrides whether an endpoint is idempotent. Endpoints are specified as the method and path, with path
+     * parameters in braces. For example: "POST /helix-alm/api/v0/{projectID}/automationSuites/{suiteID}/submitBuild"
+     *
+     * @param endpoint The endpoint to override
+     * @param idempotent Whether requests to the endpoint may be safely repeated
+     */
+    public void setIdempotent(String endpoint, boolean idempotent) {
+        this.idempotentEndpoints.put(endpoint, idempotent);
+    }
+
+    /**
+     * Checks whether a request may be safely repeated.
+     *
+     * @param request The request to check
+     * @return Returns true if the request is idempotent
+     */
+    boolean isIdempotent(final Request request) {
+        for (Map.Entry<String, Boolean> entry : this.idempotentEndpoints.entrySet()) {
+            if (matchesEndpoint(entry.getKey(), request)) {
+                return entry.getValue();
+            }
+        }
+        return IDEMPOTENT_METHODS.contains(request.method());
+    }
+
+    /**
+     * Checks whether a request that received the specified response status code should be retried.
+     *
+     * @param request The request that was made
+     * @param statusCode The response status code
+     * @return Returns true if the request should be retried
+     */
+    boolean isRetryable(final Request request, final int statusCode) {
+        return this.retryableStatusCodes.contains(statusCode) ||
+            (this.idempotentRetryableStatusCodes.contains(statusCode) && this.isIdempotent(request));
+    }
+
+    /**
+     * Checks whether a request that failed with the specified error should be retried. TLS failures, unknown hosts and
+     * interrupted calls are never retried, another attempt would fail the same way. Canceled calls are not retried
+     * either, the {@link RetryInterceptor} checks for those.
+     *
+     * @param request The request that was made
+     * @param error The error the request failed with
+     * @return Returns true if the request should be retried
+     */
+    boolean isRetryable(final Request request, final Exception error) {
+        if (error instanceof SSLException || error instanceof UnknownHostException ||
+            (error instanceof InterruptedIOException && !(error instanceof SocketTimeoutException))) {
+            return false;
+        }
+
+        // The request never reached the server if the connection could not be established.
+        return error instanceof ConnectException || this.isIdempotent(request);
+    }
+
+    /**
+     * Checks whether a request was made to the specified endpoint.
+     *
+     * @param endpoint Endpoint method and path, with path parameters in braces
+     * @param request The request to check
+     * @return Returns true if the request matches the endpoint
+     */
+    private static boolean matchesEndpoint(final String endpoint, final Request request) {
+        int space = endpoint.indexOf(' ');
+        if (space < 0 || !endpoint.substring(0, space).equalsIgnoreCase(request.method())) {
+            return false;
+        }
+
+        String path = endpoint.substring(space + 1).trim();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+
+        String[] endpointSegments = path.replaceFirst("^/", "").split("/");
+        List<String> requestSegments = request.url().pathSegments();
+        if (endpointSegments.length != requestSegments.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < endpointSegments.length; i++) {
+            String segment = endpointSegments[i];
+            boolean isParameter = segment.startsWith("{") && segment.endsWith("}");
+            if (!isParameter && !segment.equals(requestSegments.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
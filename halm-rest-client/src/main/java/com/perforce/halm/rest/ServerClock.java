@@ -0,0 +1,97 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Tracks the difference between the Helix ALM REST API server's clock and the local clock, using the HTTP Date header
+ * of every response that passes through it. This lets server issued times, such as token expiry times, be compared
+ * against the local clock even if the two clocks disagree.
+ */
+final class ServerClock implements Interceptor {
+    private volatile long offsetMillis;
+
+    /**
+     * Constructor, assumes the clocks agree until a response says otherwise.
+     */
+    ServerClock() {
+        this(0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param offsetMillis How far ahead of the local clock the server clock is, in milliseconds
+     */
+    ServerClock(final long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+
+        Date serverDate = response.headers().getDate("Date");
+        if (serverDate != null) {
+            // The server stamped the response somewhere between sending the request and receiving the response,
+            // assume the midpoint.
+            long localMillis = (response.sentRequestAtMillis() + response.receivedResponseAtMillis()) / 2;
+            this.offsetMillis = serverDate.getTime() - localMillis;
+        }
+
+        return response;
+    }
+
+    /**
+     * @return How far ahead of the local clock the server clock is, in milliseconds. Negative if the server clock is
+     *         behind the local clock.
+     */
+    long getOffsetMillis() {
+        return this.offsetMillis;
+    }
+
+    /**
+     * Converts a time issued by the server into the equivalent local time.
+     *
+     * @param serverTime Time according to the server's clock
+     * @return The same time according to the local clock
+     */
+    Instant toLocal(final Instant serverTime) {
+        return serverTime.minusMillis(this.offsetMillis);
+    }
+}
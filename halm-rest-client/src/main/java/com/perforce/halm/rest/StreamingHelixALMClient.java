@@ -0,0 +1,430 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.perforce.halm.rest.responses.SubmitAutomationBuildResponse;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuite;
+import feign.FeignException;
+import feign.RetryableException;
+import feign.codec.DecodeException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Calls the Helix ALM REST API endpoints that send or receive large bodies directly through OkHttp, bypassing Feign
+ * so the bodies can be streamed. Request bodies are written with {@link JsonRequestBody}, Feign always encodes a
+ * request body to a byte array before sending it. Response bodies are read an element at a time, Feign always decodes
+ * the whole response.
+ *
+ * Calls report errors the same way the Feign clients do, by throwing (or completing exceptionally with)
+ * {@link FeignException}, so callers handle them the same way.
+ */
+final class StreamingHelixALMClient {
+    private static final String SUBMIT_BUILD_METHOD_KEY = "HelixALM#submitAutomationBuild(AutomationBuild,String,String,String)";
+    private static final String GET_SUITES_METHOD_KEY = "HelixALM#getAutomationSuites(String,String)";
+    private static final String SUITES_FIELD = "automationSuitesData";
+
+    private final OkHttpClient httpClient;
+    private final String url;
+    private final Gson gson;
+    private final JsonCodec codec;
+
+    /**
+     * Constructor
+     *
+     * @param httpClient The client to send requests with
+     * @param url Helix ALM REST API URL
+     * @param gson Gson instance to read automation suites with, an element at a time
+     * @param codec The codec to serialize and deserialize whole bodies with
+     */
+    StreamingHelixALMClient(final OkHttpClient httpClient, final String url, final Gson gson, final JsonCodec codec) {
+        this.httpClient = httpClient;
+        this.url = url;
+        this.gson = gson;
+        this.codec = codec;
+    }
+
+    /**
+     * Streaming version of {@link HelixALM#submitAutomationBuild(AutomationBuild, String, String, String)}
+     *
+     * @param automationBuild The build to submit
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Submit automation build response
+     */
+    SubmitAutomationBuildResponse submitAutomationBuild(final AutomationBuild automationBuild, final String authHeader,
+                                                        final String projectID, final String suiteID) {
+        return this.submitAutomationBuild(new JsonRequestBody(this.codec, automationBuild, AutomationBuild.class),
+            authHeader, projectID, suiteID);
+    }
+
+    /**
+     * Version of {@link #submitAutomationBuild(AutomationBuild, String, String, String)} sending an already built
+     * request body.
+     *
+     * @param body Request body with the build to submit
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Submit automation build response
+     */
+    SubmitAutomationBuildResponse submitAutomationBuild(final RequestBody body, final String authHeader,
+                                                        final String projectID, final String suiteID) {
+        Request request = this.newSubmitAutomationBuildRequest(body, authHeader, projectID, suiteID);
+        try (Response response = this.httpClient.newCall(request).execute()) {
+            return this.decode(response, SubmitAutomationBuildResponse.class, SUBMIT_BUILD_METHOD_KEY);
+        }
+        catch (IOException ex) {
+            throw errorExecuting(request, ex);
+        }
+    }
+
+    /**
+     * Asynchronous version of
+     * {@link #submitAutomationBuild(AutomationBuild, String, String, String)}
+     *
+     * @param automationBuild The build to submit
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Future that completes with the submit automation build response
+     */
+    CompletableFuture<SubmitAutomationBuildResponse> submitAutomationBuildAsync(final AutomationBuild automationBuild,
+                                                                                final String authHeader,
+                                                                                final String projectID,
+                                                                                final String suiteID) {
+        return this.submitAutomationBuildAsync(new JsonRequestBody(this.codec, automationBuild, AutomationBuild.class),
+            authHeader, projectID, suiteID);
+    }
+
+    /**
+     * Asynchronous version of {@link #submitAutomationBuild(RequestBody, String, String, String)}
+     *
+     * @param body Request body with the build to submit
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return Future that completes with the submit automation build response
+     */
+    CompletableFuture<SubmitAutomationBuildResponse> submitAutomationBuildAsync(final RequestBody body,
+                                                                                final String authHeader,
+                                                                                final String projectID,
+                                                                                final String suiteID) {
+        Request request = this.newSubmitAutomationBuildRequest(body, authHeader, projectID, suiteID);
+        CompletableFuture<SubmitAutomationBuildResponse> future = new CompletableFuture<>();
+        this.httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException ex) {
+                future.completeExceptionally(errorExecuting(request, ex));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (Response closing = response) {
+                    future.complete(decode(closing, SubmitAutomationBuildResponse.class, SUBMIT_BUILD_METHOD_KEY));
+                }
+                catch (IOException ex) {
+                    future.completeExceptionally(errorExecuting(request, ex));
+                }
+                catch (RuntimeException ex) {
+                    future.completeExceptionally(ex);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Streaming version of {@link HelixALM#getAutomationSuites(String, String)}. Suites are passed to the action as
+     * they are read from the response, so only a single suite is held in memory at a time.
+     *
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param action Called with each suite, on the calling thread
+     */
+    void forEachAutomationSuite(final String authHeader, final String projectID, final Consumer<AutomationSuite> action) {
+        Request request = this.newGetAutomationSuitesRequest(authHeader, projectID);
+        try (Response response = this.httpClient.newCall(request).execute()) {
+            this.readAutomationSuites(response, action);
+        }
+        catch (IOException ex) {
+            throw errorExecuting(request, ex);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #forEachAutomationSuite(String, String, Consumer)}
+     *
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param action Called with each suite, on the HTTP client's dispatcher thread
+     * @return Future that completes once every suite was passed to the action
+     */
+    CompletableFuture<Void> forEachAutomationSuiteAsync(final String authHeader, final String projectID,
+                                                        final Consumer<AutomationSuite> action) {
+        Request request = this.newGetAutomationSuitesRequest(authHeader, projectID);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        this.httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException ex) {
+                future.completeExceptionally(errorExecuting(request, ex));
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (Response closing = response) {
+                    readAutomationSuites(closing, action);
+                    future.complete(null);
+                }
+                catch (IOException ex) {
+                    future.completeExceptionally(errorExecuting(request, ex));
+                }
+                catch (RuntimeException ex) {
+                    future.completeExceptionally(ex);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Builds an automation build submission request.
+     *
+     * @param body Request body with the build to submit
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @param suiteID Helix ALM automation suite identifier
+     * @return The request
+     */
+    private Request newSubmitAutomationBuildRequest(final RequestBody body, final String authHeader,
+                                                    final String projectID, final String suiteID) {
+        HttpUrl requestURL = HttpUrl.get(this.url).newBuilder()
+            .addPathSegments("helix-alm/api/v0")
+            .addPathSegment(projectID)
+            .addPathSegment("automationSuites")
+            .addPathSegment(suiteID)
+            .addPathSegment("submitBuild")
+            .build();
+
+        return ProjectTagInterceptor.tag(new Request.Builder(), projectID)
+            .url(requestURL)
+            .header("Authorization", authHeader)
+            .header("Accept", "*/*")
+            .post(body)
+            .build();
+    }
+
+    /**
+     * Builds a request for a project's automation suites.
+     *
+     * @param authHeader Authorization header for the project
+     * @param projectID Helix ALM project identifier
+     * @return The request
+     */
+    private Request newGetAutomationSuitesRequest(final String authHeader, final String projectID) {
+        HttpUrl requestURL = HttpUrl.get(this.url).newBuilder()
+            .addPathSegments("helix-alm/api/v0")
+            .addPathSegment(projectID)
+            .addPathSegment("automationSuites")
+            .build();
+
+        return ProjectTagInterceptor.tag(new Request.Builder(), projectID)
+            .url(requestURL)
+            .header("Authorization", authHeader)
+            .header("Accept", "*/*")
+            .get()
+            .build();
+    }
+
+    /**
+     * Reads the suites from an automation suites response one at a time, skipping the rest of the response.
+     *
+     * @param response The response to read
+     * @param action Called with each suite
+     * @throws IOException Thrown if the response body couldn't be read
+     */
+    private void readAutomationSuites(final Response response, final Consumer<AutomationSuite> action) throws IOException {
+        ResponseBody body = this.checkSuccessful(response, GET_SUITES_METHOD_KEY);
+        if (body == null) {
+            return;
+        }
+
+        try (JsonReader reader = this.gson.newJsonReader(body.charStream())) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(SUITES_FIELD) || reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    AutomationSuite suite = this.gson.fromJson(reader, AutomationSuite.class);
+                    try {
+                        action.accept(suite);
+                    }
+                    catch (RuntimeException ex) {
+                        throw new ActionFailedException(ex);
+                    }
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        catch (ActionFailedException ex) {
+            throw ex.failure;
+        }
+        catch (JsonParseException | IllegalStateException ex) {
+            throw new DecodeException(response.code(), ex.getMessage(), toFeignRequest(response.request()), ex);
+        }
+    }
+
+    /**
+     * Reads a response the way the Feign clients would. Successful responses are deserialized, errors are thrown as
+     * FeignException.
+     *
+     * @param response The response to read
+     * @param type The type to deserialize a successful response to
+     * @param methodKey Identifies the called endpoint in error messages
+     * @return The deserialized response
+     * @param <T> The type of response
+     * @throws IOException Thrown if the response body couldn't be read
+     */
+    private <T> T decode(final Response response, final Type type, final String methodKey) throws IOException {
+        ResponseBody body = this.checkSuccessful(response, methodKey);
+        if (body == null) {
+            return null;
+        }
+        try (Reader reader = body.charStream()) {
+            @SuppressWarnings("unchecked")
+            T value = (T) this.codec.fromJson(reader, type);
+            return value;
+        }
+        catch (RuntimeException ex) {
+            // As Feign reports a decoder's unchecked exceptions.
+            throw new DecodeException(response.code(), ex.getMessage(), toFeignRequest(response.request()), ex);
+        }
+    }
+
+    /**
+     * Throws the error Feign would for an unsuccessful response.
+     *
+     * @param response The response to check
+     * @param methodKey Identifies the called endpoint in error messages
+     * @return The body of the successful response
+     * @throws IOException Thrown if the body of an error response couldn't be read
+     */
+    private ResponseBody checkSuccessful(final Response response, final String methodKey) throws IOException {
+        ResponseBody body = response.body();
+        if (!response.isSuccessful()) {
+            byte[] errorBody = body != null ? body.bytes() : null;
+            feign.Response feignResponse = feign.Response.builder()
+                .status(response.code())
+                .reason(response.message())
+                .headers(toFeignHeaders(response))
+                .request(toFeignRequest(response.request()))
+                .body(errorBody)
+                .build();
+            throw FeignException.errorStatus(methodKey, feignResponse);
+        }
+        return body;
+    }
+
+    /**
+     * Builds the error Feign reports for a request that failed to execute.
+     *
+     * @param request The request
+     * @param ex Why the request failed
+     * @return The error
+     */
+    private static FeignException errorExecuting(final Request request, final IOException ex) {
+        feign.Request feignRequest = toFeignRequest(request);
+        return new RetryableException(-1, String.format("%s executing %s %s", ex.getMessage(), request.method(), request.url()),
+            feignRequest.httpMethod(), ex, (Long) null, feignRequest);
+    }
+
+    /**
+     * Converts a request to the Feign request reported in errors. The body isn't included.
+     *
+     * @param request The request
+     * @return The Feign request
+     */
+    private static feign.Request toFeignRequest(final Request request) {
+        return feign.Request.create(feign.Request.HttpMethod.valueOf(request.method()), request.url().toString(),
+            Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+
+    /**
+     * @param response The response
+     * @return The response headers in the form Feign uses
+     */
+    private static Map<String, Collection<String>> toFeignHeaders(final Response response) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        for (String name : response.headers().names()) {
+            headers.put(name, response.headers(name));
+        }
+        return headers;
+    }
+
+    /**
+     * Carries an exception thrown by a caller's action past the handling of response parsing errors.
+     */
+    private static final class ActionFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final RuntimeException failure;
+
+        private ActionFailedException(final RuntimeException failure) {
+            super(failure);
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free token bucket. Rather than counting tokens, the bucket tracks the time at which it will next be full, and
+ * each permit pushes that time back by one interval. A permit is available immediately while the bucket would be full
+ * within burst intervals, otherwise the caller waits for the difference.
+ */
+final class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Constructor, the bucket starts full.
+     *
+     * @param permitsPerSecond Rate at which permits are added to the bucket
+     * @param burst Maximum number of permits the bucket holds
+     */
+    TokenBucket(final double permitsPerSecond, final int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("The permit rate and burst must be greater than zero.");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = this.intervalNanos * burst;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves a permit, waiting as long as needed.
+     *
+     * @return Nanoseconds the caller must wait before using the permit
+     */
+    long reserve() {
+        return this.tryReserve(Long.MAX_VALUE);
+    }
+
+    /**
+     * Reserves a permit if it is available within the specified wait.
+     *
+     * @param maxWaitNanos Longest the caller is willing to wait
+     * @return Nanoseconds the caller must wait before using the permit, or -1 if no permit was reserved
+     */
+    long tryReserve(final long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = this.fullAt.get();
+            long next = Math.max(current, now) + this.intervalNanos;
+            long wait = Math.max(0, next - this.burstNanos - now);
+
+            if (wait > maxWaitNanos) {
+                this.rejected.increment();
+                return -1;
+            }
+            if (this.fullAt.compareAndSet(current, next)) {
+                this.recordWait(wait);
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * @return Snapshot of the bucket's wait time metrics
+     */
+    RateLimiterMetrics getMetrics() {
+        return new RateLimiterMetrics(this.acquired.sum(), this.delayed.sum(), this.rejected.sum(),
+            this.totalWaitNanos.sum(), this.maxWaitNanos.get());
+    }
+
+    /**
+     * Records a reserved permit.
+     *
+     * @param waitNanos Nanoseconds the caller waits for the permit
+     */
+    private void recordWait(final long waitNanos) {
+        this.acquired.increment();
+        if (waitNanos > 0) {
+            this.delayed.increment();
+            this.totalWaitNanos.add(waitNanos);
+            this.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.reports;
+
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads a directory of test reports in parallel, for builds that write a report per test class or per shard.
+ * Reports are read with {@link TestReportParser} on a work stealing fork/join pool, and their results are then
+ * merged in a stable order: sorted by report path, then in report order. XML files that aren't test reports are
+ * skipped.
+ */
+public final class ReportDirectoryParser {
+    private final int parallelism;
+
+    /**
+     * Constructor, reads as many reports at once as there are processors.
+     */
+    public ReportDirectoryParser() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param parallelism Maximum number of reports read at once
+     */
+    public ReportDirectoryParser(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return Maximum number of reports read at once
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Reads the reports in a directory, and its subdirectories, into a new build.
+     *
+     * @param directory The directory to read
+     * @return Build with the results of every report
+     * @throws IOException Thrown if the directory or a report could not be read
+     */
+    public AutomationBuild parse(final Path directory) throws IOException {
+        AutomationBuild build = new AutomationBuild();
+        build.setResults(new ArrayList<>());
+        this.parse(directory, build::addResult);
+        return build;
+    }
+
+    /**
+     * Reads the reports in a directory, and its subdirectories.
+     *
+     * @param directory The directory to read
+     * @param sink Receives the results of every report, in a stable order
+     * @throws IOException Thrown if the directory or a report could not be read, or if the sink failed
+     */
+    public void parse(final Path directory, final ResultSink sink) throws IOException {
+        this.parse(findReports(directory), sink);
+    }
+
+    /**
+     * Reads the specified reports.
+     *
+     * @param reports The reports to read
+     * @param sink Receives the results of every report, in the order of the reports
+     * @throws IOException Thrown if a report could not be read, or if the sink failed
+     */
+    public void parse(final List<Path> reports, final ResultSink sink) throws IOException {
+        List<List<AutomationResult>> results = new ArrayList<>(Collections.nCopies(reports.size(), null));
+        if (!reports.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+            try {
+                pool.invoke(new ParseTask(reports, results, 0, reports.size()));
+            }
+            catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+
+        // Results are only passed on once every report was read, so the sink sees them in order and on this thread.
+        for (List<AutomationResult> reportResults : results) {
+            for (AutomationResult result : reportResults) {
+                sink.accept(result);
+            }
+        }
+    }
+
+    /**
+     * Finds the XML files in a directory and its subdirectories.
+     *
+     * @param directory The directory to search
+     * @return The XML files, sorted by path
+     * @throws IOException Thrown if the directory could not be read
+     */
+    public static List<Path> findReports(final Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                .filter(path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xml"))
+                .filter(Files::isRegularFile)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads a range of reports, splitting the range until a single report is left.
+     */
+    private static final class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> reports;
+        private final List<List<AutomationResult>> results;
+        private final int start;
+        private final int end;
+
+        private ParseTask(final List<Path> reports, final List<List<AutomationResult>> results, final int start,
+            final int end) {
+            this.reports = reports;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start > 1) {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new ParseTask(this.reports, this.results, this.start, middle),
+                    new ParseTask(this.reports, this.results, middle, this.end));
+                return;
+            }
+
+            Path report = this.reports.get(this.start);
+            List<AutomationResult> reportResults = new ArrayList<>();
+            try {
+                TestReportParser.parse(report, reportResults::add);
+            }
+            catch (UnknownReportFormatException ex) {
+                // Not a test report.
+                reportResults.clear();
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(new IOException(
+                    String.format("Could not read test report %s: %s", report, ex.getMessage()), ex));
+            }
+            this.results.set(this.start, reportResults);
+        }
+    }
+}
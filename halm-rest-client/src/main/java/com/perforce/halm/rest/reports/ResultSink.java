@@ -0,0 +1,56 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.reports;
+
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.ValuePool;
+
+import java.io.IOException;
+
+/**
+ * Receives the results read from a test report, one at a time. For example
+ * {@code AutomationBuild::addResult} or {@code AutomationBuildWriter::addResult}.
+ */
+@FunctionalInterface
+public interface ResultSink {
+    /**
+     * @param result The next result read from the report
+     * @throws IOException Thrown if the result could not be stored
+     */
+    void accept(AutomationResult result) throws IOException;
+
+    /**
+     * Wraps a sink so the attribute values of the results passed to it are interned first.
+     *
+     * @param pool The pool to intern values with
+     * @param sink The sink to pass the interned results to
+     * @return The wrapping sink
+     */
+    static ResultSink interning(final ValuePool pool, final ResultSink sink) {
+        return result -> sink.accept(pool.intern(result));
+    }
+}
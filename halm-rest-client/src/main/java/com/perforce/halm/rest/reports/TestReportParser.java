@@ -0,0 +1,493 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.reports;
+
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.AutomationResultStatus;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads JUnit, TestNG and NUnit XML test reports into {@link AutomationResult} objects. Reports are read with StAX
+ * and each result is passed to the sink as soon as its test case was read, so only a single test case is held in
+ * memory no matter how large the report is.
+ *
+ * The format is detected from the report's root element.
+ */
+public final class TestReportParser {
+    private static final XMLInputFactory FACTORY = newInputFactory();
+
+    /**
+     * Constructor, private due to static class
+     */
+    private TestReportParser() {}
+
+    /**
+     * Reads a test report file.
+     *
+     * @param file The report to read
+     * @param sink Receives the results
+     * @return The report's format
+     * @throws IOException Thrown if the report could not be read, is not valid XML or has an unknown format, or if
+     *                     the sink failed
+     */
+    public static ReportFormat parse(final Path file, final ResultSink sink) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return parse(in, sink);
+        }
+    }
+
+    /**
+     * Reads a test report. The stream is not closed.
+     *
+     * @param in The report to read
+     * @param sink Receives the results
+     * @return The report's format
+     * @throws IOException Thrown if the report could not be read, is not valid XML or has an unknown format, or if
+     *                     the sink failed
+     */
+    public static ReportFormat parse(final InputStream in, final ResultSink sink) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext() && reader.next() != XMLStreamConstants.START_ELEMENT) {
+                // Skip the prolog.
+            }
+            if (!reader.isStartElement()) {
+                throw new IOException("Test report has no root element.");
+            }
+
+            ReportFormat format = detectFormat(reader.getLocalName());
+            switch (format) {
+                case JUNIT:
+                    parseJUnit(reader, sink);
+                    break;
+                case TESTNG:
+                    parseTestNG(reader, sink);
+                    break;
+                default:
+                    parseNUnit(reader, sink);
+                    break;
+            }
+            return format;
+        }
+        catch (XMLStreamException ex) {
+            throw new IOException("Invalid test report: " + ex.getMessage(), ex);
+        }
+        finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                }
+                catch (XMLStreamException ex) {
+                    // Nothing left to read, and closing doesn't close the stream.
+                }
+            }
+        }
+    }
+
+    /**
+     * @param rootElement Name of the report's root element
+     * @return The report's format
+     * @throws UnknownReportFormatException Thrown if the format is unknown
+     */
+    private static ReportFormat detectFormat(final String rootElement) throws UnknownReportFormatException {
+        switch (rootElement) {
+            case "testsuites":
+            case "testsuite":
+                return ReportFormat.JUNIT;
+            case "testng-results":
+                return ReportFormat.TESTNG;
+            case "test-run":
+            case "test-results":
+                return ReportFormat.NUNIT;
+            default:
+                throw new UnknownReportFormatException(String.format("Unknown test report format, root element <%s>.", rootElement));
+        }
+    }
+
+    /**
+     * Reads the testcase elements of a JUnit report.
+     *
+     * @param reader Reader positioned on the root element
+     * @param sink Receives the results
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     * @throws IOException Thrown if the sink failed
+     */
+    private static void parseJUnit(final XMLStreamReader reader, final ResultSink sink) throws XMLStreamException, IOException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("testcase")) {
+                String name = reader.getAttributeValue(null, "name");
+                String className = reader.getAttributeValue(null, "classname");
+                AutomationResult result = newResult(name, className != null ? className + "." + name : name,
+                    parseSecondsAsMillis(reader.getAttributeValue(null, "time")));
+
+                AutomationResultStatus status = AutomationResultStatus.PASSED;
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "failure":
+                        case "error":
+                            status = AutomationResultStatus.FAILED;
+                            result.setErrorMessage(readMessage(reader));
+                            break;
+                        case "skipped":
+                            status = AutomationResultStatus.SKIPPED;
+                            result.setErrorMessage(readMessage(reader));
+                            break;
+                        default:
+                            skipElement(reader);
+                            break;
+                    }
+                }
+                result.setStatus(toIDLabelPair(status));
+                sink.accept(result);
+            }
+        }
+    }
+
+    /**
+     * Reads the test-method elements of a TestNG report. Configuration methods are not tests, and are skipped.
+     *
+     * @param reader Reader positioned on the root element
+     * @param sink Receives the results
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     * @throws IOException Thrown if the sink failed
+     */
+    private static void parseTestNG(final XMLStreamReader reader, final ResultSink sink) throws XMLStreamException, IOException {
+        String className = null;
+        while (reader.hasNext()) {
+            if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String element = reader.getLocalName();
+            if (element.equals("class")) {
+                className = reader.getAttributeValue(null, "name");
+            }
+            else if (element.equals("test-method")) {
+                if ("true".equals(reader.getAttributeValue(null, "is-config"))) {
+                    skipElement(reader);
+                    continue;
+                }
+
+                String name = reader.getAttributeValue(null, "name");
+                AutomationResult result = newResult(name, className != null ? className + "." + name : name,
+                    parseMillis(reader.getAttributeValue(null, "duration-ms")));
+                result.setStatus(toIDLabelPair(toTestNGStatus(reader.getAttributeValue(null, "status"))));
+
+                while (nextChild(reader)) {
+                    if (reader.getLocalName().equals("exception")) {
+                        result.setErrorMessage(readChildMessage(reader, "message"));
+                    }
+                    else {
+                        skipElement(reader);
+                    }
+                }
+                sink.accept(result);
+            }
+        }
+    }
+
+    /**
+     * Reads the test-case elements of an NUnit 2 or NUnit 3 report.
+     *
+     * @param reader Reader positioned on the root element
+     * @param sink Receives the results
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     * @throws IOException Thrown if the sink failed
+     */
+    private static void parseNUnit(final XMLStreamReader reader, final ResultSink sink) throws XMLStreamException, IOException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("test-case")) {
+                // NUnit 3 has a duration and the full name separately, NUnit 2 a time and only the full name.
+                String name = reader.getAttributeValue(null, "name");
+                String fullName = reader.getAttributeValue(null, "fullname");
+                String duration = reader.getAttributeValue(null, "duration");
+                AutomationResult result = newResult(name, fullName != null ? fullName : name,
+                    parseSecondsAsMillis(duration != null ? duration : reader.getAttributeValue(null, "time")));
+                result.setStatus(toIDLabelPair(toNUnitStatus(reader.getAttributeValue(null, "result"))));
+
+                while (nextChild(reader)) {
+                    switch (reader.getLocalName()) {
+                        case "failure":
+                        case "reason":
+                            result.setErrorMessage(readChildMessage(reader, "message"));
+                            break;
+                        default:
+                            skipElement(reader);
+                            break;
+                    }
+                }
+                sink.accept(result);
+            }
+        }
+    }
+
+    /**
+     * Reads a JUnit failure, error or skipped element. The message attribute is preferred over the element's text,
+     * which is usually a full stack trace.
+     *
+     * @param reader Reader positioned on the element
+     * @return The message, or null if there is none
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     */
+    private static String readMessage(final XMLStreamReader reader) throws XMLStreamException {
+        String message = reader.getAttributeValue(null, "message");
+        if (message != null && !message.isEmpty()) {
+            skipElement(reader);
+            return message;
+        }
+        return readText(reader);
+    }
+
+    /**
+     * Reads the text of a child element, skipping the rest of the element.
+     *
+     * @param reader Reader positioned on the element
+     * @param child Name of the child element to read
+     * @return The child's text, or null if there is no such child
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     */
+    private static String readChildMessage(final XMLStreamReader reader, final String child) throws XMLStreamException {
+        String message = null;
+        while (nextChild(reader)) {
+            if (message == null && reader.getLocalName().equals(child)) {
+                message = readText(reader);
+            }
+            else {
+                skipElement(reader);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Reads the text of an element, including the text of any nested elements.
+     *
+     * @param reader Reader positioned on the element, left on its end
+     * @return The trimmed text, or null if there is none
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     */
+    private static String readText(final XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        String trimmed = text.toString().trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Moves to the next child element of the current element, skipping any text in between.
+     *
+     * @param reader Reader positioned on the element, or the end of a previous child
+     * @return True if positioned on the next child, false if positioned on the element's end
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     */
+    private static boolean nextChild(final XMLStreamReader reader) throws XMLStreamException {
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Skips an element and everything in it.
+     *
+     * @param reader Reader positioned on the element, left on its end
+     * @throws XMLStreamException Thrown if the report is not valid XML
+     */
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * @param name Test name
+     * @param uniqueName Name identifying the test across builds
+     * @param duration Duration in milliseconds, or null if unknown
+     * @return A new result
+     */
+    private static AutomationResult newResult(final String name, final String uniqueName, final Double duration) {
+        AutomationResult result = new AutomationResult();
+        result.setName(name);
+        result.setUniqueName(uniqueName);
+        result.setDuration(duration);
+        return result;
+    }
+
+    /**
+     * @param status TestNG test method status
+     * @return The matching result status
+     */
+    private static AutomationResultStatus toTestNGStatus(final String status) {
+        if (status == null) {
+            return AutomationResultStatus.UNKNOWN;
+        }
+        switch (status) {
+            case "PASS":
+                return AutomationResultStatus.PASSED;
+            case "FAIL":
+                return AutomationResultStatus.FAILED;
+            case "SKIP":
+                return AutomationResultStatus.SKIPPED;
+            default:
+                return AutomationResultStatus.UNKNOWN;
+        }
+    }
+
+    /**
+     * @param result NUnit 2 or NUnit 3 test case result
+     * @return The matching result status
+     */
+    private static AutomationResultStatus toNUnitStatus(final String result) {
+        if (result == null) {
+            return AutomationResultStatus.UNKNOWN;
+        }
+        switch (result) {
+            case "Passed":
+            case "Success":
+                return AutomationResultStatus.PASSED;
+            case "Failed":
+            case "Failure":
+            case "Error":
+                return AutomationResultStatus.FAILED;
+            case "Skipped":
+            case "Ignored":
+            case "NotRunnable":
+                return AutomationResultStatus.SKIPPED;
+            default:
+                return AutomationResultStatus.UNKNOWN;
+        }
+    }
+
+    /**
+     * @param status A result status
+     * @return The status as sent to Helix ALM
+     */
+    private static IDLabelPair toIDLabelPair(final AutomationResultStatus status) {
+        switch (status) {
+            case PASSED:
+                return new IDLabelPair(status.id(), "Passed");
+            case FAILED:
+                return new IDLabelPair(status.id(), "Failed");
+            case SKIPPED:
+                return new IDLabelPair(status.id(), "Skipped");
+            case BLOCKED:
+                return new IDLabelPair(status.id(), "Blocked");
+            case NOT_SET:
+                return new IDLabelPair(status.id(), "Not Set");
+            default:
+                return new IDLabelPair(status.id(), "Unknown");
+        }
+    }
+
+    /**
+     * @param value A number of seconds, which may have thousands separators
+     * @return The number of milliseconds, or null if the value is missing or not a number
+     */
+    private static Double parseSecondsAsMillis(final String value) {
+        BigDecimal seconds = parseDecimal(value);
+        return seconds != null ? seconds.movePointRight(3).doubleValue() : null;
+    }
+
+    /**
+     * @param value A number of milliseconds, which may have thousands separators
+     * @return The number of milliseconds, or null if the value is missing or not a number
+     */
+    private static Double parseMillis(final String value) {
+        BigDecimal millis = parseDecimal(value);
+        return millis != null ? millis.doubleValue() : null;
+    }
+
+    /**
+     * Parses a decimal number exactly, so converting seconds to milliseconds doesn't add rounding errors.
+     *
+     * @param value A decimal number, which may have thousands separators
+     * @return The number, or null if the value is missing or not a number
+     */
+    private static BigDecimal parseDecimal(final String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.replace(",", ""));
+        }
+        catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Input factory for reading reports, which doesn't resolve DTDs or external entities
+     */
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -52,6 +52,14 @@ public abstract class AbstractAPIResponse {
         return this.statusCode > 0 || (this.errorMessage != null && !this.errorMessage.isEmpty()) || this.errorResponse != null;
     }
 
+    /**
+     * If the request was not sent because the circuit breaker for the server is open
+     * @return See description
+     */
+    public boolean isCircuitBreakerOpen() {
+        return this.errorResponse != null && ErrorResponse.CIRCUIT_BREAKER_OPEN_CODE.equals(this.errorResponse.getCode());
+    }
+
     /**
      * Handles the given exception generically for all response types.
      * @param exception The exception to handle
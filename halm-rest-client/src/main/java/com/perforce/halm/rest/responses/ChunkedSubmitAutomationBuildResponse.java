@@ -0,0 +1,86 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.responses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregated response returned when submitting an automation build in chunks. The build identifier and number are
+ * those of the build created by the first chunk. If any chunk failed, this response carries the error of the first
+ * chunk that failed, and chunks after it may not have been submitted. It is also an error when the build has no number
+ * and the server didn't return one for the build the first chunk created, the remaining chunks are then not submitted.
+ */
+public class ChunkedSubmitAutomationBuildResponse extends SubmitAutomationBuildResponse {
+    private final List<SubmitAutomationBuildResponse> chunkResponses;
+    private final int chunkCount;
+    private final int submittedResultCount;
+
+    /**
+     * Constructor
+     *
+     * @param chunkResponses Responses of the chunks that were submitted, in chunk order
+     * @param chunkCount Number of chunks the build was split into
+     * @param submittedResultCount Number of results in the chunks that were submitted successfully
+     */
+    public ChunkedSubmitAutomationBuildResponse(List<SubmitAutomationBuildResponse> chunkResponses, int chunkCount,
+                                                int submittedResultCount) {
+        this.chunkResponses = Collections.unmodifiableList(new ArrayList<>(chunkResponses));
+        this.chunkCount = chunkCount;
+        this.submittedResultCount = submittedResultCount;
+
+        if (!chunkResponses.isEmpty()) {
+            this.id = chunkResponses.get(0).getId();
+            this.number = chunkResponses.get(0).getNumber();
+        }
+
+        for (SubmitAutomationBuildResponse chunkResponse : chunkResponses) {
+            if (chunkResponse.isError()) {
+                this.statusCode = chunkResponse.getStatusCode();
+                this.errorMessage = chunkResponse.getErrorMessage();
+                this.errorResponse = chunkResponse.getErrorResponse();
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return Responses of the chunks that were submitted, in chunk order
+     */
+    public List<SubmitAutomationBuildResponse> getChunkResponses() { return chunkResponses; }
+
+    /**
+     * @return Number of chunks the build was split into
+     */
+    public int getChunkCount() { return chunkCount; }
+
+    /**
+     * @return Number of results in the chunks that were submitted successfully
+     */
+    public int getSubmittedResultCount() { return submittedResultCount; }
+}
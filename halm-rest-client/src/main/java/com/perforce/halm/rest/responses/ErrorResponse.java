@@ -1,32 +1,61 @@
 package com.perforce.halm.rest.responses;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
+@GenerateTypeAdapter
 public class ErrorResponse {
+    /**
+     * Error code of responses to calls that were not sent because the server's circuit breaker is open.
+     */
+    public static final String CIRCUIT_BREAKER_OPEN_CODE = "CircuitBreakerOpen";
+
     private String message;
     private Integer statusCode;
     private String code;
     private String errorElementPath;
 
     /**
-     * @return Short description of error type. Typically just the text version of the HTTP status code error value.
+     * @return Long description or message about the error
      */
     public String getMessage() {
         return message;
     }
 
     /**
-     * @return Long description or message about the error
+     * @param message Long description or message about the error
+     */
+    void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return HTTP status code
      */
     public Integer getStatusCode() {
         return statusCode;
     }
 
     /**
-     * @return Error type identifier. An HTTP status code.
+     * @param statusCode HTTP status code
+     */
+    void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return Short text description of the HTTP status code, or CIRCUIT_BREAKER_OPEN_CODE
      */
     public String getCode() {
         return code;
     }
 
+    /**
+     * @param code Short text description of the HTTP status code
+     */
+    void setCode(String code) {
+        this.code = code;
+    }
+
     /**
      * @return Path to the object that caused an error if there was a problem sending data to the server. This may
      *         be null.
@@ -34,4 +63,12 @@ public class ErrorResponse {
     public String getErrorElementPath() {
         return errorElementPath;
     }
+
+    /**
+     * @param errorElementPath Path to the object that caused an error if there was a problem sending data to the
+     *                         server. This may be null.
+     */
+    void setErrorElementPath(String errorElementPath) {
+        this.errorElementPath = errorElementPath;
+    }
 }
@@ -26,6 +26,7 @@
 
 package com.perforce.halm.rest.responses;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.administration.field.FieldStub;
 import com.perforce.halm.rest.types.administration.field.FieldStubsContainer;
 import com.perforce.halm.rest.types.administration.MenuItem;
@@ -36,6 +37,7 @@ import java.util.List;
 /**
  * Response object defining a dropdown menu and its items
  */
+@GenerateTypeAdapter
 public class MenuResponse extends AbstractAPIResponse {
     private String name;
     private Integer id;
@@ -49,6 +51,13 @@ public class MenuResponse extends AbstractAPIResponse {
         return name;
     }
 
+    /**
+     * @param name Menu name
+     */
+    void setName(String name) {
+        this.name = name;
+    }
+
     /**
      * @return Menu ID
      */
@@ -56,6 +65,13 @@ public class MenuResponse extends AbstractAPIResponse {
         return id;
     }
 
+    /**
+     * @param id Menu ID
+     */
+    void setId(Integer id) {
+        this.id = id;
+    }
+
     /**
      * @return Menu items
      */
@@ -65,4 +81,24 @@ public class MenuResponse extends AbstractAPIResponse {
      * @return Field stubs associated with this menu
      */
     public List<FieldStub> getFields() { return fields.getFields(); }
+
+    /**
+     * @return Container of the menu items, for the generated type adapter
+     */
+    MenuItemsContainer getItemsContainer() { return items; }
+
+    /**
+     * @param items Container of the menu items
+     */
+    void setItemsContainer(MenuItemsContainer items) { this.items = items; }
+
+    /**
+     * @return Container of the field stubs associated with this menu, for the generated type adapter
+     */
+    FieldStubsContainer getFieldsContainer() { return fields; }
+
+    /**
+     * @param fields Container of the field stubs associated with this menu
+     */
+    void setFieldsContainer(FieldStubsContainer fields) { this.fields = fields; }
 }
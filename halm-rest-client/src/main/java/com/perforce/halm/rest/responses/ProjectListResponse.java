@@ -26,6 +26,7 @@
 
 package com.perforce.halm.rest.responses;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.Project;
 
 import java.util.List;
@@ -33,6 +34,7 @@ import java.util.List;
 /**
  * List of loaded projects and other project metadata.
  */
+@GenerateTypeAdapter
 public class ProjectListResponse extends AbstractAPIResponse {
     private List<Project> projects;
 
@@ -45,6 +47,13 @@ public class ProjectListResponse extends AbstractAPIResponse {
         return projects;
     }
 
+    /**
+     * @param projects List of loaded projects from the Helix ALM Server
+     */
+    void setProjects(List<Project> projects) {
+        this.projects = projects;
+    }
+
     /**
      * @return Number of projects still loading on the Helix ALM Server
      */
@@ -52,4 +61,11 @@ public class ProjectListResponse extends AbstractAPIResponse {
         return projectsLoading;
     }
 
+    /**
+     * @param projectsLoading Number of projects still loading on the Helix ALM Server
+     */
+    void setProjectsLoading(Integer projectsLoading) {
+        this.projectsLoading = projectsLoading;
+    }
+
 }
@@ -26,12 +26,15 @@
 
 package com.perforce.halm.rest.responses;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 /**
  * Response returned when submitting an automation build
  */
+@GenerateTypeAdapter
 public class SubmitAutomationBuildResponse extends AbstractAPIResponse {
-    private Number id;
-    private String number;
+    protected Number id;
+    protected String number;
 
     /**
      * @return The identifier for the build that was created
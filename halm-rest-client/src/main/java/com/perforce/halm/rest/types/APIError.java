@@ -26,6 +26,7 @@
 
 package com.perforce.halm.rest.types;
 
+@GenerateTypeAdapter
 public class APIError {
     private String message;
     private Integer statusCode;
@@ -39,6 +40,13 @@ public class APIError {
         return message;
     }
 
+    /**
+     * @param message Long description or message about the error
+     */
+    void setMessage(String message) {
+        this.message = message;
+    }
+
     /**
      * @return HTTP status code
      */
@@ -46,6 +54,13 @@ public class APIError {
         return statusCode;
     }
 
+    /**
+     * @param statusCode HTTP status code
+     */
+    void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+
     /**
      * @return Short text description of the HTTP Status code
      */
@@ -53,6 +68,13 @@ public class APIError {
         return code;
     }
 
+    /**
+     * @param code Short text description of the HTTP Status code
+     */
+    void setCode(String code) {
+        this.code = code;
+    }
+
     /**
      * @return Path to the object that caused an error if there was a problem sending data to the server. This may not
      *         be set.
@@ -60,4 +82,12 @@ public class APIError {
     public String getErrorElementPath() {
         return errorElementPath;
     }
+
+    /**
+     * @param errorElementPath Path to the object that caused an error if there was a problem sending data to the
+     *                         server. This may not be set.
+     */
+    void setErrorElementPath(String errorElementPath) {
+        this.errorElementPath = errorElementPath;
+    }
 }
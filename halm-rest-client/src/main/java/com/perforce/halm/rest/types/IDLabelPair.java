@@ -29,10 +29,16 @@ package com.perforce.halm.rest.types;
 /**
  * A generic object representing any ID-label pair of data
  */
+@GenerateTypeAdapter
 public class IDLabelPair {
     private Number id;
     private String label;
 
+    /**
+     * Constructor for the generated type adapter
+     */
+    IDLabelPair() {}
+
     /**
      * Constructor
      * @param id The id to set
@@ -29,10 +29,16 @@ package com.perforce.halm.rest.types;
 /**
  * A generic object representing any name-value pair of data
  */
+@GenerateTypeAdapter
 public class NameValuePair {
     private String name;
     private String value;
 
+    /**
+     * Constructor for the generated type adapter
+     */
+    NameValuePair() {}
+
     /**
      * Constructor
      * @param name The name to set
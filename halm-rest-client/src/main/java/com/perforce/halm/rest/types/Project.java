@@ -29,6 +29,7 @@ package com.perforce.halm.rest.types;
 /**
  * Helix ALM project
  */
+@GenerateTypeAdapter
 public class Project {
     private String name;
     private Integer id;
@@ -41,6 +42,13 @@ public class Project {
         return name;
     }
 
+    /**
+     * @param name Project name
+     */
+    void setName(String name) {
+        this.name = name;
+    }
+
     /**
      * @return Project ID. This value can change under limited circumstances (Project restored from backup, moved to
      *         another server, etc...)
@@ -49,10 +57,25 @@ public class Project {
         return id;
     }
 
+    /**
+     * @param id Project ID. This value can change under limited circumstances (Project restored from backup, moved to
+     *           another server, etc...)
+     */
+    void setId(Integer id) {
+        this.id = id;
+    }
+
     /**
      * @return Project UUID. This value will never change for a project.
      */
     public String getUuid() {
         return uuid;
     }
+
+    /**
+     * @param uuid Project UUID. This value will never change for a project.
+     */
+    void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
 }
@@ -29,6 +29,7 @@ package com.perforce.halm.rest.types;
 /**
  * Object containing user information
  */
+@GenerateTypeAdapter
 public class User implements ItemWithID {
     private Integer id;
     private String firstName;
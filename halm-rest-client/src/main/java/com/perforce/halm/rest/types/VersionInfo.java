@@ -32,6 +32,7 @@ import java.util.List;
  * Version information for the Helix ALM Server, REST API Server, and the Helix ALM Communications Library that
  * facilitates communication between them.
  */
+@GenerateTypeAdapter
 public class VersionInfo {
     private String RESTAPIServer;
     private String HALMCommsLibrary;
@@ -45,6 +46,13 @@ public class VersionInfo {
         return RESTAPIServer;
     }
 
+    /**
+     * @param RESTAPIServer Version of the REST API Server. Format is Major.Minor.Maintenance.Build
+     */
+    void setRESTAPIServer(String RESTAPIServer) {
+        this.RESTAPIServer = RESTAPIServer;
+    }
+
     /**
      * @return Helix ALM Communication Library version. Format is Major.Minor.Maintenance.Build. If the version cannot
      *         be determined, the value is set to &lt;unknown&gt;
@@ -53,6 +61,14 @@ public class VersionInfo {
         return HALMCommsLibrary;
     }
 
+    /**
+     * @param HALMCommsLibrary Helix ALM Communication Library version. Format is Major.Minor.Maintenance.Build. If the
+     *                         version cannot be determined, the value is set to &lt;unknown&gt;
+     */
+    void setHALMCommsLibrary(String HALMCommsLibrary) {
+        this.HALMCommsLibrary = HALMCommsLibrary;
+    }
+
     /**
      * @return Helix ALM Server version. Format is Major.Minor.Maintenance.Build . If the version cannot
      *         be determined, the value is set to &lt;unknown&gt;
@@ -61,10 +77,25 @@ public class VersionInfo {
         return HALMServer;
     }
 
+    /**
+     * @param HALMServer Helix ALM Server version. Format is Major.Minor.Maintenance.Build . If the version cannot be
+     *                   determined, the value is set to &lt;unknown&gt;
+     */
+    void setHALMServer(String HALMServer) {
+        this.HALMServer = HALMServer;
+    }
+
     /**
      * @return Errors encountered when attempting to determine version for all components.
      */
     public List<APIError> getErrors() {
         return errors;
     }
+
+    /**
+     * @param errors Errors encountered when attempting to determine version for all components.
+     */
+    void setErrors(List<APIError> errors) {
+        this.errors = errors;
+    }
 }
@@ -26,11 +26,13 @@
 
 package com.perforce.halm.rest.types.administration;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.administration.field.FieldStyleStub;
 
 /**
  * Object defining a single dropdown menu item
  */
+@GenerateTypeAdapter
 public class MenuItem {
     private String label;
     private Number id;
@@ -41,13 +43,28 @@ public class MenuItem {
      */
     public String getLabel() { return label; }
 
+    /**
+     * @param label Menu item label
+     */
+    void setLabel(String label) { this.label = label; }
+
     /**
      * @return Menu item ID
      */
     public Number getId() { return id; }
 
+    /**
+     * @param id Menu item ID
+     */
+    void setId(Number id) { this.id = id; }
+
     /**
      * @return Information about the field style associated with this menu item
      */
     public FieldStyleStub getFieldStyle() { return fieldStyle; }
+
+    /**
+     * @param fieldStyle Information about the field style associated with this menu item
+     */
+    void setFieldStyle(FieldStyleStub fieldStyle) { this.fieldStyle = fieldStyle; }
 }
@@ -26,11 +26,14 @@
 
 package com.perforce.halm.rest.types.administration;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 import java.util.List;
 
 /**
  * Object containing dropdown menu items
  */
+@GenerateTypeAdapter
 public class MenuItemsContainer {
     private List<MenuItem> itemsData;
 
@@ -38,4 +41,14 @@ public class MenuItemsContainer {
      * @return List of menu items
      */
     public List<MenuItem> getItems() { return itemsData; }
+
+    /**
+     * @return List of menu items, for the generated type adapter
+     */
+    List<MenuItem> getItemsData() { return itemsData; }
+
+    /**
+     * @param itemsData List of menu items
+     */
+    void setItemsData(List<MenuItem> itemsData) { this.itemsData = itemsData; }
 }
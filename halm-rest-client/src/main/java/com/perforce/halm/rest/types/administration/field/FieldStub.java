@@ -26,9 +26,12 @@
 
 package com.perforce.halm.rest.types.administration.field;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 /**
  * Object containing partial field information
  */
+@GenerateTypeAdapter
 public class FieldStub {
     private Number id;
     private String itemType;
@@ -39,13 +42,28 @@ public class FieldStub {
      */
     public Number getId() { return id; }
 
+    /**
+     * @param id Field identifier
+     */
+    void setId(Number id) { this.id = id; }
+
     /**
      * @return Field item type
      */
     public String getItemType() { return itemType; }
 
+    /**
+     * @param itemType Field item type
+     */
+    void setItemType(String itemType) { this.itemType = itemType; }
+
     /**
      * @return Field long name
      */
     public String getLongName() { return longName; }
+
+    /**
+     * @param longName Field long name
+     */
+    void setLongName(String longName) { this.longName = longName; }
 }
@@ -26,11 +26,14 @@
 
 package com.perforce.halm.rest.types.administration.field;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 import java.util.List;
 
 /**
  * Object containing field stubs
  */
+@GenerateTypeAdapter
 public class FieldStubsContainer {
     private List<FieldStub> fieldsData;
 
@@ -38,4 +41,14 @@ public class FieldStubsContainer {
      * @return List of field stubs
      */
     public List<FieldStub> getFields() { return fieldsData; }
+
+    /**
+     * @return List of field stubs, for the generated type adapter
+     */
+    List<FieldStub> getFieldsData() { return fieldsData; }
+
+    /**
+     * @param fieldsData List of field stubs
+     */
+    void setFieldsData(List<FieldStub> fieldsData) { this.fieldsData = fieldsData; }
 }
@@ -26,9 +26,12 @@
 
 package com.perforce.halm.rest.types.administration.field;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 /**
  * Object containing partial field style information
  */
+@GenerateTypeAdapter
 public class FieldStyleStub {
     private Number id;
     private String name;
@@ -38,8 +41,18 @@ public class FieldStyleStub {
      */
     public Number getId() { return id; }
 
+    /**
+     * @param id Field style identifier
+     */
+    void setId(Number id) { this.id = id; }
+
     /**
      * @return Field style name
      */
     public String getName() { return name; }
+
+    /**
+     * @param name Field style name
+     */
+    void setName(String name) { this.name = name; }
 }
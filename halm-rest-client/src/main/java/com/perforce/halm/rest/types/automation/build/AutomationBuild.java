@@ -26,15 +26,19 @@
 
 package com.perforce.halm.rest.types.automation.build;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.IDLabelPair;
 import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Object defining an automation build
  */
+@GenerateTypeAdapter
 public class AutomationBuild {
     private String number;
     private String description;
@@ -119,6 +123,13 @@ public class AutomationBuild {
      */
     public void setStartDate(String startDate) { this.startDate = startDate; }
 
+    /**
+     * @param startDate Start date for the build, formatted as an ISO-8601 UTC timestamp
+     */
+    public void setStartDateInstant(Instant startDate) {
+        this.startDate = startDate != null ? InstantTypeAdapter.format(startDate) : null;
+    }
+
     /**
      * @return Build duration in milliseconds
      */
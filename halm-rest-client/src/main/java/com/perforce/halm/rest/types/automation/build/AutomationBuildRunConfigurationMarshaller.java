@@ -33,7 +33,11 @@ import java.lang.reflect.Type;
 
 /**
  * Marshaller object for automation build run configurations
+ *
+ * @deprecated Use {@link com.perforce.halm.rest.types.deserializers.AutomationTypeAdapters#buildRunConfigurations()}
+ * instead. It writes without a JSON tree, and reads without one when the type comes first.
  */
+@Deprecated
 public class AutomationBuildRunConfigurationMarshaller implements JsonSerializer<AutomationBuildRunConfiguration>, JsonDeserializer<AutomationBuildRunConfiguration> {
     private static final String TYPE_NAME = "type";
 
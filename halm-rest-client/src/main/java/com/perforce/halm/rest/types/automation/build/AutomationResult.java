@@ -26,15 +26,19 @@
 
 package com.perforce.halm.rest.types.automation.build;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.IDLabelPair;
 import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Object defining an automation build result
  */
+@GenerateTypeAdapter
 public class AutomationResult {
     private String name;
     private String uniqueName;
@@ -173,6 +177,13 @@ public class AutomationResult {
      */
     public void setStartDate(String startDate) { this.startDate = startDate; }
 
+    /**
+     * @param startDate Start date for the test, formatted as an ISO-8601 UTC timestamp
+     */
+    public void setStartDateInstant(Instant startDate) {
+        this.startDate = startDate != null ? InstantTypeAdapter.format(startDate) : null;
+    }
+
     /**
      * @return Test duration in milliseconds
      */
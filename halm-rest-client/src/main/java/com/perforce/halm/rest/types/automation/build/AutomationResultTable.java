@@ -0,0 +1,571 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.automation.build;
+
+import com.google.gson.stream.JsonWriter;
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.NameValuePair;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Compact, column oriented storage for the results of very large builds. Each {@link AutomationResult} field is
+ * stored in its own column instead of in an object per result:
+ * <ul>
+ *     <li>Status and duration are stored in primitive arrays. Durations are kept exactly: integral ones as longs,
+ *     others as doubles where that writes the same JSON, and any other number as it was given.</li>
+ *     <li>Fields that usually repeat (the environment attributes, tags and statuses) are dictionary encoded, each
+ *     row stores an int code for a value held once by the column.</li>
+ *     <li>Names, dates, URLs and error messages are stored as is.</li>
+ * </ul>
+ *
+ * {@link AutomationResult} objects are only created when a row is read, see {@link #get(int)} and
+ * {@link #asList()}. {@link #writeJson(JsonWriter)} writes the rows straight from the columns, as the same JSON Gson
+ * writes for a list of results. Tables are not thread safe.
+ */
+public final class AutomationResultTable {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    // Kinds of duration, see durationKinds
+    private static final byte NO_DURATION = 0;
+    private static final byte LONG_DURATION = 1;
+    private static final byte DOUBLE_DURATION = 2;
+    private static final byte OTHER_DURATION = 3;
+
+    private int size = 0;
+    private String[] names;
+    private String[] uniqueNames;
+    private String[] startDates;
+    private String[] externalURLs;
+    private String[] errorMessages;
+    // The value of long durations, the bits of double durations.
+    private long[] durations;
+    private byte[] durationKinds;
+    // Durations that are neither longs nor doubles, by row. These are rare, so only they are boxed.
+    private final Map<Integer, Number> otherDurations = new HashMap<>();
+    private Object[] properties;
+    private final DictionaryColumn<Status> statuses;
+    private final DictionaryColumn<List<String>> tags;
+    private final DictionaryColumn<String> devices;
+    private final DictionaryColumn<String> manufacturers;
+    private final DictionaryColumn<String> models;
+    private final DictionaryColumn<String> operatingSystems;
+    private final DictionaryColumn<String> osVersions;
+    private final DictionaryColumn<String> browsers;
+    private final DictionaryColumn<String> browserVersions;
+
+    /**
+     * Constructor
+     */
+    public AutomationResultTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param initialCapacity Number of rows to allocate room for up front
+     */
+    public AutomationResultTable(final int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.names = new String[capacity];
+        this.uniqueNames = new String[capacity];
+        this.startDates = new String[capacity];
+        this.externalURLs = new String[capacity];
+        this.errorMessages = new String[capacity];
+        this.durations = new long[capacity];
+        this.durationKinds = new byte[capacity];
+        this.properties = new Object[capacity];
+        this.statuses = new DictionaryColumn<>(capacity);
+        this.tags = new DictionaryColumn<>(capacity);
+        this.devices = new DictionaryColumn<>(capacity);
+        this.manufacturers = new DictionaryColumn<>(capacity);
+        this.models = new DictionaryColumn<>(capacity);
+        this.operatingSystems = new DictionaryColumn<>(capacity);
+        this.osVersions = new DictionaryColumn<>(capacity);
+        this.browsers = new DictionaryColumn<>(capacity);
+        this.browserVersions = new DictionaryColumn<>(capacity);
+    }
+
+    /**
+     * Adds a row with the values of a result. The result isn't referenced by the table afterwards.
+     *
+     * @param result The result to add
+     */
+    public void add(final AutomationResult result) {
+        if (this.size == this.names.length) {
+            this.grow();
+        }
+
+        int row = this.size++;
+        this.names[row] = result.getName();
+        this.uniqueNames[row] = result.getUniqueName();
+        this.startDates[row] = result.getStartDate();
+        this.externalURLs[row] = result.getExternalURL();
+        this.errorMessages[row] = result.getErrorMessage();
+
+        this.setDuration(row, result.getDuration());
+
+        List<NameValuePair> resultProperties = result.getProperties();
+        this.properties[row] = resultProperties != null ? new ArrayList<>(resultProperties) : null;
+
+        IDLabelPair status = result.getStatus();
+        this.statuses.set(row, status != null ? new Status(status.getId(), status.getLabel()) : null);
+        List<String> resultTags = result.getTags();
+        this.tags.set(row, resultTags != null ? Collections.unmodifiableList(new ArrayList<>(resultTags)) : null);
+        this.devices.set(row, result.getDevice());
+        this.manufacturers.set(row, result.getManufacturer());
+        this.models.set(row, result.getModel());
+        this.operatingSystems.set(row, result.getOS());
+        this.osVersions.set(row, result.getOSVersion());
+        this.browsers.set(row, result.getBrowser());
+        this.browserVersions.set(row, result.getBrowserVersion());
+    }
+
+    /**
+     * Adds a row for each result.
+     *
+     * @param results The results to add
+     */
+    public void addAll(final Iterable<AutomationResult> results) {
+        for (AutomationResult result : results) {
+            this.add(result);
+        }
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Creates a result with the values of a row. Changes to the result don't change the table.
+     *
+     * @param row The row
+     * @return A new result
+     */
+    public AutomationResult get(final int row) {
+        this.checkRow(row);
+
+        AutomationResult result = new AutomationResult();
+        result.setName(this.names[row]);
+        result.setUniqueName(this.uniqueNames[row]);
+        Status status = this.statuses.get(row);
+        result.setStatus(status != null ? new IDLabelPair(status.id, status.label) : null);
+        List<String> rowTags = this.tags.get(row);
+        result.setTags(rowTags != null ? new ArrayList<>(rowTags) : null);
+        result.setDevice(this.devices.get(row));
+        result.setManufacturer(this.manufacturers.get(row));
+        result.setModel(this.models.get(row));
+        result.setOS(this.operatingSystems.get(row));
+        result.setOSVersion(this.osVersions.get(row));
+        result.setBrowser(this.browsers.get(row));
+        result.setBrowserVersion(this.browserVersions.get(row));
+        result.setStartDate(this.startDates[row]);
+        result.setDuration(this.getDurationValue(row));
+        result.setExternalURL(this.externalURLs[row]);
+        result.setErrorMessage(this.errorMessages[row]);
+        result.setProperties(this.getProperties(row));
+        return result;
+    }
+
+    /**
+     * @return Read only list view of the table, each result is created as it is read
+     */
+    public List<AutomationResult> asList() {
+        return new RowListView();
+    }
+
+    /**
+     * @param row The row
+     * @return The row's name
+     */
+    public String getName(final int row) {
+        this.checkRow(row);
+        return this.names[row];
+    }
+
+    /**
+     * @param row The row
+     * @return The row's status identifier, see {@link AutomationResultStatus}, or -1 if the row has no status
+     */
+    public int getStatusID(final int row) {
+        this.checkRow(row);
+        Status status = this.statuses.get(row);
+        return status != null && status.id != null ? status.id.intValue() : -1;
+    }
+
+    /**
+     * @param row The row
+     * @return The row's duration in milliseconds, or NaN if the row has no duration. Integral durations beyond 2^53
+     * are rounded, {@link #get(int)} gives them exactly.
+     */
+    public double getDuration(final int row) {
+        this.checkRow(row);
+        switch (this.durationKinds[row]) {
+            case LONG_DURATION:
+                return this.durations[row];
+            case DOUBLE_DURATION:
+                return Double.longBitsToDouble(this.durations[row]);
+            case OTHER_DURATION:
+                return this.otherDurations.get(row).doubleValue();
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * Writes the rows as a JSON array of results, the same JSON Gson writes for a list of {@link AutomationResult}.
+     * Like Gson, null values are only written if the writer serializes nulls.
+     *
+     * @param out The writer to write to
+     * @throws IOException Thrown if writing failed
+     */
+    public void writeJson(final JsonWriter out) throws IOException {
+        out.beginArray();
+        for (int row = 0; row < this.size; row++) {
+            // Same order as AutomationResult declares its fields, which is the order Gson writes them in.
+            out.beginObject();
+            writeString(out, "name", this.names[row]);
+            writeString(out, "uniqueName", this.uniqueNames[row]);
+            writeStatus(out, this.statuses.get(row));
+            writeTags(out, this.tags.get(row));
+            writeString(out, "device", this.devices.get(row));
+            writeString(out, "manufacturer", this.manufacturers.get(row));
+            writeString(out, "model", this.models.get(row));
+            writeString(out, "os", this.operatingSystems.get(row));
+            writeString(out, "osVersion", this.osVersions.get(row));
+            writeString(out, "browser", this.browsers.get(row));
+            writeString(out, "browserVersion", this.browserVersions.get(row));
+            writeString(out, "startDate", this.startDates[row]);
+            this.writeDuration(out, row);
+            writeString(out, "externalURL", this.externalURLs[row]);
+            writeString(out, "errorMessage", this.errorMessages[row]);
+            writeProperties(out, this.getProperties(row));
+            out.endObject();
+        }
+        out.endArray();
+    }
+
+    /**
+     * Stores a row's duration. Integers, longs, shorts and bytes are stored as longs, doubles as doubles. Any other
+     * number, for example one Gson read lazily, is stored the same way when that writes the same JSON, otherwise it
+     * is kept as given.
+     *
+     * @param row The row
+     * @param duration The duration, may be null
+     */
+    private void setDuration(final int row, final Number duration) {
+        if (duration == null) {
+            this.durationKinds[row] = NO_DURATION;
+        }
+        else if (duration instanceof Integer || duration instanceof Long || duration instanceof Short ||
+            duration instanceof Byte) {
+            this.durations[row] = duration.longValue();
+            this.durationKinds[row] = LONG_DURATION;
+        }
+        else if (duration instanceof Double) {
+            this.durations[row] = Double.doubleToRawLongBits(duration.doubleValue());
+            this.durationKinds[row] = DOUBLE_DURATION;
+        }
+        else {
+            String text = duration.toString();
+            Long longValue = parseLong(text);
+            if (longValue != null) {
+                this.durations[row] = longValue;
+                this.durationKinds[row] = LONG_DURATION;
+            }
+            else if (Double.toString(duration.doubleValue()).equals(text)) {
+                this.durations[row] = Double.doubleToRawLongBits(duration.doubleValue());
+                this.durationKinds[row] = DOUBLE_DURATION;
+            }
+            else {
+                this.otherDurations.put(row, duration);
+                this.durationKinds[row] = OTHER_DURATION;
+            }
+        }
+    }
+
+    /**
+     * @param row The row
+     * @return The row's duration, or null if it has none. Durations stored as longs or doubles are returned as a
+     * {@link Long} or {@link Double}.
+     */
+    private Number getDurationValue(final int row) {
+        switch (this.durationKinds[row]) {
+            case LONG_DURATION:
+                return this.durations[row];
+            case DOUBLE_DURATION:
+                return Double.longBitsToDouble(this.durations[row]);
+            case OTHER_DURATION:
+                return this.otherDurations.get(row);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param text Text of a number
+     * @return The number, or null if the text isn't a long as {@link Long#toString} writes it
+     */
+    private static Long parseLong(final String text) {
+        try {
+            long value = Long.parseLong(text);
+            return Long.toString(value).equals(text) ? value : null;
+        }
+        catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @param row The row
+     * @return Copy of the row's properties, or null if it has none
+     */
+    @SuppressWarnings("unchecked")
+    private List<NameValuePair> getProperties(final int row) {
+        List<NameValuePair> rowProperties = (List<NameValuePair>) this.properties[row];
+        return rowProperties != null ? new ArrayList<>(rowProperties) : null;
+    }
+
+    /**
+     * Writes a row's duration, the same way Gson writes the number it was given as.
+     */
+    private void writeDuration(final JsonWriter out, final int row) throws IOException {
+        switch (this.durationKinds[row]) {
+            case LONG_DURATION:
+                out.name("duration").value(this.durations[row]);
+                break;
+            case DOUBLE_DURATION:
+                out.name("duration").value(Double.longBitsToDouble(this.durations[row]));
+                break;
+            case OTHER_DURATION:
+                out.name("duration").value(this.otherDurations.get(row));
+                break;
+            default:
+                writeNull(out, "duration");
+        }
+    }
+
+    /**
+     * Writes a status the way Gson writes an {@link IDLabelPair}.
+     */
+    private static void writeStatus(final JsonWriter out, final Status status) throws IOException {
+        if (status == null) {
+            writeNull(out, "status");
+            return;
+        }
+        out.name("status").beginObject();
+        if (status.id != null) {
+            out.name("id").value(status.id);
+        }
+        else {
+            writeNull(out, "id");
+        }
+        writeString(out, "label", status.label);
+        out.endObject();
+    }
+
+    /**
+     * Writes a list of tags.
+     */
+    private static void writeTags(final JsonWriter out, final List<String> tags) throws IOException {
+        if (tags == null) {
+            writeNull(out, "tags");
+            return;
+        }
+        out.name("tags").beginArray();
+        for (String tag : tags) {
+            out.value(tag);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Writes properties the way Gson writes a list of {@link NameValuePair}.
+     */
+    private static void writeProperties(final JsonWriter out, final List<NameValuePair> properties) throws IOException {
+        if (properties == null) {
+            writeNull(out, "properties");
+            return;
+        }
+        out.name("properties").beginArray();
+        for (NameValuePair property : properties) {
+            if (property == null) {
+                out.nullValue();
+                continue;
+            }
+            out.beginObject();
+            writeString(out, "name", property.getName());
+            writeString(out, "value", property.getValue());
+            out.endObject();
+        }
+        out.endArray();
+    }
+
+    /**
+     * Writes a string field, following the writer's handling of nulls.
+     */
+    private static void writeString(final JsonWriter out, final String name, final String value) throws IOException {
+        if (value == null) {
+            writeNull(out, name);
+        }
+        else {
+            out.name(name).value(value);
+        }
+    }
+
+    /**
+     * Writes a null field, if the writer serializes nulls.
+     */
+    private static void writeNull(final JsonWriter out, final String name) throws IOException {
+        if (out.getSerializeNulls()) {
+            out.name(name).nullValue();
+        }
+    }
+
+    /**
+     * Grows every column to fit more rows.
+     */
+    private void grow() {
+        int capacity = this.names.length * 2;
+        this.names = Arrays.copyOf(this.names, capacity);
+        this.uniqueNames = Arrays.copyOf(this.uniqueNames, capacity);
+        this.startDates = Arrays.copyOf(this.startDates, capacity);
+        this.externalURLs = Arrays.copyOf(this.externalURLs, capacity);
+        this.errorMessages = Arrays.copyOf(this.errorMessages, capacity);
+        this.durations = Arrays.copyOf(this.durations, capacity);
+        this.durationKinds = Arrays.copyOf(this.durationKinds, capacity);
+        this.properties = Arrays.copyOf(this.properties, capacity);
+    }
+
+    /**
+     * @param row The row to check
+     * @throws IndexOutOfBoundsException Thrown if there is no such row
+     */
+    private void checkRow(final int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException(String.format("Row %d, size %d", row, this.size));
+        }
+    }
+
+    /**
+     * Dictionary encoded column. Each distinct value is stored once, rows store the value's code.
+     *
+     * @param <T> Type of the column's values
+     */
+    private static final class DictionaryColumn<T> {
+        private static final int NULL_CODE = -1;
+
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+        private int[] rows;
+
+        private DictionaryColumn(final int capacity) {
+            this.rows = new int[capacity];
+        }
+
+        private void set(final int row, final T value) {
+            if (row == this.rows.length) {
+                this.rows = Arrays.copyOf(this.rows, row * 2);
+            }
+
+            if (value == null) {
+                this.rows[row] = NULL_CODE;
+                return;
+            }
+            Integer code = this.codes.get(value);
+            if (code == null) {
+                code = this.values.size();
+                this.values.add(value);
+                this.codes.put(value, code);
+            }
+            this.rows[row] = code;
+        }
+
+        private T get(final int row) {
+            int code = this.rows[row];
+            return code != NULL_CODE ? this.values.get(code) : null;
+        }
+    }
+
+    /**
+     * Immutable status, the dictionary key for a status column
+     */
+    private static final class Status {
+        private final Number id;
+        private final String label;
+
+        private Status(final Number id, final String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Status)) {
+                return false;
+            }
+            Status other = (Status) o;
+            return Objects.equals(this.id, other.id) && Objects.equals(this.label, other.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.id, this.label);
+        }
+    }
+
+    /**
+     * Read only list view of the table's rows
+     */
+    private final class RowListView extends AbstractList<AutomationResult> implements RandomAccess {
+        @Override
+        public AutomationResult get(int index) {
+            return AutomationResultTable.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return AutomationResultTable.this.size;
+        }
+    }
+}
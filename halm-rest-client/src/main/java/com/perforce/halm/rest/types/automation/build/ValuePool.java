@@ -0,0 +1,141 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.automation.build;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of shared attribute values for automation results. The environment attributes of a build's results (OS,
+ * browser, device and so on) and their tags usually take only a handful of distinct values, interning a result makes
+ * it reference the pool's instance of each value instead of its own copy.
+ *
+ * The pool stops adding values once it holds its maximum number, so a pool fed unique values doesn't grow without
+ * bound. Pools are thread safe.
+ */
+public final class ValuePool {
+    /**
+     * Default maximum number of strings, and of tag lists, held by a pool.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final int maxSize;
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<List<String>, List<String>> tagLists = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     */
+    public ValuePool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxSize Maximum number of strings, and of tag lists, held by the pool
+     */
+    public ValuePool(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param value The value to intern
+     * @return The pool's instance equal to the value, or the value itself if it isn't pooled
+     */
+    public String intern(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String pooled = this.strings.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (this.strings.size() >= this.maxSize) {
+            return value;
+        }
+        pooled = this.strings.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * Interns a list of tags. Pooled lists are shared by every result with the same tags, so they can't be modified.
+     *
+     * @param tags The tags to intern
+     * @return The pool's read only list equal to the tags, or the tags themselves if they aren't pooled
+     */
+    public List<String> internTags(final List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+
+        List<String> pooled = this.tagLists.get(tags);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (this.tagLists.size() >= this.maxSize) {
+            return tags;
+        }
+
+        List<String> interned = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            interned.add(this.intern(tag));
+        }
+        interned = Collections.unmodifiableList(interned);
+        pooled = this.tagLists.putIfAbsent(interned, interned);
+        return pooled != null ? pooled : interned;
+    }
+
+    /**
+     * Interns a result's environment attributes and tags, in place.
+     *
+     * @param result The result to intern
+     * @return The result
+     */
+    public AutomationResult intern(final AutomationResult result) {
+        result.setDevice(this.intern(result.getDevice()));
+        result.setManufacturer(this.intern(result.getManufacturer()));
+        result.setModel(this.intern(result.getModel()));
+        result.setOS(this.intern(result.getOS()));
+        result.setOSVersion(this.intern(result.getOSVersion()));
+        result.setBrowser(this.intern(result.getBrowser()));
+        result.setBrowserVersion(this.intern(result.getBrowserVersion()));
+        result.setTags(this.internTags(result.getTags()));
+        return result;
+    }
+
+    /**
+     * @return Number of strings held by the pool
+     */
+    public int size() {
+        return this.strings.size();
+    }
+}
@@ -26,16 +26,19 @@
 
 package com.perforce.halm.rest.types.automation.jenkins;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfiguration;
 
 /**
  * Jenkins version of an automation build run configuration object
  */
+@GenerateTypeAdapter
 public class AutomationBuildRunConfigurationJenkins extends AutomationBuildRunConfiguration {
-    private final AutomationBuildRunConfigurationJenkinsData jenkins = new AutomationBuildRunConfigurationJenkinsData();
+    private AutomationBuildRunConfigurationJenkinsData jenkins = new AutomationBuildRunConfigurationJenkinsData();
 
     public static final String TYPE_VALUE = "jenkins";
     public AutomationBuildRunConfigurationJenkins() { super(TYPE_VALUE); }
 
     public AutomationBuildRunConfigurationJenkinsData getJenkins() { return jenkins; }
+    void setJenkins(AutomationBuildRunConfigurationJenkinsData jenkins) { this.jenkins = jenkins; }
 }
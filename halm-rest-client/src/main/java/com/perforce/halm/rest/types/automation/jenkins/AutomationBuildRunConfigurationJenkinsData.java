@@ -26,12 +26,15 @@
 
 package com.perforce.halm.rest.types.automation.jenkins;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Object containing Jenkins-specific automation build run configuration data
  */
+@GenerateTypeAdapter
 public class AutomationBuildRunConfigurationJenkinsData {
     private List<JenkinsBuildParameter> buildParameters;
 
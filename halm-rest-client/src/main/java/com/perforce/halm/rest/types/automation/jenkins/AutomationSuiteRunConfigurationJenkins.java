@@ -26,6 +26,7 @@
 
 package com.perforce.halm.rest.types.automation.jenkins;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfiguration;
 
 import java.util.ArrayList;
@@ -34,8 +35,9 @@ import java.util.List;
 /**
  * Jenkins version of an automation suite run configuration object
  */
+@GenerateTypeAdapter
 public class AutomationSuiteRunConfigurationJenkins extends AutomationSuiteRunConfiguration {
-    private final AutomationSuiteRunConfigurationJenkinsData jenkins = new AutomationSuiteRunConfigurationJenkinsData();
+    private AutomationSuiteRunConfigurationJenkinsData jenkins = new AutomationSuiteRunConfigurationJenkinsData();
 
     public static final String TYPE_VALUE = "jenkins";
     public AutomationSuiteRunConfigurationJenkins() {
@@ -46,4 +48,9 @@ public class AutomationSuiteRunConfigurationJenkins extends AutomationSuiteRunCo
      * @return Jenkins-specific run configuration data
      */
     public AutomationSuiteRunConfigurationJenkinsData getJenkins() { return jenkins; }
+
+    /**
+     * @param jenkins Jenkins-specific run configuration data
+     */
+    void setJenkins(AutomationSuiteRunConfigurationJenkinsData jenkins) { this.jenkins = jenkins; }
 }
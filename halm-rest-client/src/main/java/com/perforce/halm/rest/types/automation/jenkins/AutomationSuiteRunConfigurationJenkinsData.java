@@ -26,12 +26,15 @@
 
 package com.perforce.halm.rest.types.automation.jenkins;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Object containing Jenkins-specific automation suite run configuration data
  */
+@GenerateTypeAdapter
 public class AutomationSuiteRunConfigurationJenkinsData {
     private String projectName;
     private String remoteAuthenticationToken;
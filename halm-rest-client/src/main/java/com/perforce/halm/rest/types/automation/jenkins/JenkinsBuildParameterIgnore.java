@@ -26,9 +26,12 @@
 
 package com.perforce.halm.rest.types.automation.jenkins;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 /**
  * Class for any Jenkins build parameter types we ignore/don't support
  */
+@GenerateTypeAdapter
 public class JenkinsBuildParameterIgnore extends JenkinsBuildParameter {
     public static final String TYPE_VALUE = "ignore";
     public JenkinsBuildParameterIgnore() {
@@ -32,7 +32,12 @@ import java.lang.reflect.Type;
 
 /**
  * Marshaller object for Jenkins build parameter data
+ *
+ * @deprecated Replaced by
+ * {@link com.perforce.halm.rest.types.deserializers.AutomationTypeAdapters#jenkinsBuildParameters()},
+ * which doesn't build a JSON tree to write parameters, or to read those that start with their type.
  */
+@Deprecated
 public class JenkinsBuildParameterMarshaller implements JsonSerializer<JenkinsBuildParameter>, JsonDeserializer<JenkinsBuildParameter> {
     private static final String TYPE_NAME = "type";
 
@@ -26,12 +26,15 @@
 
 package com.perforce.halm.rest.types.automation.jenkins;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 /**
  * Use the 'text' type Jenkins parameters for all non-sensitive data. All Jenkins parameters are ultimately sent
  * to the Jenkins server as text. This is because of how the Jenkins API functions.
  * For boolean parameters supply the text 'true' or 'false'. For choice parameters, use the text of the choice value.
  * For a field like 'User Credentials' you can supply the 'name' of the credentials.
  */
+@GenerateTypeAdapter
 public class JenkinsBuildParameterPassword extends JenkinsBuildParameter {
     private String password;
 
@@ -26,14 +26,20 @@
 
 package com.perforce.halm.rest.types.automation.suite;
 
+import com.google.gson.annotations.JsonAdapter;
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.ItemWithID;
 import com.perforce.halm.rest.types.User;
+import com.perforce.halm.rest.types.deserializers.IntArrayAdapter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Object defining a Helix ALM automation suite
  */
+@GenerateTypeAdapter
 public class AutomationSuite implements ItemWithID {
     private Integer id;
     private String name;
@@ -43,7 +49,8 @@ public class AutomationSuite implements ItemWithID {
     private String scriptIDPrefix;
     private AutomationSuiteHistoryInfo modifiedInfo;
     private AutomationSuiteHistoryInfo createdInfo;
-    private List<Integer> testCaseIDs;
+    @JsonAdapter(IntArrayAdapter.class)
+    private int[] testCaseIDs;
     private List<User> owners;
     private AutomationSuiteRunConfiguration runConfiguration;
 
@@ -146,16 +153,57 @@ public class AutomationSuite implements ItemWithID {
     }
 
     /**
+     * The IDs are stored as an int[], the returned list is a copy of them. Changes to the list do not change the
+     * suite, use {@link #setTestCaseIDs(List)}. {@link #getTestCaseIDArray()} returns the IDs without copying them.
+     *
      * @return The entity IDs for the Helix ALM Test Cases associated with this automation suite
      */
     public List<Integer> getTestCaseIDs() {
-        return testCaseIDs;
+        if (testCaseIDs == null) {
+            return null;
+        }
+
+        List<Integer> ids = new ArrayList<>(testCaseIDs.length);
+        for (int id : testCaseIDs) {
+            ids.add(id);
+        }
+        return ids;
     }
 
     /**
+     * The IDs are copied to an int[], null elements are not IDs and are skipped.
+     *
      * @param testCaseIDs The entity IDs for the Helix ALM Test Cases associated with this automation suite
      */
     public void setTestCaseIDs(List<Integer> testCaseIDs) {
+        if (testCaseIDs == null) {
+            this.testCaseIDs = null;
+            return;
+        }
+
+        int[] ids = new int[testCaseIDs.size()];
+        int count = 0;
+        for (Integer id : testCaseIDs) {
+            if (id != null) {
+                ids[count++] = id;
+            }
+        }
+        this.testCaseIDs = count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * @return The entity IDs for the Helix ALM Test Cases associated with this automation suite. The array is the
+     * suite's own storage and is not copied, changes to it change the suite.
+     */
+    public int[] getTestCaseIDArray() {
+        return testCaseIDs;
+    }
+
+    /**
+     * @param testCaseIDs The entity IDs for the Helix ALM Test Cases associated with this automation suite. The
+     *                    array is not copied and becomes the suite's storage, later changes to it change the suite.
+     */
+    public void setTestCaseIDArray(int[] testCaseIDs) {
         this.testCaseIDs = testCaseIDs;
     }
 
@@ -26,6 +26,7 @@
 
 package com.perforce.halm.rest.types.automation.suite;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
 import com.perforce.halm.rest.types.User;
 
 import java.time.Instant;
@@ -33,6 +34,7 @@ import java.time.Instant;
 /**
  * Object defining historical information about a Helix ALM automation suite
  */
+@GenerateTypeAdapter
 public class AutomationSuiteHistoryInfo {
     private User user;
     private Instant dateTime;
@@ -35,7 +35,12 @@ import java.lang.reflect.Type;
 
 /**
  * Marshaller object for automation suite run configurations
+ *
+ * @deprecated Writes each value through a JSON tree, use
+ * {@link com.perforce.halm.rest.types.deserializers.AutomationTypeAdapters#suiteRunConfigurations()} instead.
+ * It writes directly, and only reads through a tree when the configuration's type isn't its first property.
  */
+@Deprecated
 public class AutomationSuiteRunConfigurationMarshaller implements JsonSerializer<AutomationSuiteRunConfiguration>, JsonDeserializer<AutomationSuiteRunConfiguration> {
     private static final String TYPE_NAME = "type";
 
@@ -26,12 +26,15 @@
 
 package com.perforce.halm.rest.types.automation.suite;
 
+import com.perforce.halm.rest.types.GenerateTypeAdapter;
+
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Container class for a list of automation suites
  */
+@GenerateTypeAdapter
 public class AutomationSuitesContainer {
     private List<AutomationSuite> automationSuitesData;
 
@@ -0,0 +1,85 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfiguration;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationBuildRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationSuiteRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameter;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterIgnore;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterPassword;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterText;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfiguration;
+
+/**
+ * Polymorphic adapter factories for the automation types, registered by default in
+ * {@link com.perforce.halm.rest.CodecRegistry}. Add a platform with {@link PolymorphicTypeAdapterFactory#withSubtype},
+ * for example {@code AutomationTypeAdapters.suiteRunConfigurations().withSubtype(MySuiteRunConfiguration.class, "myplatform")}.
+ */
+public final class AutomationTypeAdapters {
+    private static final String TYPE_NAME = "type";
+
+    private static final PolymorphicTypeAdapterFactory<AutomationSuiteRunConfiguration> SUITE_RUN_CONFIGURATIONS =
+        PolymorphicTypeAdapterFactory.of(AutomationSuiteRunConfiguration.class, TYPE_NAME)
+            .withSubtype(AutomationSuiteRunConfigurationJenkins.class, AutomationSuiteRunConfigurationJenkins.TYPE_VALUE);
+
+    private static final PolymorphicTypeAdapterFactory<AutomationBuildRunConfiguration> BUILD_RUN_CONFIGURATIONS =
+        PolymorphicTypeAdapterFactory.of(AutomationBuildRunConfiguration.class, TYPE_NAME)
+            .withSubtype(AutomationBuildRunConfigurationJenkins.class, AutomationBuildRunConfigurationJenkins.TYPE_VALUE);
+
+    private static final PolymorphicTypeAdapterFactory<JenkinsBuildParameter> JENKINS_BUILD_PARAMETERS =
+        PolymorphicTypeAdapterFactory.of(JenkinsBuildParameter.class, TYPE_NAME)
+            .withSubtype(JenkinsBuildParameterText.class, JenkinsBuildParameterText.TYPE_VALUE)
+            .withSubtype(JenkinsBuildParameterPassword.class, JenkinsBuildParameterPassword.TYPE_VALUE)
+            .withSubtype(JenkinsBuildParameterIgnore.class, JenkinsBuildParameterIgnore.TYPE_VALUE);
+
+    /**
+     * Constructor, private due to static class
+     */
+    private AutomationTypeAdapters() {}
+
+    /**
+     * @return Factory for automation suite run configurations, by platform
+     */
+    public static PolymorphicTypeAdapterFactory<AutomationSuiteRunConfiguration> suiteRunConfigurations() {
+        return SUITE_RUN_CONFIGURATIONS;
+    }
+
+    /**
+     * @return Factory for automation build run configurations, by platform
+     */
+    public static PolymorphicTypeAdapterFactory<AutomationBuildRunConfiguration> buildRunConfigurations() {
+        return BUILD_RUN_CONFIGURATIONS;
+    }
+
+    /**
+     * @return Factory for Jenkins build parameters, by parameter type
+     */
+    public static PolymorphicTypeAdapterFactory<JenkinsBuildParameter> jenkinsBuildParameters() {
+        return JENKINS_BUILD_PARAMETERS;
+    }
+}
@@ -37,6 +37,6 @@ import java.time.Instant;
 public class InstantDeserializer implements JsonDeserializer<Instant> {
     @Override
     public Instant deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        return Instant.parse(json.getAsString());
+        return InstantTypeAdapter.parse(json.getAsString());
     }
 }
@@ -0,0 +1,236 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads and writes instants as ISO-8601 UTC timestamps, as the REST API does. The shapes the server uses,
+ * {@code yyyy-MM-ddTHH:mm:ssZ} and {@code yyyy-MM-ddTHH:mm:ss.SSSZ}, are parsed by hand. Anything else goes to
+ * {@link Instant#parse}, so the result is always the same as it would give, errors included. Likewise formatting
+ * gives the same text as {@link Instant#toString} without going through a DateTimeFormatter.
+ */
+public class InstantTypeAdapter extends TypeAdapter<Instant> {
+    private static final int SECONDS_PER_DAY = 86400;
+
+    // Days from 0000-01-01 to 1970-01-01
+    private static final long DAYS_0000_TO_1970 = 719528;
+
+    // The years formatted by hand, 0000 to 9999
+    private static final long MIN_SECOND = -DAYS_0000_TO_1970 * SECONDS_PER_DAY;
+    private static final long MAX_SECOND = 253402300799L;
+
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(JsonWriter out, Instant value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(format(value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Instant read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String text = in.nextString();
+        try {
+            return parse(text);
+        }
+        catch (DateTimeParseException ex) {
+            throw new JsonSyntaxException("Failed parsing '" + text + "' as Instant; at path " + in.getPath(), ex);
+        }
+    }
+
+    /**
+     * Parses an ISO-8601 UTC timestamp.
+     *
+     * @param text The timestamp
+     * @return The instant, the same as {@link Instant#parse} returns
+     * @throws DateTimeParseException If the text isn't a valid timestamp
+     */
+    public static Instant parse(final CharSequence text) {
+        int length = text.length();
+        if ((length == 20 || (length == 24 && text.charAt(19) == '.')) && text.charAt(length - 1) == 'Z'
+            && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+            && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = digits(text, 17, 2);
+            int millis = length == 24 ? digits(text, 20, 3) : 0;
+
+            // Negative when not all digits. Leap seconds, 24:00 and the like are left to Instant.parse.
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+                && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59 && second >= 0 && second <= 59
+                && millis >= 0) {
+                long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+                return Instant.ofEpochSecond(epochSecond, millis * 1_000_000L);
+            }
+        }
+        return Instant.parse(text);
+    }
+
+    /**
+     * Formats an instant as an ISO-8601 UTC timestamp.
+     *
+     * @param instant The instant
+     * @return The timestamp, the same as {@link Instant#toString} returns
+     */
+    public static String format(final Instant instant) {
+        long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MIN_SECOND || epochSecond > MAX_SECOND) {
+            return instant.toString();
+        }
+
+        int nanos = instant.getNano();
+        int fractionDigits;
+        if (nanos == 0) {
+            fractionDigits = 0;
+        }
+        else if (nanos % 1_000_000 == 0) {
+            fractionDigits = 3;
+        }
+        else if (nanos % 1000 == 0) {
+            fractionDigits = 6;
+        }
+        else {
+            fractionDigits = 9;
+        }
+
+        char[] chars = new char[fractionDigits == 0 ? 20 : 21 + fractionDigits];
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Civil date from the days since 0000-03-01, in 400 year eras, see
+        // http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+        long era = Math.floorDiv(zeroDay, 146097);
+        int dayOfEra = (int) (zeroDay - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int marchMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        int month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+        int year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+
+        writeDigits(chars, 0, 4, year);
+        chars[4] = '-';
+        writeDigits(chars, 5, 2, month);
+        chars[7] = '-';
+        writeDigits(chars, 8, 2, day);
+        chars[10] = 'T';
+        writeDigits(chars, 11, 2, secondOfDay / 3600);
+        chars[13] = ':';
+        writeDigits(chars, 14, 2, secondOfDay / 60 % 60);
+        chars[16] = ':';
+        writeDigits(chars, 17, 2, secondOfDay % 60);
+        if (fractionDigits > 0) {
+            chars[19] = '.';
+            writeDigits(chars, 20, fractionDigits, nanos / POWERS_OF_TEN[9 - fractionDigits]);
+        }
+        chars[chars.length - 1] = 'Z';
+        return new String(chars);
+    }
+
+    /**
+     * @return The number in the digits, or -1 if any aren't ASCII digits
+     */
+    private static int digits(final CharSequence text, final int start, final int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void writeDigits(final char[] chars, final int start, final int count, int value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return Days since 1970-01-01, for a valid date from year 0
+     */
+    private static long epochDay(final int year, final int month, final int day) {
+        // Same as LocalDate.toEpochDay, without the LocalDate.
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
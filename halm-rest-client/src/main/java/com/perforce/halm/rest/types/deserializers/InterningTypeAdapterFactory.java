@@ -0,0 +1,80 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.ValuePool;
+
+import java.io.IOException;
+
+/**
+ * Interns the attribute values of deserialized automation results with a {@link ValuePool}, so results read from
+ * the same JSON share their repeated values. Register it with {@link com.google.gson.GsonBuilder#registerTypeAdapterFactory}.
+ */
+public class InterningTypeAdapterFactory implements TypeAdapterFactory {
+    private final ValuePool pool;
+
+    /**
+     * Constructor
+     *
+     * @param pool The pool to intern values with
+     */
+    public InterningTypeAdapterFactory(final ValuePool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != AutomationResult.class) {
+            return null;
+        }
+
+        TypeAdapter<AutomationResult> delegate = (TypeAdapter<AutomationResult>) gson.getDelegateAdapter(this, type);
+        return (TypeAdapter<T>) new TypeAdapter<AutomationResult>() {
+            @Override
+            public void write(JsonWriter out, AutomationResult result) throws IOException {
+                delegate.write(out, result);
+            }
+
+            @Override
+            public AutomationResult read(JsonReader in) throws IOException {
+                AutomationResult result = delegate.read(in);
+                return result != null ? pool.intern(result) : null;
+            }
+        };
+    }
+}
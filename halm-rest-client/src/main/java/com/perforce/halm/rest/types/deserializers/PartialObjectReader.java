@@ -0,0 +1,53 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Reads the rest of an object whose first property someone else has already read. The generated type adapters
+ * implement it, so {@link PolymorphicTypeAdapterFactory} can read the discriminator and hand the rest of the object to
+ * the subtype's adapter without building a JSON tree.
+ *
+ * @param <T> The type read
+ */
+public interface PartialObjectReader<T> {
+    /**
+     * Reads the properties after the first one, through the end of the object. The first property is applied when it
+     * is a string property with a setter, otherwise it is ignored as the constructor sets it (as is the case for
+     * discriminators).
+     *
+     * @param in Reader positioned after the value of the object's first property
+     * @param firstName Name of the object's first property
+     * @param firstValue String value of the object's first property
+     * @return The object
+     * @throws IOException If the object can't be read
+     */
+    T readRemaining(JsonReader in, String firstName, String firstValue) throws IOException;
+}
@@ -0,0 +1,230 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes an abstract type as whichever subtype its discriminator property names, for example
+ * {@code "type": "jenkins"}. When the discriminator is the object's first property and the subtype's adapter is a
+ * {@link PartialObjectReader}, as the generated adapters are, the adapter streams the rest of the object. Otherwise
+ * the discriminator can be anywhere in the object, so the object is read into a {@link JsonObject} first and the
+ * subtype's adapter reads it from there. Any adapter can read the tree, including Gson's own adapters for maps, which
+ * only work with Gson's own readers.
+ *
+ * Factories are immutable, {@link #withSubtype} returns a copy with one more subtype. Register the copy with
+ * {@link com.perforce.halm.rest.CodecRegistry.Builder#registerTypeAdapterFactory} to support another platform, it
+ * takes precedence over the default factory for the same base type.
+ *
+ * @param <B> The base type
+ */
+public final class PolymorphicTypeAdapterFactory<B> implements TypeAdapterFactory {
+    private final Class<B> baseType;
+    private final String discriminator;
+    private final Map<String, Class<? extends B>> subtypes;
+
+    /**
+     * Constructor
+     *
+     * @param baseType The base type
+     * @param discriminator Name of the property that names the subtype
+     * @param subtypes Subtypes by discriminator value
+     */
+    private PolymorphicTypeAdapterFactory(final Class<B> baseType, final String discriminator,
+                                          final Map<String, Class<? extends B>> subtypes) {
+        this.baseType = baseType;
+        this.discriminator = discriminator;
+        this.subtypes = subtypes;
+    }
+
+    /**
+     * Creates a factory without any subtypes.
+     *
+     * @param baseType The base type
+     * @param discriminator Name of the property that names the subtype
+     * @param <B> The base type
+     * @return The factory
+     */
+    public static <B> PolymorphicTypeAdapterFactory<B> of(final Class<B> baseType, final String discriminator) {
+        return new PolymorphicTypeAdapterFactory<>(baseType, discriminator, Collections.emptyMap());
+    }
+
+    /**
+     * Creates a copy of this factory that also handles the specified subtype. A subtype already registered for the
+     * value is replaced.
+     *
+     * @param subtype The subtype
+     * @param value The discriminator value that names the subtype
+     * @return The new factory
+     */
+    public PolymorphicTypeAdapterFactory<B> withSubtype(final Class<? extends B> subtype, final String value) {
+        Map<String, Class<? extends B>> copy = new LinkedHashMap<>(this.subtypes);
+        copy.put(value, subtype);
+        return new PolymorphicTypeAdapterFactory<>(this.baseType, this.discriminator, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * @return The base type
+     */
+    public Class<B> getBaseType() {
+        return this.baseType;
+    }
+
+    /**
+     * @return Name of the property that names the subtype
+     */
+    public String getDiscriminator() {
+        return this.discriminator;
+    }
+
+    /**
+     * @return The subtypes by discriminator value
+     */
+    public Map<String, Class<? extends B>> getSubtypes() {
+        return this.subtypes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != this.baseType) {
+            return null;
+        }
+
+        Map<String, TypeAdapter<? extends B>> byValue = new HashMap<>();
+        Map<Class<?>, TypeAdapter<? extends B>> byClass = new HashMap<>();
+        for (Map.Entry<String, Class<? extends B>> entry : this.subtypes.entrySet()) {
+            TypeAdapter<? extends B> adapter = gson.getAdapter(entry.getValue());
+            byValue.put(entry.getKey(), adapter);
+            byClass.put(entry.getValue(), adapter);
+        }
+        return (TypeAdapter<T>) new Adapter(gson, gson.getAdapter(JsonElement.class), byValue, byClass).nullSafe();
+    }
+
+    /**
+     * Adapter for the base type.
+     */
+    private final class Adapter extends TypeAdapter<B> {
+        private final Gson gson;
+        private final TypeAdapter<JsonElement> elementAdapter;
+        private final Map<String, TypeAdapter<? extends B>> byValue;
+        private final Map<Class<?>, TypeAdapter<? extends B>> byClass;
+
+        Adapter(final Gson gson, final TypeAdapter<JsonElement> elementAdapter,
+                final Map<String, TypeAdapter<? extends B>> byValue, final Map<Class<?>, TypeAdapter<? extends B>> byClass) {
+            this.gson = gson;
+            this.elementAdapter = elementAdapter;
+            this.byValue = byValue;
+            this.byClass = byClass;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonWriter out, B value) throws IOException {
+            TypeAdapter<? extends B> adapter = this.byClass.get(value.getClass());
+            if (adapter == null) {
+                // Unregistered subclasses are written as they are, there's nothing to look up.
+                adapter = this.gson.getAdapter(value.getClass().asSubclass(baseType));
+            }
+            ((TypeAdapter<B>) adapter).write(out, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public B read(JsonReader in) throws IOException {
+            String path = in.getPath();
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonParseException("Expected " + baseType.getSimpleName() + " to be an object at path " + path);
+            }
+
+            JsonObject object = new JsonObject();
+            in.beginObject();
+            if (in.hasNext()) {
+                String name = in.nextName();
+                if (discriminator.equals(name) && in.peek() == JsonToken.STRING) {
+                    String value = in.nextString();
+                    TypeAdapter<? extends B> adapter = this.getAdapter(value, path);
+                    if (adapter instanceof PartialObjectReader) {
+                        return ((PartialObjectReader<? extends B>) adapter).readRemaining(in, name, value);
+                    }
+                    object.addProperty(name, value);
+                }
+                else {
+                    object.add(name, this.elementAdapter.read(in));
+                }
+            }
+            while (in.hasNext()) {
+                object.add(in.nextName(), this.elementAdapter.read(in));
+            }
+            in.endObject();
+
+            JsonElement value = object.get(discriminator);
+            if (value == null) {
+                throw new JsonParseException("Missing " + discriminator + " for " + baseType.getSimpleName() + " at path "
+                    + path);
+            }
+            if (!(value instanceof JsonPrimitive) || !((JsonPrimitive) value).isString()) {
+                throw new JsonParseException("Expected " + discriminator + " to be a string at path " + path);
+            }
+
+            return this.getAdapter(value.getAsString(), path).fromJsonTree(object);
+        }
+
+        /**
+         * @param value Discriminator value
+         * @param path Path of the object, for the error message
+         * @return The adapter of the subtype the value names
+         */
+        private TypeAdapter<? extends B> getAdapter(final String value, final String path) {
+            TypeAdapter<? extends B> adapter = this.byValue.get(value);
+            if (adapter == null) {
+                throw new JsonParseException("Unknown " + baseType.getSimpleName() + " " + discriminator + " '"
+                    + value + "' at path " + path);
+            }
+            return adapter;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.responses.MenuResponse;
+import feign.FeignException;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncClientTest {
+    private static final String MENU_BODY = "{\"name\":\"Menu\",\"id\":1}";
+
+    private final AtomicBoolean tokenServiceDown = new AtomicBoolean();
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (MockRestAPI.isTokenRequest(request)) {
+                    return tokenServiceDown.get()
+                        ? new MockResponse().setResponseCode(500).setBody("{\"message\":\"Token service unavailable\",\"statusCode\":500}")
+                        : new MockResponse().setBody(MockRestAPI.tokenJson());
+                }
+                if (request.getRequestUrl().encodedPath().endsWith("/menus/404")) {
+                    return new MockResponse().setResponseCode(404)
+                        .setBody("{\"message\":\"Menu not found\",\"statusCode\":404,\"code\":\"NotFound\"}");
+                }
+                return new MockResponse().setBody(MENU_BODY);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void completesWithErrorResponse() throws Exception {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions())) {
+            var response = client.getMenuAsync("project", "404").get();
+            assertTrue(response.isError(), "Not found should be reported in the response.");
+            assertEquals(404, response.getStatusCode());
+            assertEquals("Menu not found", response.getErrorMessage());
+            assertEquals("NotFound", response.getErrorResponse().getCode());
+        }
+    }
+
+    @Test
+    void completesWithConnectionFailure() throws Exception {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions())) {
+            client.getAuthToken("project");
+            server.shutdown();
+
+            var response = client.getMenuAsync("project", "1").get();
+            assertTrue(response.isError(), "Connection failure should be reported in the response.");
+            assertEquals(-1, response.getStatusCode());
+            assertNotNull(response.getErrorMessage());
+        }
+    }
+
+    @Test
+    void passesOtherFailuresThrough() {
+        var failure = new IllegalStateException("Not an API error");
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions())) {
+            var future = client.callAPIHandleErrorsAsync(() -> {
+                var failed = new CompletableFuture<MenuResponse>();
+                failed.completeExceptionally(failure);
+                return failed;
+            }, MenuResponse::new);
+
+            var ex = assertThrows(ExecutionException.class, future::get);
+            assertSame(failure, ex.getCause(), "Failure should not be wrapped more than once.");
+        }
+    }
+
+    @Test
+    void propagatesAuthTokenFailures() throws Exception {
+        tokenServiceDown.set(true);
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions())) {
+            var ex = assertThrows(ExecutionException.class, () -> client.getAuthTokenAsync("project").get());
+            var cause = assertInstanceOf(FeignException.class, ex.getCause());
+            assertEquals(500, cause.status());
+
+            var response = client.getMenuAsync("project", "1").get();
+            assertTrue(response.isError(), "Token failure should be reported in the response.");
+            assertEquals(500, response.getStatusCode());
+            assertEquals("Token service unavailable", response.getErrorMessage());
+
+            tokenServiceDown.set(false);
+            assertTrue(client.getMenuAsync("project", "1").get().isSuccess(), "Failed token request should not have been cached.");
+        }
+    }
+
+    private static ClientOptions getOptions() {
+        var options = new ClientOptions();
+        options.setRetryPolicy(null);
+        return options;
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.responses.MenuResponse;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenCacheTest {
+    private static final Pattern TOKEN_PATH = Pattern.compile("/helix-alm/api/v0/([^/]+)/token");
+    private static final int PROJECT_COUNT = 8;
+    private static final int CALLERS_PER_PROJECT = 32;
+
+    private final Map<String, AtomicInteger> tokenRequests = new ConcurrentHashMap<>();
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                Matcher matcher = TOKEN_PATH.matcher(request.getPath());
+                if (matcher.matches()) {
+                    tokenRequests.computeIfAbsent(matcher.group(1), key -> new AtomicInteger()).incrementAndGet();
+
+                    // Slow token responses widen the window in which concurrent callers miss the cache.
+                    String body = MockRestAPI.tokenJson(Instant.now().plus(1, ChronoUnit.HOURS), "token-" + matcher.group(1));
+                    return new MockResponse().setBody(body).setHeadersDelay(100, TimeUnit.MILLISECONDS);
+                }
+                return new MockResponse().setBody("{\"name\":\"Menu\",\"id\":1}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void singleTokenRequestPerProjectUnderContention() throws Exception {
+        var pool = Executors.newFixedThreadPool(PROJECT_COUNT * CALLERS_PER_PROJECT);
+        var startSignal = new CountDownLatch(1);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server))) {
+            List<Future<MenuResponse>> futures = new ArrayList<>();
+            for (int caller = 0; caller < CALLERS_PER_PROJECT; caller++) {
+                for (int project = 0; project < PROJECT_COUNT; project++) {
+                    String projectID = "project" + project;
+                    boolean useAsync = caller % 2 == 1;
+                    futures.add(pool.submit(() -> {
+                        startSignal.await();
+                        return useAsync ? client.getMenuAsync(projectID, "1").get() : client.getMenu(projectID, "1");
+                    }));
+                }
+            }
+
+            startSignal.countDown();
+            for (var future : futures) {
+                assertTrue(future.get(30, TimeUnit.SECONDS).isSuccess(), "Menu request should have succeeded.");
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(PROJECT_COUNT, tokenRequests.size(), "Every project should have requested a token.");
+        tokenRequests.forEach((projectID, count) ->
+            assertEquals(1, count.get(), "Expected a single token request for " + projectID));
+    }
+
+    @Test
+    void failedTokenRequestIsNotCached() throws Exception {
+        var attempts = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (TOKEN_PATH.matcher(request.getPath()).matches() && attempts.incrementAndGet() == 1) {
+                    return new MockResponse().setResponseCode(500).setBody("{\"message\":\"Try again\",\"statusCode\":500}");
+                }
+                if (TOKEN_PATH.matcher(request.getPath()).matches()) {
+                    return new MockResponse().setBody(MockRestAPI.tokenJson());
+                }
+                return new MockResponse().setBody("{\"name\":\"Menu\",\"id\":1}");
+            }
+        });
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server))) {
+            assertTrue(client.getMenu("project", "1").isError(), "First request should fail to get a token.");
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Second request should retry the token request.");
+        }
+        assertEquals(2, attempts.get(), "Expected the failed token request to be retried.");
+    }
+
+    @Test
+    void refreshesBeforeExpiryCorrectingForClockSkew() {
+        // The server clock runs an hour ahead of ours. Without correcting for the skew the tokens would look valid
+        // for another hour.
+        var localNow = Instant.parse("2024-03-01T02:00:00Z");
+        var serverNow = localNow.plus(1, ChronoUnit.HOURS);
+        var lifetimes = new ArrayDeque<>(List.of(Duration.ofMinutes(10), Duration.ofMinutes(3)));
+        var fetcher = new TestTokenFetcher(count -> MockRestAPI.tokenJson(serverNow.plus(lifetimes.remove()), "token" + count));
+        var scheduler = new ManualScheduler();
+
+        try (var cache = new AuthTokenCache(fetcher, new ServerClock(TimeUnit.HOURS.toMillis(1)),
+                Duration.ofMinutes(2), Clock.fixed(localNow, ZoneOffset.UTC), scheduler)) {
+            assertEquals("Bearer token1", cache.get("project").getAuthorizationHeader());
+            assertEquals(TimeUnit.MINUTES.toMillis(8), scheduler.lastDelayMillis,
+                "Refresh should be due the margin before expiry.");
+
+            scheduler.runLast();
+            assertEquals("Bearer token2", cache.get("project").getAuthorizationHeader(), "Refreshed token should be used.");
+            assertEquals(TimeUnit.SECONDS.toMillis(90), scheduler.lastDelayMillis,
+                "Short-lived tokens should be refreshed half way to expiry.");
+        }
+        finally {
+            scheduler.shutdownNow();
+        }
+        assertEquals(2, fetcher.count.get(), "Expected a single background refresh.");
+    }
+
+    @Test
+    void refreshIsOptIn() {
+        var fetcher = new TestTokenFetcher(count -> MockRestAPI.tokenJson(Instant.now().plus(1, ChronoUnit.HOURS), "token" + count));
+        var scheduler = new ManualScheduler();
+
+        assertNull(new ClientOptions().getTokenRefreshMargin(), "Background refresh should be off by default.");
+        try (var cache = new AuthTokenCache(fetcher, new ServerClock(), null, Clock.systemUTC(), scheduler)) {
+            assertEquals("Bearer token1", cache.get("project").getAuthorizationHeader());
+            assertNull(scheduler.last, "No refresh should have been scheduled.");
+        }
+        finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectedTokenIsRenewedAndRequestReplayed() throws Exception {
+        assertRejectedTokenRenewed(MockRestAPI.connectionInfo(server));
+    }
+
+    @Test
+    void rejectedTokenIsRenewedBehindPathPrefix() throws Exception {
+        assertRejectedTokenRenewed(new ConnectionInfo(server.url("/alm").toString(), "administrator", ""));
+    }
+
+    @Test
+    void renewDoesNotWaitOnPendingAsyncRequest() {
+        // The asynchronous request never completes, as if it were queued behind the call being renewed.
+        var fetcher = new TestTokenFetcher(count -> MockRestAPI.tokenJson()) {
+            @Override
+            public CompletableFuture<AuthInfoToken> fetchAsync(final String projectID) {
+                return new CompletableFuture<>();
+            }
+        };
+
+        try (var cache = new AuthTokenCache(fetcher, new ServerClock(), null)) {
+            var pending = cache.getAsync("project");
+            var token = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> cache.renew("project", "Bearer rejected"));
+
+            assertFalse(pending.isDone(), "The pending request should not have completed.");
+            assertSame(token, cache.get("project"), "The renewed token should replace the pending request.");
+        }
+    }
+
+    @Test
+    void errorCompletesPendingRequest() {
+        var failing = new AtomicInteger(1);
+        var fetcher = new TestTokenFetcher(count -> MockRestAPI.tokenJson()) {
+            @Override
+            public AuthInfoToken fetch(final String projectID) {
+                if (failing.getAndDecrement() > 0) {
+                    throw new StackOverflowError();
+                }
+                return super.fetch(projectID);
+            }
+        };
+
+        try (var cache = new AuthTokenCache(fetcher, new ServerClock(), null)) {
+            assertThrows(StackOverflowError.class, () -> cache.get("project"));
+            assertNotNull(assertTimeoutPreemptively(Duration.ofSeconds(10), () -> cache.get("project")),
+                "The failed request should not be left in the cache.");
+        }
+    }
+
+    /**
+     * Submits a build and requests a menu with a first token that the server rejects.
+     *
+     * @param connectionInfo Connection to the mock server
+     */
+    private void assertRejectedTokenRenewed(final ConnectionInfo connectionInfo) throws Exception {
+        var tokenCount = new AtomicInteger();
+        var submitBodies = new ArrayList<String>();
+        var projectHeaders = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getHeader(ProjectTagInterceptor.PROJECT_HEADER) != null) {
+                    projectHeaders.incrementAndGet();
+                }
+                Matcher matcher = TOKEN_PATH.matcher(request.getPath());
+                if (matcher.find()) {
+                    if (!"project".equals(matcher.group(1))) {
+                        return new MockResponse().setResponseCode(404).setBody("{\"message\":\"No such project\",\"statusCode\":404}");
+                    }
+                    return new MockResponse().setBody(
+                        MockRestAPI.tokenJson(Instant.now().plus(1, ChronoUnit.HOURS), "token" + tokenCount.incrementAndGet()));
+                }
+
+                // The server has revoked the first token.
+                if ("Bearer token1".equals(request.getHeader("Authorization"))) {
+                    return new MockResponse().setResponseCode(401).setBody("{\"message\":\"Token revoked\",\"statusCode\":401}");
+                }
+                if (request.getPath().endsWith("/submitBuild")) {
+                    synchronized (submitBodies) {
+                        submitBodies.add(request.getBody().readUtf8());
+                    }
+                    return new MockResponse().setBody("{\"id\":1,\"number\":\"1\"}");
+                }
+                return new MockResponse().setBody("{\"name\":\"Menu\",\"id\":1}");
+            }
+        });
+
+        var build = MockRestAPI.newBuild("1", 1000);
+
+        try (var client = new Client(connectionInfo)) {
+            assertTrue(client.submitAutomationBuild(build, "project", "1").isSuccess(), "Submit should have been replayed.");
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Renewed token should be used.");
+        }
+
+        assertEquals(2, tokenCount.get(), "Expected a single token renewal.");
+        assertEquals(0, projectHeaders.get(), "The internal project header should not reach the server.");
+        assertEquals(1, submitBodies.size(), "Expected the submit to reach the server once.");
+        assertTrue(submitBodies.get(0).contains("Result 999"), "Replayed submit should carry the full body.");
+    }
+
+    /**
+     * Token fetcher that hands out tokens built from the JSON of a server's response, counting them.
+     */
+    private static class TestTokenFetcher implements AuthTokenCache.TokenFetcher {
+        private final AtomicInteger count = new AtomicInteger();
+        private final IntFunction<String> tokenJson;
+
+        TestTokenFetcher(final IntFunction<String> tokenJson) {
+            this.tokenJson = tokenJson;
+        }
+
+        @Override
+        public AuthInfoToken fetch(final String projectID) {
+            return CodecRegistry.getDefault().getGson().fromJson(tokenJson.apply(count.incrementAndGet()), AuthInfoToken.class);
+        }
+
+        @Override
+        public CompletableFuture<AuthInfoToken> fetchAsync(final String projectID) {
+            return CompletableFuture.completedFuture(fetch(projectID));
+        }
+    }
+
+    /**
+     * Scheduler that records what is scheduled instead of running it, the test runs it when it chooses.
+     */
+    private static final class ManualScheduler extends ScheduledThreadPoolExecutor {
+        private Runnable last;
+        private long lastDelayMillis;
+
+        ManualScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            last = command;
+            lastDelayMillis = unit.toMillis(delay);
+            return super.schedule(() -> {}, 1, TimeUnit.DAYS);
+        }
+
+        void runLast() {
+            last.run();
+        }
+    }
+}
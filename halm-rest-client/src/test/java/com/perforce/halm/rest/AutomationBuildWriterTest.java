@@ -0,0 +1,149 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.JsonParser;
+import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResultTable;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomationBuildWriterTest {
+    private final List<String> submits = new CopyOnWriteArrayList<>();
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> {
+            submits.add(request.getBody().readUtf8());
+            return new MockResponse().setBody("{\"id\":7,\"number\":\"42\"}");
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void submitsSameBuildAsInMemory() throws Exception {
+        var header = new AutomationBuild();
+        header.setNumber("42");
+        header.setDescription("Unicode \u00e9 \uD83D\uDE00");
+        header.addProperty(new NameValuePair("Commit", "abc123"));
+        var build = new AutomationBuild();
+        build.setNumber("42");
+        build.setDescription(header.getDescription());
+        build.setProperties(header.getProperties());
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions());
+             var writer = client.newAutomationBuildWriter(header, 10)) {
+            for (int i = 0; i < 25; i++) {
+                writer.addResult(MockRestAPI.newResult(i));
+                build.addResult(MockRestAPI.newResult(i));
+            }
+            assertEquals(25, writer.getResultCount());
+            assertEquals(20, writer.getSpilledResultCount());
+
+            assertTrue(client.submitAutomationBuild(writer, "project", "1").isSuccess());
+            assertTrue(client.submitAutomationBuild(build, "project", "1").isSuccess());
+
+            // Results added after submitting are only part of later submissions.
+            writer.addResult(MockRestAPI.newResult(25));
+            assertEquals("42", client.submitAutomationBuildAsync(writer, "project", "1").get().getNumber());
+        }
+
+        assertEquals(3, submits.size());
+        assertEquals(JsonParser.parseString(submits.get(1)), JsonParser.parseString(submits.get(0)));
+        assertEquals(26, JsonParser.parseString(submits.get(2)).getAsJsonObject().getAsJsonArray("results").size());
+    }
+
+    @Test
+    void submitsResultTable() throws Exception {
+        var build = new AutomationBuild();
+        build.setNumber("42");
+        var header = new AutomationBuild();
+        header.setNumber("42");
+        var table = new AutomationResultTable();
+        for (int i = 0; i < 25; i++) {
+            build.addResult(MockRestAPI.newResult(i));
+            table.add(MockRestAPI.newResult(i));
+        }
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            assertTrue(client.submitAutomationBuild(build, "project", "1").isSuccess());
+            assertTrue(client.submitAutomationBuild(header, table, "project", "1").isSuccess());
+            assertTrue(client.submitAutomationBuildAsync(build, table, "project", "1").get().isSuccess());
+        }
+
+        assertEquals(3, submits.size());
+        assertEquals(submits.get(0), submits.get(1));
+        assertEquals(submits.get(0), submits.get(2));
+    }
+
+    @Test
+    void submitsEmptyBuild() throws Exception {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions());
+             var writer = client.newAutomationBuildWriter(new AutomationBuild())) {
+            assertTrue(client.submitAutomationBuild(writer, "project", "1").isSuccess());
+        }
+
+        assertEquals("{\"results\":[]}", submits.get(0));
+    }
+
+    @Test
+    void closeDeletesTemporaryFile() throws Exception {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            var writer = client.newAutomationBuildWriter(new AutomationBuild(), 1);
+            writer.addResult(MockRestAPI.newResult(0));
+            var tempFiles = countTempFiles();
+            writer.close();
+
+            assertEquals(tempFiles - 1, countTempFiles());
+            assertThrows(IllegalStateException.class, () -> writer.addResult(MockRestAPI.newResult(1)));
+        }
+    }
+
+    private static long countTempFiles() throws Exception {
+        try (var files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("halm-build-")).count();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.automation.suite.AutomationSuite;
+import feign.FeignException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomationSuiteStreamingTest {
+    private static final String SUITES_JSON = "{\"self\":\"https://localhost/helix-alm/api/v0/1/automationSuites\"," +
+        "\"automationSuitesData\":[" +
+        "{\"id\":1,\"name\":\"Suite 1\",\"active\":true,\"testCaseIDs\":[3,1,4,1,5,9,2,6,5,3,5,8,9,7,9,3,2,3,8,4]}," +
+        "{\"id\":2,\"name\":\"Suite 2\",\"owners\":[],\"testCaseIDs\":[]}," +
+        "{\"id\":3,\"name\":\"Suite 3\",\"testCaseIDs\":null}]}";
+
+    private volatile MockResponse suitesResponse;
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        suitesResponse = new MockResponse().setBody(SUITES_JSON);
+        server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> suitesResponse));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void yieldsSuitesOneAtATime() throws Exception {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            var suites = new ArrayList<AutomationSuite>();
+            client.forEachAutomationSuite("1", suites::add);
+            assertSuites(suites);
+
+            var asyncSuites = new ArrayList<AutomationSuite>();
+            client.forEachAutomationSuiteAsync("1", asyncSuites::add).get();
+            assertSuites(asyncSuites);
+
+            assertSuites(client.getAutomationSuites("1"));
+        }
+    }
+
+    @Test
+    void reportsErrors() {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            suitesResponse = new MockResponse().setResponseCode(403)
+                .setBody("{\"message\":\"Access denied\",\"statusCode\":403,\"code\":\"Forbidden\"}");
+            var ex = assertThrows(FeignException.class, () -> client.forEachAutomationSuite("1", suite -> {}));
+            assertEquals(403, ex.status());
+
+            suitesResponse = new MockResponse().setBody(SUITES_JSON);
+            var failure = new IllegalStateException("Stop");
+            assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> client.forEachAutomationSuite("1", suite -> { throw failure; })));
+
+            suitesResponse = new MockResponse().setBody("{\"automationSuitesData\":{}}");
+            assertThrows(FeignException.class, () -> client.forEachAutomationSuite("1", suite -> {}));
+        }
+    }
+
+    @Test
+    void testCaseIDsAreStoredAsInts() {
+        var suite = new AutomationSuite();
+        suite.setTestCaseIDs(Arrays.asList(7, 8, 9));
+        assertArrayEquals(new int[] {7, 8, 9}, suite.getTestCaseIDArray());
+        assertEquals(List.of(7, 8, 9), suite.getTestCaseIDs());
+
+        var ids = suite.getTestCaseIDs();
+        ids.add(10);
+        assertEquals(List.of(7, 8, 9, 10), ids);
+        assertArrayEquals(new int[] {7, 8, 9}, suite.getTestCaseIDArray(), "Changing the list should not change the suite.");
+
+        suite.setTestCaseIDs(Arrays.asList(7, null, 9));
+        assertArrayEquals(new int[] {7, 9}, suite.getTestCaseIDArray(), "Null IDs should be skipped.");
+
+        suite.setTestCaseIDs((List<Integer>) null);
+        assertNull(suite.getTestCaseIDs());
+    }
+
+    private static void assertSuites(List<AutomationSuite> suites) {
+        assertEquals(3, suites.size());
+        assertEquals("Suite 1", suites.get(0).getName());
+        assertArrayEquals(new int[] {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8, 9, 7, 9, 3, 2, 3, 8, 4}, suites.get(0).getTestCaseIDArray());
+        assertEquals(9, suites.get(0).getTestCaseIDs().get(5));
+        assertEquals(0, suites.get(1).getTestCaseIDArray().length);
+        assertNull(suites.get(2).getTestCaseIDArray());
+    }
+}
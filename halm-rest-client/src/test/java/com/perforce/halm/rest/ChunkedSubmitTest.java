@@ -0,0 +1,167 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedSubmitTest {
+    private final List<String> submits = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int failSubmit = -1;
+    private volatile String submitResponse = "{\"id\":7,\"number\":\"77\"}";
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                int index = submits.size();
+                submits.add(request.getBody().readUtf8());
+                if (index == failSubmit) {
+                    return new MockResponse().setResponseCode(400)
+                        .setBody("{\"message\":\"Bad chunk\",\"statusCode\":400,\"code\":\"BadRequest\"}");
+                }
+                return new MockResponse().setBody(submitResponse);
+            }
+            finally {
+                inFlight.decrementAndGet();
+            }
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void splitsBuildAndAddsChunksToCreatedBuild() {
+        var chunking = new ChunkingOptions();
+        chunking.setMaxResultsPerChunk(10);
+        chunking.setMaxConcurrentChunks(2);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            var response = client.submitAutomationBuildChunked(newBuild(55), "project", "1", chunking);
+            assertTrue(response.isSuccess());
+            assertEquals(6, response.getChunkCount());
+            assertEquals(6, response.getChunkResponses().size());
+            assertEquals(55, response.getSubmittedResultCount());
+            assertEquals("77", response.getNumber());
+            assertEquals(7, response.getId().intValue());
+        }
+
+        assertEquals(6, submits.size());
+        assertTrue(maxInFlight.get() <= 2, "No more than two chunks should be in flight.");
+        var resultCount = 0;
+        for (int i = 0; i < submits.size(); i++) {
+            var chunk = JsonParser.parseString(submits.get(i)).getAsJsonObject();
+            assertEquals(i == 0 ? "1.0" : "77", chunk.get("number").getAsString());
+            assertEquals("pending", chunk.get("pendingRunID").getAsString());
+            resultCount += chunk.getAsJsonArray("results").size();
+        }
+        assertEquals(55, resultCount);
+    }
+
+    @Test
+    void limitsChunkSize() {
+        var build = newBuild(20);
+        var chunking = new ChunkingOptions();
+        chunking.setMaxChunkSize(1000L);
+
+        var chunks = ChunkedSubmission.split(build, chunking, new Gson());
+        assertTrue(chunks.size() > 1);
+        var resultCount = 0;
+        for (var chunk : chunks) {
+            assertFalse(chunk.getResults().isEmpty());
+            resultCount += chunk.getResults().size();
+        }
+        assertEquals(20, resultCount);
+    }
+
+    @Test
+    void stopsAfterFailedChunk() {
+        failSubmit = 2;
+        var chunking = new ChunkingOptions();
+        chunking.setMaxResultsPerChunk(10);
+        chunking.setMaxConcurrentChunks(1);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            var response = client.submitAutomationBuildChunked(newBuild(50), "project", "1", chunking);
+            assertTrue(response.isError());
+            assertEquals("Bad chunk", response.getErrorMessage());
+            assertEquals(5, response.getChunkCount());
+            assertEquals(3, response.getChunkResponses().size());
+            assertEquals(20, response.getSubmittedResultCount());
+        }
+
+        assertEquals(3, submits.size());
+    }
+
+    @Test
+    void failsWithoutBuildNumber() {
+        submitResponse = "{\"id\":7}";
+        var build = newBuild(30);
+        build.setNumber(null);
+        var chunking = new ChunkingOptions();
+        chunking.setMaxResultsPerChunk(10);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            var response = client.submitAutomationBuildChunked(build, "project", "1", chunking);
+            assertTrue(response.isError(), "Chunks without a build number would each create a build.");
+            assertNotNull(response.getErrorMessage());
+            assertEquals(3, response.getChunkCount());
+            assertEquals(1, response.getChunkResponses().size());
+            assertEquals(10, response.getSubmittedResultCount());
+        }
+
+        assertEquals(1, submits.size());
+    }
+
+    private static AutomationBuild newBuild(int resultCount) {
+        var build = MockRestAPI.newBuild("1.0", resultCount);
+        build.setPendingRunID("pending");
+        return build;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final AtomicInteger menuStatus = new AtomicInteger(200);
+    private final AtomicInteger menuDelayMillis = new AtomicInteger();
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> new MockResponse()
+            .setResponseCode(menuStatus.get())
+            .setHeadersDelay(menuDelayMillis.get(), TimeUnit.MILLISECONDS)
+            .setBody("{\"name\":\"Menu\",\"id\":1}")));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void opensOnFailuresAndRecovers() throws Exception {
+        var config = getConfig();
+        menuStatus.set(500);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(config))) {
+            // The token request succeeds, the menu requests fail.
+            for (int i = 0; i < 3; i++) {
+                assertFalse(client.getMenu("project", "1").isCircuitBreakerOpen());
+            }
+            assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+
+            int requestsBefore = server.getRequestCount();
+            var response = client.getMenu("project", "1");
+            assertTrue(response.isError(), "Call should fail while the circuit is open.");
+            assertTrue(response.isCircuitBreakerOpen(), "Error should identify the open circuit.");
+            assertEquals(503, response.getStatusCode());
+            assertEquals(requestsBefore, server.getRequestCount(), "Call should not have reached the server.");
+
+            // A second client for the same server shares the open circuit.
+            try (var other = new Client(MockRestAPI.connectionInfo(server), getOptions(new CircuitBreakerConfig()))) {
+                assertSame(client.getCircuitBreaker(), other.getCircuitBreaker());
+                assertTrue(other.getMenu("project", "1").isCircuitBreakerOpen());
+            }
+
+            Thread.sleep(config.getWaitDurationInOpenState().toMillis() + 50);
+            assertEquals(CircuitBreaker.State.HALF_OPEN, client.getCircuitBreaker().getState());
+
+            menuStatus.set(200);
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Trial call should be let through.");
+            assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker().getState());
+        }
+    }
+
+    @Test
+    void failedTrialCallReopens() throws Exception {
+        var config = getConfig();
+        menuStatus.set(500);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(config))) {
+            for (int i = 0; i < 3; i++) {
+                client.getMenu("project", "1");
+            }
+            assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+
+            Thread.sleep(config.getWaitDurationInOpenState().toMillis() + 50);
+            assertFalse(client.getMenu("project", "1").isCircuitBreakerOpen(), "Trial call should be let through.");
+            assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+        }
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        var config = getConfig();
+        config.setSlowCallDuration(Duration.ofMillis(50));
+        config.setSlowCallRateThreshold(50);
+        menuDelayMillis.set(100);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(config))) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(client.getMenu("project", "1").isSuccess());
+            }
+            assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+            assertTrue(client.getMenu("project", "1").isCircuitBreakerOpen());
+        }
+    }
+
+    private static CircuitBreakerConfig getConfig() {
+        var config = new CircuitBreakerConfig();
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setWaitDurationInOpenState(Duration.ofMillis(200));
+        config.setPermittedCallsInHalfOpenState(1);
+        return config;
+    }
+
+    private static ClientOptions getOptions(final CircuitBreakerConfig config) {
+        var options = new ClientOptions();
+        options.setCircuitBreakerConfig(config);
+        options.setRetryPolicy(null);
+        return options;
+    }
+}
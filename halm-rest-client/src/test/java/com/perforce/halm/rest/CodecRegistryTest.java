@@ -0,0 +1,83 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.NameValuePair;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecRegistryTest {
+    private final ConnectionInfo connectionInfo = new ConnectionInfo("https://example.com", "", "");
+
+    @Test
+    void clientsShareDefaultGson() {
+        try (var first = new Client(connectionInfo); var second = new Client(connectionInfo)) {
+            assertSame(CodecRegistry.getDefault().getGson(), first.buildGson());
+            assertSame(first.buildGson(), second.buildGson());
+        }
+    }
+
+    @Test
+    void registersExtraAdapters() {
+        var codecs = CodecRegistry.builder()
+            .registerTypeAdapter(IDLabelPair.class, (JsonSerializer<IDLabelPair>) (pair, type, context) ->
+                new JsonPrimitive(pair.getLabel()))
+            .build();
+        var pair = new IDLabelPair(1, "Passed");
+
+        assertEquals("\"Passed\"", codecs.getGson().toJson(pair));
+        assertEquals("{\"id\":1,\"label\":\"Passed\"}", CodecRegistry.getDefault().getGson().toJson(pair),
+            "The default registry should not change.");
+
+        var options = new ClientOptions();
+        options.setCodecRegistry(codecs);
+        try (var client = new Client(connectionInfo, options)) {
+            assertSame(codecs.getGson(), client.buildGson());
+        }
+    }
+
+    @Test
+    void toBuilderKeepsRegistrations() {
+        var codecs = CodecRegistry.builder()
+            .registerTypeAdapter(IDLabelPair.class, (JsonSerializer<IDLabelPair>) (pair, type, context) ->
+                new JsonPrimitive(pair.getLabel()))
+            .build();
+        var extended = codecs.toBuilder()
+            .registerTypeAdapter(NameValuePair.class, (JsonSerializer<NameValuePair>) (pair, type, context) ->
+                new JsonPrimitive(pair.getName() + ":" + pair.getValue()))
+            .build();
+
+        assertNotSame(codecs.getGson(), extended.getGson());
+        assertEquals("\"Passed\"", extended.getGson().toJson(new IDLabelPair(1, "Passed")));
+        assertEquals("\"a:b\"", extended.getGson().toJson(new NameValuePair("a", "b")));
+        assertEquals("{\"name\":\"a\",\"value\":\"b\"}", codecs.getGson().toJson(new NameValuePair("a", "b")));
+    }
+}
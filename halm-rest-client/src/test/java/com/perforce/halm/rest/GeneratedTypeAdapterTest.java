@@ -0,0 +1,184 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.perforce.halm.rest.responses.MenuResponse;
+import com.perforce.halm.rest.responses.ProjectListResponse;
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.VersionInfo;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.AutomationResultTypeAdapter;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationBuildRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationSuiteRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterPassword;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterText;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuite;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import com.perforce.halm.rest.types.deserializers.AutomationTypeAdapters;
+import com.perforce.halm.rest.types.deserializers.InstantTypeAdapter;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedTypeAdapterTest {
+    private static final Client client = new Client(new ConnectionInfo("https://example.com", "", ""));
+
+    // The client's configuration, without the generated adapters.
+    private static final Gson reflective = new GsonBuilder()
+        .registerTypeAdapter(Instant.class, new InstantTypeAdapter())
+        .registerTypeAdapterFactory(AutomationTypeAdapters.suiteRunConfigurations())
+        .registerTypeAdapterFactory(AutomationTypeAdapters.buildRunConfigurations())
+        .registerTypeAdapterFactory(AutomationTypeAdapters.jenkinsBuildParameters())
+        .create();
+
+    @AfterAll
+    static void closeClient() {
+        client.close();
+    }
+
+    @Test
+    void usesGeneratedAdapters() {
+        var gson = client.buildGson();
+        assertInstanceOf(AutomationResultTypeAdapter.class, gson.getAdapter(AutomationResult.class));
+
+        // Subclasses can add fields, so they are left to reflection.
+        Object adapter = gson.getAdapter(ExtendedResult.class);
+        assertFalse(adapter instanceof AutomationResultTypeAdapter);
+    }
+
+    @Test
+    void writesSameJsonAsReflection() {
+        var build = newAutomationBuild();
+        var generated = client.buildGson();
+        assertEquals(reflective.toJson(build), generated.toJson(build));
+
+        var withNulls = generated.newBuilder().serializeNulls().create();
+        assertEquals(reflective.newBuilder().serializeNulls().create().toJson(build), withNulls.toJson(build));
+    }
+
+    @Test
+    void readsSameObjectsAsReflection() {
+        var json = reflective.toJson(newAutomationBuild());
+        var build = client.buildGson().fromJson(json, AutomationBuild.class);
+        assertEquals(json, reflective.toJson(build));
+
+        var config = (AutomationBuildRunConfigurationJenkins) build.getRunConfigurationInfo();
+        var parameters = config.getJenkins().getBuildParameters();
+        assertEquals("secret", ((JenkinsBuildParameterPassword) parameters.get(1)).getPassword());
+        assertEquals(JenkinsBuildParameterPassword.TYPE_VALUE, parameters.get(1).getType());
+    }
+
+    @Test
+    void readsResponses() throws IOException {
+        var gson = client.buildGson();
+
+        var projects = gson.fromJson(readExample("projects.json"), ProjectListResponse.class);
+        assertEquals(3, projects.getProjects().size());
+        assertEquals("Traditional_Template", projects.getProjects().get(1).getName());
+        assertEquals(0, projects.getProjectsLoading());
+
+        var versions = gson.fromJson(readExample("versions.json"), VersionInfo.class);
+        assertEquals("2022.1.0.0", versions.getHALMServer());
+
+        var suites = gson.fromJson(readExample("automationSuites.json"), AutomationSuitesContainer.class);
+        AutomationSuite suite = suites.getAutomationSuitesData().get(0);
+        assertTrue(suite.isActive());
+        assertEquals("Administrator", suite.getCreatedInfo().getUser().getUsername());
+        assertEquals(0, suite.getTestCaseIDArray().length);
+        var runConfiguration = (AutomationSuiteRunConfigurationJenkins) suite.getRunConfiguration();
+        assertEquals("HelixALM_RESTAPI", runConfiguration.getJenkins().getProjectName());
+
+        var menu = gson.fromJson("{\"name\":\"Priority\",\"id\":3,\"items\":{\"itemsData\":[{\"label\":\"High\"," +
+            "\"id\":1,\"fieldStyle\":{\"id\":2}}]},\"statusCode\":200}", MenuResponse.class);
+        assertEquals("Priority", menu.getName());
+        assertEquals("High", menu.getItems().get(0).getLabel());
+        assertEquals(200, menu.getStatusCode());
+    }
+
+    @Test
+    void ignoresNullsForPrimitives() {
+        var suite = client.buildGson().fromJson("{\"active\":null,\"name\":true,\"unknown\":[1,2]}",
+            AutomationSuite.class);
+        assertFalse(suite.isActive());
+        assertEquals("true", suite.getName());
+    }
+
+    private static class ExtendedResult extends AutomationResult {
+        private String owner;
+    }
+
+    private static String readExample(final String filename) throws IOException {
+        return FileUtils.readFileToString(new File("src/test/resources/exampleJson", filename), StandardCharsets.UTF_8);
+    }
+
+    private static AutomationBuild newAutomationBuild() {
+        var build = new AutomationBuild();
+        build.setNumber("42");
+        build.setDescription("Nightly \"regression\" run \u00e9");
+        build.setTestRunSet(new IDLabelPair(3, "Regression"));
+        build.setDuration(12.5);
+        build.addProperty(new NameValuePair("Commit", "3f2a9c1"));
+
+        var configuration = new AutomationBuildRunConfigurationJenkins();
+        var text = new JenkinsBuildParameterText();
+        text.setName("branch");
+        text.setText("main");
+        var password = new JenkinsBuildParameterPassword();
+        password.setName("token");
+        password.setPassword("secret");
+        configuration.getJenkins().setBuildParameters(Arrays.asList(text, password));
+        build.setRunConfigurationInfo(configuration);
+
+        for (int i = 0; i < 3; i++) {
+            var result = new AutomationResult();
+            result.setName("test" + i);
+            result.setStatus(new IDLabelPair(i, "Passed"));
+            result.setTags(List.of("smoke", "ui"));
+            result.setOS("Linux");
+            result.setDuration(i);
+            if (i == 1) {
+                result.setErrorMessage(null);
+                result.addProperty(new NameValuePair("Retry", null));
+            }
+            build.addResult(result);
+        }
+        return build;
+    }
+}
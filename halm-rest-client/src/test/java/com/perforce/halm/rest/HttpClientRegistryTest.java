@@ -0,0 +1,66 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientRegistryTest {
+    @Test
+    void sharesClientForSameConnection() {
+        var connInfo = new ConnectionInfo("https://registry-shared.example.com", "", "");
+        int initialSize = HttpClientRegistry.size();
+
+        try (var first = HttpClientRegistry.acquire(connInfo);
+             var second = HttpClientRegistry.acquire(new ConnectionInfo(connInfo.url, "other", "user"))) {
+            assertSame(first.getHttpClient(), second.getHttpClient(), "Same URL and trust should share a client.");
+            assertEquals(initialSize + 1, HttpClientRegistry.size(), "Only one shared client should be created.");
+        }
+
+        assertEquals(initialSize, HttpClientRegistry.size(), "Shared client should be released after the last lease.");
+    }
+
+    @Test
+    void separatesClientsByUrl() {
+        try (var first = HttpClientRegistry.acquire(new ConnectionInfo("https://registry-a.example.com", "", ""));
+             var second = HttpClientRegistry.acquire(new ConnectionInfo("https://registry-b.example.com", "", ""))) {
+            assertNotSame(first.getHttpClient(), second.getHttpClient(), "Different URLs should not share a client.");
+        }
+    }
+
+    @Test
+    void releaseShutsDownClient() {
+        var lease = HttpClientRegistry.acquire(new ConnectionInfo("https://registry-release.example.com", "", ""));
+        var httpClient = lease.getHttpClient();
+
+        lease.close();
+        lease.close();
+
+        assertTrue(httpClient.dispatcher().executorService().isShutdown(), "Dispatcher should be shut down.");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpProtocolTest {
+    @Test
+    void priorKnowledgeTalksHttp2OverPlainHttp() throws Exception {
+        var server = new MockWebServer();
+        server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        server.enqueue(new MockResponse().setBody("{\"projects\":[]}"));
+        server.enqueue(new MockResponse().setBody("{\"projects\":[]}"));
+        server.start();
+
+        try {
+            var options = new ClientOptions();
+            options.setHttpProtocol(HttpProtocol.H2_PRIOR_KNOWLEDGE);
+            try (var client = new Client(getConnectionInfo("http", server), options)) {
+                assertTrue(client.getProjects().isSuccess(), "HTTP/2 request should have succeeded.");
+            }
+
+            options.setHttpProtocol(HttpProtocol.HTTP_1_1);
+            try (var client = new Client(getConnectionInfo("http", server), options)) {
+                assertTrue(client.getProjects().isError(), "HTTP/1.1 request to an HTTP/2 only server should fail.");
+            }
+        }
+        finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    void priorKnowledgeRejectsHttps() {
+        var options = new ClientOptions();
+        options.setHttpProtocol(HttpProtocol.H2_PRIOR_KNOWLEDGE);
+        assertThrows(IllegalArgumentException.class,
+            () -> new Client(new ConnectionInfo("https://localhost:8443", "administrator", ""), options));
+    }
+
+    private static ConnectionInfo getConnectionInfo(final String scheme, final MockWebServer server) {
+        return new ConnectionInfo(String.format("%s://%s:%d", scheme, server.getHostName(), server.getPort()), "administrator", "");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.RateLimiter.Operation;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    @Test
+    void burstThenSustainedRate() {
+        var limiter = new RateLimiter(10, 3, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(Operation.READ), "Burst should be available immediately.");
+        }
+        assertFalse(limiter.tryAcquire(Operation.READ), "Burst should be exhausted.");
+
+        long start = System.nanoTime();
+        limiter.acquire(Operation.READ);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50), "Should wait for the next permit.");
+
+        var metrics = limiter.getMetrics(Operation.READ);
+        assertEquals(4, metrics.getAcquiredCount());
+        assertEquals(1, metrics.getDelayedCount());
+        assertEquals(1, metrics.getRejectedCount());
+        assertTrue(metrics.getMaxWait().toMillis() > 0);
+    }
+
+    @Test
+    void readsAndWritesAreLimitedSeparately() {
+        var limiter = new RateLimiter(1, 1, 1, 1);
+
+        assertTrue(limiter.tryAcquire(Operation.WRITE));
+        assertFalse(limiter.tryAcquire(Operation.WRITE));
+        assertTrue(limiter.tryAcquire(Operation.READ), "Writes should not use up read permits.");
+        assertFalse(limiter.tryAcquire(Operation.READ, Duration.ofMillis(10)), "Next permit is a second away.");
+    }
+
+    @Test
+    void asyncAcquireDoesNotBlock() throws Exception {
+        var limiter = new RateLimiter(1, 1, 5, 1);
+        assertTrue(limiter.acquireAsync(Operation.WRITE).isDone(), "First permit should be available immediately.");
+
+        long start = System.nanoTime();
+        var permit = limiter.acquireAsync(Operation.WRITE);
+        assertFalse(permit.isDone(), "Second permit should not be available yet.");
+        permit.get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150), "Should complete after the interval.");
+    }
+
+    @Test
+    void sharedAcrossClients() throws Exception {
+        var server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> new MockResponse().setBody("{\"id\":1,\"number\":\"1\"}")));
+        server.start();
+
+        var options = new ClientOptions();
+        options.setRateLimiter(new RateLimiter(100, 10, 5, 1));
+        var connectionInfo = MockRestAPI.connectionInfo(server);
+        try (var first = new Client(connectionInfo, options); var second = new Client(connectionInfo, options)) {
+            long start = System.nanoTime();
+            assertTrue(first.submitAutomationBuild(new AutomationBuild(), "project", "1").isSuccess());
+            assertTrue(second.submitAutomationBuildAsync(new AutomationBuild(), "project", "1").get().isSuccess());
+            assertTrue(first.submitAutomationBuild(new AutomationBuild(), "project", "1").isSuccess());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(350),
+                "Submits from both clients should share the write bucket.");
+        }
+        finally {
+            server.shutdown();
+        }
+
+        assertEquals(3, options.getRateLimiter().getMetrics(Operation.WRITE).getAcquiredCount());
+    }
+
+    @Test
+    void retriesTakePermits() throws Exception {
+        var attempts = new AtomicInteger();
+        var server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> attempts.incrementAndGet() < 3
+            ? new MockResponse().setResponseCode(503) : new MockResponse().setBody("{\"name\":\"Menu\",\"id\":1}")));
+        server.start();
+
+        var policy = new RetryPolicy();
+        policy.setBaseDelay(Duration.ofMillis(1));
+        policy.setMaxDelay(Duration.ofMillis(1));
+        var options = new ClientOptions();
+        options.setRetryPolicy(policy);
+        options.setRateLimiter(new RateLimiter(1000, 10, 1, 1));
+        try (var client = new Client(MockRestAPI.connectionInfo(server), options)) {
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Menu request should have been retried.");
+        }
+        finally {
+            server.shutdown();
+        }
+
+        assertEquals(3, attempts.get());
+        assertEquals(3, options.getRateLimiter().getMetrics(Operation.READ).getAcquiredCount(),
+            "Each retry should take a permit.");
+    }
+}
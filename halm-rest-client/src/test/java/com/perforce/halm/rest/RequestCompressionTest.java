@@ -0,0 +1,149 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCompressionTest {
+    private final List<RecordedRequest> submits = new CopyOnWriteArrayList<>();
+    private volatile boolean acceptsGzip = true;
+    private volatile String acceptEncoding;
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                var response = new MockResponse();
+                if (acceptEncoding != null) {
+                    response.addHeader("Accept-Encoding", acceptEncoding);
+                }
+                if (MockRestAPI.isTokenRequest(request)) {
+                    return response.setBody(MockRestAPI.tokenJson());
+                }
+
+                submits.add(request);
+                if (!acceptsGzip && "gzip".equals(request.getHeader("Content-Encoding"))) {
+                    return response.setResponseCode(415);
+                }
+                return response.setBody("{\"id\":1,\"number\":\"1\"}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void compressesBodiesOverThreshold() throws Exception {
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(1024))) {
+            assertTrue(client.submitAutomationBuild(newBuild(1), "project", "1").isSuccess());
+            assertTrue(client.submitAutomationBuild(newBuild(1000), "project", "1").isSuccess());
+        }
+
+        assertNull(submits.get(0).getHeader("Content-Encoding"), "Small body should not be compressed.");
+
+        var large = submits.get(1);
+        assertEquals("gzip", large.getHeader("Content-Encoding"));
+        String body = gunzip(large.getBody());
+        assertTrue(body.contains("\"name\":\"Result 999\""), "Compressed body should hold the whole build.");
+        assertTrue(large.getBodySize() * 5 < body.length(), "Repetitive results should compress well.");
+    }
+
+    @Test
+    void fallsBackWhenServerRejectsGzip() {
+        acceptsGzip = false;
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(0))) {
+            assertTrue(client.submitAutomationBuild(newBuild(10), "project", "1").isSuccess(),
+                "Rejected compressed submit should be resent uncompressed.");
+            assertTrue(client.submitAutomationBuild(newBuild(10), "project", "1").isSuccess());
+        }
+
+        assertEquals(3, submits.size());
+        assertEquals("gzip", submits.get(0).getHeader("Content-Encoding"));
+        assertNull(submits.get(1).getHeader("Content-Encoding"));
+        assertNull(submits.get(2).getHeader("Content-Encoding"), "Server should be remembered as not supporting gzip.");
+    }
+
+    @Test
+    void honorsAdvertisedRequestEncodings() {
+        acceptEncoding = "identity";
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(0))) {
+            // The token response advertises the accepted encodings before the submit is made.
+            assertTrue(client.submitAutomationBuild(newBuild(10), "project", "1").isSuccess());
+        }
+
+        assertEquals(1, submits.size());
+        assertNull(submits.get(0).getHeader("Content-Encoding"));
+    }
+
+    private static AutomationBuild newBuild(final int resultCount) {
+        var build = MockRestAPI.newBuild("1", resultCount);
+        for (var result : build.getResults()) {
+            result.setErrorMessage("Expected the widget to be visible, but it was hidden.");
+        }
+        return build;
+    }
+
+    private static String gunzip(final Buffer compressed) throws IOException {
+        var decompressed = new Buffer();
+        try (var source = new GzipSource(compressed)) {
+            while (source.read(decompressed, 8192) != -1) {
+                // Read until exhausted.
+            }
+        }
+        return decompressed.readUtf8();
+    }
+
+    private static ClientOptions getOptions(final long threshold) {
+        var options = new ClientOptions();
+        options.setRequestCompressionThreshold(threshold);
+        return options;
+    }
+}
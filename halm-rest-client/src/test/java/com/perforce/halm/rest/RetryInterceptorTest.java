@@ -0,0 +1,255 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryInterceptorTest {
+    private static final String SUBMIT_BUILD = "POST /helix-alm/api/v0/{projectID}/automationSuites/{suiteID}/submitBuild";
+    private static final String MENU_BODY = "{\"name\":\"Menu\",\"id\":1}";
+
+    private final Queue<MockResponse> scripted = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger apiRequests = new AtomicInteger();
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> {
+            apiRequests.incrementAndGet();
+            MockResponse next = scripted.poll();
+            return next != null ? next : new MockResponse().setBody(MENU_BODY);
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void retriesUnavailableServer() {
+        scripted.add(new MockResponse().setResponseCode(503));
+        scripted.add(new MockResponse().setResponseCode(503));
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(new RetryPolicy()))) {
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Menu request should have been retried.");
+        }
+        assertEquals(3, apiRequests.get(), "Expected two retries.");
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        for (int i = 0; i < 5; i++) {
+            scripted.add(new MockResponse().setResponseCode(503));
+        }
+
+        var policy = new RetryPolicy();
+        policy.setMaxAttempts(2);
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(policy))) {
+            var response = client.getMenu("project", "1");
+            assertTrue(response.isError(), "Menu request should have failed.");
+            assertEquals(503, response.getStatusCode());
+        }
+        assertEquals(2, apiRequests.get(), "Expected a single retry.");
+    }
+
+    @Test
+    void honorsRetryAfter() {
+        scripted.add(new MockResponse().setResponseCode(429).addHeader("Retry-After", "1"));
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(new RetryPolicy()))) {
+            long start = System.nanoTime();
+            assertTrue(client.submitAutomationBuild(new AutomationBuild(), "project", "1").isSuccess(),
+                "Rate limited submit should have been retried.");
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1000,
+                "Retry should have waited for the Retry-After delay.");
+        }
+        assertEquals(2, apiRequests.get());
+    }
+
+    @Test
+    void doesNotRetryRetryAfterBeyondLimit() {
+        scripted.add(new MockResponse().setResponseCode(503).addHeader("Retry-After", "3600"));
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(new RetryPolicy()))) {
+            assertEquals(503, client.getMenu("project", "1").getStatusCode());
+        }
+        assertEquals(1, apiRequests.get());
+    }
+
+    @Test
+    void retriesIdempotentEndpointsOnly() {
+        var policy = new RetryPolicy();
+        scripted.add(new MockResponse().setResponseCode(502));
+        scripted.add(new MockResponse().setResponseCode(502));
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(policy))) {
+            assertTrue(client.submitAutomationBuild(new AutomationBuild(), "project", "1").isError(),
+                "Submitting a build is not idempotent and should not have been retried.");
+            assertEquals(1, apiRequests.get());
+
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Menu request should have been retried.");
+            assertEquals(3, apiRequests.get());
+        }
+
+        policy.setIdempotent(SUBMIT_BUILD, true);
+        scripted.add(new MockResponse().setResponseCode(502));
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(policy))) {
+            assertTrue(client.submitAutomationBuild(new AutomationBuild(), "project", "1").isSuccess(),
+                "Submit marked idempotent should have been retried.");
+        }
+        assertEquals(5, apiRequests.get());
+    }
+
+    @Test
+    void retriesDroppedConnectionForIdempotentRequest() {
+        scripted.add(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(new RetryPolicy()))) {
+            assertTrue(client.getMenu("project", "1").isSuccess(), "Menu request should have been retried.");
+        }
+    }
+
+    @Test
+    void budgetStopsRetryStorms() {
+        var policy = new RetryPolicy();
+        policy.setRetryBudget(new RetryBudget(4, 0.1));
+        for (int i = 0; i < 20; i++) {
+            scripted.add(new MockResponse().setResponseCode(503));
+        }
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(policy))) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(client.getMenu("project", "1").isError());
+            }
+        }
+
+        // Only the first failure is within budget, every later request is only attempted once.
+        assertEquals(6, apiRequests.get(), "Retries should stop once the budget is exhausted.");
+    }
+
+    @Test
+    void defaultBudgetIsSharedByServerClients() {
+        for (int i = 0; i < 20; i++) {
+            scripted.add(new MockResponse().setResponseCode(503));
+        }
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(new RetryPolicy()))) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(client.getMenu("project", "1").isError());
+            }
+        }
+
+        int requestsBefore = apiRequests.get();
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions(new RetryPolicy()))) {
+            assertTrue(client.getMenu("project", "1").isError());
+        }
+        assertEquals(requestsBefore + 1, apiRequests.get(), "A new client should not get a fresh retry budget.");
+    }
+
+    @Test
+    void doesNotRetryPermanentErrors() {
+        var policy = new RetryPolicy();
+        var request = new Request.Builder().url(server.url("/helix-alm/api/v0/project/automationSuites")).build();
+
+        assertTrue(policy.isRetryable(request, new IOException("unexpected end of stream")));
+        assertTrue(policy.isRetryable(request, new SocketTimeoutException()));
+        assertFalse(policy.isRetryable(request, new SSLHandshakeException("PKIX path building failed")));
+        assertFalse(policy.isRetryable(request, new UnknownHostException("halm.example.com")));
+        assertFalse(policy.isRetryable(request, new InterruptedIOException()));
+    }
+
+    @Test
+    void stopsRetryingCanceledCall() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            scripted.add(new MockResponse().setResponseCode(503));
+        }
+
+        var policy = new RetryPolicy();
+        policy.setBaseDelay(Duration.ofMillis(200));
+        policy.setMaxDelay(Duration.ofMillis(200));
+        var attempts = new AtomicInteger();
+        var httpClient = new OkHttpClient.Builder()
+            .addInterceptor(new RetryInterceptor(policy, new RetryBudget()))
+            .addInterceptor(chain -> {
+                attempts.incrementAndGet();
+                return chain.proceed(chain.request());
+            })
+            .build();
+
+        var call = httpClient.newCall(new Request.Builder()
+            .url(server.url("/helix-alm/api/v0/project/automationSuites")).build());
+        var result = new CompletableFuture<Object>();
+        var thread = new Thread(() -> {
+            try (var response = call.execute()) {
+                result.complete(response.code());
+            }
+            catch (IOException ex) {
+                result.complete(ex);
+            }
+        });
+        thread.start();
+
+        // Cancel while the interceptor waits to retry the first 503.
+        assertNotNull(server.takeRequest(10, TimeUnit.SECONDS));
+        call.cancel();
+        assertInstanceOf(IOException.class, result.get(10, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get(), "A canceled call should not be attempted again.");
+    }
+
+    private static ClientOptions getOptions(final RetryPolicy policy) {
+        policy.setBaseDelay(Duration.ofMillis(1));
+        policy.setMaxDelay(Duration.ofMillis(20));
+        var options = new ClientOptions();
+        options.setRetryPolicy(policy);
+        return options;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingRequestBodyTest {
+    private final List<RecordedRequest> submits = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failSubmits = new AtomicInteger();
+    private MockWebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(MockRestAPI.dispatcher(request -> {
+            submits.add(request);
+            if (failSubmits.getAndDecrement() > 0) {
+                return new MockResponse().setResponseCode(400)
+                    .setBody("{\"message\":\"Suite not found\",\"statusCode\":400,\"code\":\"BadRequest\"}");
+            }
+            return new MockResponse().setBody("{\"id\":7,\"number\":\"42\"}");
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void streamsSameJsonAsFeign() throws Exception {
+        var build = newBuild();
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), new ClientOptions())) {
+            assertTrue(client.submitAutomationBuild(build, "project", "1").isSuccess());
+        }
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions())) {
+            var response = client.submitAutomationBuild(build, "project", "1");
+            assertTrue(response.isSuccess());
+            assertEquals("42", response.getNumber());
+            assertTrue(client.submitAutomationBuildAsync(build, "project", "1").get().isSuccess());
+        }
+
+        assertEquals(3, submits.size());
+        var feignBody = submits.get(0).getBody().readUtf8();
+        var streamedBody = submits.get(1).getBody().readUtf8();
+        assertEquals(feignBody, streamedBody, "Streamed body should match the Feign encoded body.");
+        assertEquals(feignBody, submits.get(2).getBody().readUtf8());
+
+        var streamed = submits.get(1);
+        assertEquals("chunked", streamed.getHeader("Transfer-Encoding"), "Streamed body should be sent chunked.");
+        assertEquals("/helix-alm/api/v0/project/automationSuites/1/submitBuild", streamed.getPath());
+        assertEquals("Bearer abc", streamed.getHeader("Authorization"));
+        assertEquals("application/json", streamed.getHeader("Content-Type"));
+    }
+
+    @Test
+    void reportsErrorsLikeFeign() throws Exception {
+        failSubmits.set(2);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), getOptions())) {
+            var response = client.submitAutomationBuild(newBuild(), "project", "1");
+            assertTrue(response.isError());
+            assertEquals(400, response.getStatusCode());
+            assertEquals("Suite not found", response.getErrorMessage());
+            assertEquals("BadRequest", response.getErrorResponse().getCode());
+
+            var asyncResponse = client.submitAutomationBuildAsync(newBuild(), "project", "1").get();
+            assertEquals(400, asyncResponse.getStatusCode());
+            assertEquals("Suite not found", asyncResponse.getErrorMessage());
+        }
+    }
+
+    @Test
+    void reportsConnectionFailures() {
+        var options = getOptions();
+        options.setRetryPolicy(null);
+
+        try (var client = new Client(MockRestAPI.connectionInfo(server), options)) {
+            client.getAuthToken("project");
+            server.shutdown();
+
+            var response = client.submitAutomationBuild(newBuild(), "project", "1");
+            assertTrue(response.isError());
+            assertEquals(-1, response.getStatusCode());
+            assertNotNull(response.getErrorMessage());
+        }
+        catch (Exception ex) {
+            fail(ex);
+        }
+    }
+
+    private static AutomationBuild newBuild() {
+        var build = MockRestAPI.newBuild("42", 100);
+        build.setDescription("Quotes \" and <html> & unicode \u00e9 \uD83D\uDE00");
+        build.addProperty(new NameValuePair("Commit", "abc123"));
+        for (var result : build.getResults()) {
+            result.setTags(Arrays.asList("smoke", "ui"));
+        }
+        return build;
+    }
+
+    private static ClientOptions getOptions() {
+        var options = new ClientOptions();
+        options.setStreamRequestBodies(true);
+        return options;
+    }
+}
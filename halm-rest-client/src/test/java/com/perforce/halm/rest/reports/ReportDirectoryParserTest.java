@@ -0,0 +1,85 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.reports;
+
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportDirectoryParserTest {
+    private static final Path RESOURCE_DIR = Paths.get("src/test/resources/exampleReports");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mergesReportsInStableOrder() throws IOException {
+        Files.createDirectories(directory.resolve("shard-2"));
+        Files.createDirectories(directory.resolve("shard-1"));
+        for (int i = 0; i < 20; i++) {
+            var shard = directory.resolve(i % 2 == 0 ? "shard-1" : "shard-2");
+            Files.copy(RESOURCE_DIR.resolve("junit.xml"), shard.resolve(String.format("TEST-%02d.xml", i)));
+        }
+        Files.copy(RESOURCE_DIR.resolve("testng.xml"), directory.resolve("testng-results.xml"));
+        Files.copy(RESOURCE_DIR.resolve("nunit3.xml"), directory.resolve("nunit.xml"));
+        Files.write(directory.resolve("pom.xml"), "<project/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("notes.txt"), "Not a report".getBytes(StandardCharsets.UTF_8));
+
+        var sequential = new ReportDirectoryParser(1).parse(directory).getResults();
+        var parallel = new ReportDirectoryParser(4).parse(directory).getResults();
+
+        assertEquals(20 * 4 + 3 + 3, parallel.size());
+        assertEquals(names(sequential), names(parallel), "Parallel results should be in the same order.");
+        assertEquals("Example.Tests.CalculatorTests.Add", parallel.get(0).getUniqueName(), "Reports should be sorted by path.");
+        assertEquals("com.example.LoginTest.validLogin", parallel.get(3).getUniqueName());
+        assertEquals("com.example.CheckoutTest.ship", parallel.get(parallel.size() - 1).getUniqueName());
+    }
+
+    @Test
+    void reportsInvalidReport() throws IOException {
+        Files.copy(RESOURCE_DIR.resolve("junit.xml"), directory.resolve("a.xml"));
+        Files.write(directory.resolve("b.xml"), "<testsuite><testcase>".getBytes(StandardCharsets.UTF_8));
+
+        var ex = assertThrows(IOException.class, () -> new ReportDirectoryParser(2).parse(directory));
+        assertTrue(ex.getMessage().contains("b.xml"), "Error should name the report.");
+        assertThrows(IllegalArgumentException.class, () -> new ReportDirectoryParser(0));
+    }
+
+    private static String names(List<AutomationResult> results) {
+        return results.stream().map(AutomationResult::getUniqueName).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.reports;
+
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.AutomationResultStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestReportParserTest {
+    private static final String RESOURCE_DIR = "src/test/resources/exampleReports";
+
+    @Test
+    void parsesJUnit() throws IOException {
+        var results = parse("junit.xml", ReportFormat.JUNIT);
+
+        assertEquals(4, results.size());
+        assertResult(results.get(0), "validLogin", "com.example.LoginTest.validLogin", AutomationResultStatus.PASSED, 250.0, null);
+        assertResult(results.get(1), "wrongPassword", "com.example.LoginTest.wrongPassword", AutomationResultStatus.FAILED, 1234000.0,
+            "expected: <401> but was: <200>");
+        assertResult(results.get(2), "timeout", "com.example.LoginTest.timeout", AutomationResultStatus.FAILED, 500.0,
+            "java.net.SocketTimeoutException: Read timed out");
+        assertResult(results.get(3), "sso", "com.example.LoginTest.sso", AutomationResultStatus.SKIPPED, 0.0, "SSO not configured");
+    }
+
+    @Test
+    void parsesTestNG() throws IOException {
+        var results = parse("testng.xml", ReportFormat.TESTNG);
+
+        assertEquals(3, results.size(), "Configuration methods should be skipped.");
+        assertResult(results.get(0), "addToCart", "com.example.CheckoutTest.addToCart", AutomationResultStatus.PASSED, 1250.0, null);
+        assertResult(results.get(1), "pay", "com.example.CheckoutTest.pay", AutomationResultStatus.FAILED, 250.0, "Payment declined");
+        assertResult(results.get(2), "ship", "com.example.CheckoutTest.ship", AutomationResultStatus.SKIPPED, 0.0, null);
+    }
+
+    @Test
+    void parsesNUnit() throws IOException {
+        var results = parse("nunit3.xml", ReportFormat.NUNIT);
+
+        assertEquals(3, results.size());
+        assertResult(results.get(0), "Add", "Example.Tests.CalculatorTests.Add", AutomationResultStatus.PASSED, 12.0, null);
+        assertResult(results.get(1), "Divide", "Example.Tests.CalculatorTests.Divide", AutomationResultStatus.FAILED, 34.0,
+            "Expected: 2\n  But was:  0");
+        assertResult(results.get(2), "Sqrt", "Example.Tests.CalculatorTests.Sqrt", AutomationResultStatus.SKIPPED, null, "Not implemented");
+
+        results = parse("nunit2.xml", ReportFormat.NUNIT);
+        assertEquals(2, results.size());
+        assertResult(results.get(1), "Example.Tests.StackTests.Pop", "Example.Tests.StackTests.Pop", AutomationResultStatus.FAILED, 10.0,
+            "Stack was empty");
+    }
+
+    @Test
+    void rejectsUnknownAndUnsafeReports() {
+        assertThrows(IOException.class, () -> parse("<html><body/></html>"));
+        assertThrows(IOException.class, () -> parse("<testsuite><testcase name=\"a\">"));
+        assertThrows(IOException.class, () -> parse("<?xml version=\"1.0\"?><!DOCTYPE testsuite [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+            "<testsuite><testcase name=\"&xxe;\"/></testsuite>"));
+    }
+
+    private static List<AutomationResult> parse(String filename, ReportFormat expectedFormat) throws IOException {
+        var results = new ArrayList<AutomationResult>();
+        assertEquals(expectedFormat, TestReportParser.parse(Paths.get(RESOURCE_DIR, filename), results::add));
+        return results;
+    }
+
+    private static void parse(String xml) throws IOException {
+        TestReportParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), result -> {});
+    }
+
+    private static void assertResult(AutomationResult result, String name, String uniqueName, AutomationResultStatus status,
+                                     Double duration, String errorMessage) {
+        assertEquals(name, result.getName());
+        assertEquals(uniqueName, result.getUniqueName());
+        assertEquals(status.id(), result.getStatus().getId());
+        assertEquals(duration, result.getDuration());
+        assertEquals(errorMessage, result.getErrorMessage());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.AutomationResultStatus;
+import com.perforce.halm.rest.types.automation.build.AutomationResultTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomationResultTableTest {
+    @Test
+    void writesSameJsonAsGson() throws IOException {
+        var results = newResults(3000);
+        var table = new AutomationResultTable(16);
+        table.addAll(results);
+
+        for (var gson : List.of(new Gson(), new GsonBuilder().serializeNulls().create())) {
+            var json = new StringWriter();
+            table.writeJson(gson.newJsonWriter(json));
+            assertEquals(gson.toJson(results), json.toString());
+        }
+    }
+
+    @Test
+    void materializesRows() {
+        var results = newResults(100);
+        var table = new AutomationResultTable();
+        table.addAll(results);
+
+        var gson = new Gson();
+        assertEquals(100, table.size());
+        assertEquals(gson.toJson(results), gson.toJson(table.asList()));
+        assertEquals("Test 7", table.getName(7));
+        assertEquals(AutomationResultStatus.FAILED.id(), table.getStatusID(7));
+        assertTrue(Double.isNaN(table.getDuration(3)));
+        assertEquals(5L, table.get(5).getDuration());
+
+        table.get(1).getTags().add("changed");
+        assertEquals(results.get(1).getTags(), table.get(1).getTags(), "Materialized rows should be copies.");
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(100));
+    }
+
+    @Test
+    void keepsDurationsExact() throws IOException {
+        var gson = new Gson();
+        var results = new ArrayList<AutomationResult>();
+        for (var duration : new Number[] {Long.MAX_VALUE - 1, 1500, 1500.0, 0.1f, 1.5f, new BigDecimal("2.50"),
+                                          new BigInteger("123456789012345678901234567890")}) {
+            var result = new AutomationResult();
+            result.setDuration(duration);
+            results.add(result);
+        }
+        // Gson reads numbers lazily, keeping their text.
+        for (var json : new String[] {"1500", "1500.5", "1500.50", "9007199254740993", "1e3"}) {
+            results.add(gson.fromJson("{\"duration\":" + json + "}", AutomationResult.class));
+        }
+
+        var table = new AutomationResultTable();
+        table.addAll(results);
+        var json = new StringWriter();
+        table.writeJson(gson.newJsonWriter(json));
+        assertEquals(gson.toJson(results), json.toString());
+        assertEquals(gson.toJson(results), gson.toJson(table.asList()));
+
+        assertEquals(Long.MAX_VALUE - 1, table.get(0).getDuration());
+        assertEquals(1500.0, table.getDuration(1));
+        assertEquals(new BigDecimal("2.50"), table.get(5).getDuration());
+        assertEquals(9007199254740993L, table.get(10).getDuration());
+        assertEquals(1000.0, table.getDuration(11));
+    }
+
+    @Test
+    void reducesFootprint() {
+        var results = newResults(100_000);
+
+        // Names, unique names and dates are unique per row, and cost the same either way.
+        FootprintAssertions.assertFootprintBelow(results, () -> {
+            var table = new AutomationResultTable();
+            table.addAll(results);
+            return table;
+        }, 2.0 / 3, "Columns should take at least a third less memory.");
+    }
+
+    private static List<AutomationResult> newResults(int count) {
+        var results = new ArrayList<AutomationResult>(count);
+        for (int i = 0; i < count; i++) {
+            var result = new AutomationResult();
+            result.setName("Test " + i);
+            result.setUniqueName("com.example.Test" + (i / 50) + ".test" + i);
+            var status = i % 7 == 0 ? AutomationResultStatus.FAILED : AutomationResultStatus.PASSED;
+            result.setStatus(new IDLabelPair(status.id(), status == AutomationResultStatus.FAILED ? "Failed" : "Passed"));
+            result.setTags(new ArrayList<>(i % 2 == 0 ? Arrays.asList("ui", "smoke") : List.of()));
+            result.setOS(new String(i % 3 == 0 ? "Windows" : "Linux"));
+            result.setOSVersion(new String("10.0"));
+            result.setBrowser(new String(i % 4 == 0 ? "Chrome" : "Firefox"));
+            result.setBrowserVersion(new String("120.0"));
+            if (i % 5 != 0) {
+                result.setDevice(new String("Desktop"));
+            }
+            result.setStartDate("2024-01-01T00:00:" + String.format("%02d", i % 60) + "Z");
+            if (i % 3 != 0) {
+                result.setDuration(i % 5 == 0 ? (Number) i : (Number) (i / 100.0));
+            }
+            if (status == AutomationResultStatus.FAILED) {
+                result.setErrorMessage("expected <true> but was \"false\" \u00e9");
+            }
+            if (i % 11 == 0) {
+                result.addProperty(new NameValuePair("Seed", Integer.toString(i)));
+            }
+            results.add(result);
+        }
+        return results;
+    }
+}
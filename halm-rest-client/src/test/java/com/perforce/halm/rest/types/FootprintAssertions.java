@@ -0,0 +1,60 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the memory taken by object graphs, measured with JOL.
+ */
+final class FootprintAssertions {
+    /**
+     * Constructor, private due to static class
+     */
+    private FootprintAssertions() {}
+
+    /**
+     * Asserts that a more compact representation of some data takes less than a fraction of the original's memory.
+     * Both sizes are part of the failure message.
+     *
+     * @param original The data in its original representation
+     * @param compact Creates the compact representation, once the original has been measured
+     * @param maxRatio Fraction of the original's size the compact representation must stay below
+     * @param message Describes the expected saving
+     */
+    static void assertFootprintBelow(final Object original, final Supplier<?> compact, final double maxRatio,
+                                     final String message) {
+        long before = GraphLayout.parseInstance(original).totalSize();
+        long after = GraphLayout.parseInstance(compact.get()).totalSize();
+        assertTrue(after < before * maxRatio, () -> String.format("%s Took %,d bytes, compacted to %,d bytes.",
+            message, before, after));
+    }
+}
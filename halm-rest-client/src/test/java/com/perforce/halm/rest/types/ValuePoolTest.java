@@ -0,0 +1,111 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.ValuePool;
+import com.perforce.halm.rest.types.deserializers.InterningTypeAdapterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValuePoolTest {
+    private static final String[] OS = {"Windows", "macOS", "Linux"};
+    private static final String[] BROWSERS = {"Chrome", "Firefox", "Edge", "Safari"};
+
+    @Test
+    void sharesRepeatedValues() {
+        var pool = new ValuePool();
+        var first = pool.intern(newResult(0));
+        var second = pool.intern(newResult(12));
+
+        assertNotSame(newResult(0).getOS(), newResult(12).getOS());
+        assertSame(first.getOS(), second.getOS());
+        assertSame(first.getBrowserVersion(), second.getBrowserVersion());
+        assertSame(first.getTags(), second.getTags());
+        assertThrows(UnsupportedOperationException.class, () -> first.getTags().add("new"));
+    }
+
+    @Test
+    void stopsGrowingAtMaxSize() {
+        var pool = new ValuePool(2);
+        assertSame(pool.intern(new String("a")), pool.intern(new String("a")));
+        pool.intern("b");
+
+        var unpooled = new String("c");
+        assertSame(unpooled, pool.intern(unpooled));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void internsDeserializedResults() {
+        var gson = new GsonBuilder().registerTypeAdapterFactory(new InterningTypeAdapterFactory(new ValuePool())).create();
+        List<AutomationResult> results = gson.fromJson(
+            "[{\"name\":\"a\",\"os\":\"Linux\",\"tags\":[\"ui\"]},{\"name\":\"b\",\"os\":\"Linux\",\"tags\":[\"ui\"]}]",
+            new TypeToken<List<AutomationResult>>() {}.getType());
+
+        assertSame(results.get(0).getOS(), results.get(1).getOS());
+        assertSame(results.get(0).getTags(), results.get(1).getTags());
+    }
+
+    @Test
+    void reducesFootprint() {
+        var results = new ArrayList<AutomationResult>();
+        for (int i = 0; i < 100_000; i++) {
+            results.add(newResult(i));
+        }
+
+        var pool = new ValuePool();
+        FootprintAssertions.assertFootprintBelow(results, () -> {
+            results.forEach(pool::intern);
+            return results;
+        }, 0.5, "Interning should at least halve the footprint.");
+    }
+
+    /**
+     * A result with its own copy of every attribute value, the way a parser creates them.
+     */
+    private static AutomationResult newResult(int i) {
+        var result = new AutomationResult();
+        result.setName("Test " + i);
+        result.setOS(new String(OS[i % OS.length]));
+        result.setOSVersion(new String("10.0." + (i % 2)));
+        result.setBrowser(new String(BROWSERS[i % BROWSERS.length]));
+        result.setBrowserVersion(new String("120.0"));
+        result.setDevice(new String("Desktop"));
+        result.setManufacturer(new String("Dell"));
+        result.setModel(new String("XPS 15"));
+        result.setTags(new ArrayList<>(Arrays.asList(new String("ui"), new String(i % 2 == 0 ? "smoke" : "regression"))));
+        return result;
+    }
+}
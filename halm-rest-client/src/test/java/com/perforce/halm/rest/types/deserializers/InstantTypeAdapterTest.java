@@ -0,0 +1,117 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstantTypeAdapterTest {
+    // 0000-01-01T00:00:00Z and 9999-12-31T23:59:59Z, the years formatted by hand
+    private static final long MIN_SECOND = -62167219200L;
+    private static final long MAX_SECOND = 253402300799L;
+
+    @Property
+    void formatsLikeToString(@ForAll("instants") Instant instant) {
+        String text = InstantTypeAdapter.format(instant);
+        assertEquals(instant.toString(), text);
+        assertEquals(instant, InstantTypeAdapter.parse(text));
+    }
+
+    @Property
+    void parsesLikeInstantParse(@ForAll("timestamps") String text) {
+        Instant expected;
+        try {
+            expected = Instant.parse(text);
+        }
+        catch (DateTimeParseException ex) {
+            assertThrows(DateTimeParseException.class, () -> InstantTypeAdapter.parse(text));
+            return;
+        }
+        assertEquals(expected, InstantTypeAdapter.parse(text));
+    }
+
+    @Example
+    void readsAndWritesJson() {
+        Gson gson = new GsonBuilder().registerTypeAdapter(Instant.class, new InstantTypeAdapter()).create();
+        Instant instant = Instant.parse("2022-02-24T21:55:27.120Z");
+
+        assertEquals("\"2022-02-24T21:55:27.120Z\"", gson.toJson(instant));
+        assertEquals(instant, gson.fromJson("\"2022-02-24T21:55:27.120Z\"", Instant.class));
+        assertEquals("null", gson.toJson(null, Instant.class));
+        assertNull(gson.fromJson("null", Instant.class));
+        assertThrows(JsonSyntaxException.class, () -> gson.fromJson("\"2022-02-30T00:00:00Z\"", Instant.class));
+    }
+
+    @Provide
+    Arbitrary<Instant> instants() {
+        Arbitrary<Long> seconds = Arbitraries.frequencyOf(
+            Tuple.of(8, Arbitraries.longs().between(MIN_SECOND, MAX_SECOND)),
+            Tuple.of(1, Arbitraries.longs().between(Instant.MIN.getEpochSecond(), MIN_SECOND - 1)),
+            Tuple.of(1, Arbitraries.longs().between(MAX_SECOND + 1, Instant.MAX.getEpochSecond())));
+        Arbitrary<Integer> nanos = Arbitraries.oneOf(
+            Arbitraries.just(0),
+            Arbitraries.integers().between(0, 999).map(millis -> millis * 1_000_000),
+            Arbitraries.integers().between(0, 999_999).map(micros -> micros * 1000),
+            Arbitraries.integers().between(0, 999_999_999));
+        return Combinators.combine(seconds, nanos).as(Instant::ofEpochSecond);
+    }
+
+    @Provide
+    Arbitrary<String> timestamps() {
+        // Mostly the fast path shapes, with out of range fields and a few other shapes for the fallback.
+        Arbitrary<String> date = Combinators.combine(
+            Arbitraries.integers().between(0, 9999),
+            Arbitraries.integers().between(0, 13),
+            Arbitraries.integers().between(0, 32)).as((year, month, day) -> String.format("%04d-%02d-%02d", year, month, day));
+        Arbitrary<String> time = Combinators.combine(
+            Arbitraries.integers().between(0, 24),
+            Arbitraries.integers().between(0, 60),
+            Arbitraries.integers().between(0, 60)).as((hour, minute, second) -> String.format("%02d:%02d:%02d", hour, minute, second));
+        Arbitrary<String> fraction = Arbitraries.oneOf(
+            Arbitraries.just(""),
+            Arbitraries.strings().numeric().ofLength(3).map(digits -> "." + digits),
+            Arbitraries.strings().numeric().ofMinLength(1).ofMaxLength(10).map(digits -> "." + digits),
+            Arbitraries.of(".12a", ",123", "."));
+        Arbitrary<String> separator = Arbitraries.of("T", "T", "T", "t", " ");
+        Arbitrary<String> zone = Arbitraries.of("Z", "Z", "Z", "z", "+00:00", "");
+        return Combinators.combine(date, separator, time, fraction, zone).as((d, s, t, f, z) -> d + s + t + f + z);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest.types.deserializers;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.perforce.halm.rest.CodecRegistry;
+import com.perforce.halm.rest.GeneratedTypeAdapterFactory;
+import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfiguration;
+import com.perforce.halm.rest.types.automation.build.AutomationBuildRunConfigurationMarshaller;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationBuildRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationSuiteRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameter;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterIgnore;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterMarshaller;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterPassword;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterText;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfiguration;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfigurationMarshaller;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolymorphicTypeAdapterFactoryTest {
+    private static final Gson gson = CodecRegistry.getDefault().getGson();
+
+    // Same adapters for everything else, so only the polymorphic types differ.
+    @SuppressWarnings("deprecation")
+    private static final Gson marshallers = new GsonBuilder()
+        .registerTypeAdapterFactory(new GeneratedTypeAdapterFactory())
+        .registerTypeAdapter(Instant.class, new InstantTypeAdapter())
+        .registerTypeAdapter(AutomationSuiteRunConfiguration.class, new AutomationSuiteRunConfigurationMarshaller())
+        .registerTypeAdapter(AutomationBuildRunConfiguration.class, new AutomationBuildRunConfigurationMarshaller())
+        .registerTypeAdapter(JenkinsBuildParameter.class, new JenkinsBuildParameterMarshaller())
+        .create();
+
+    // The discriminator before, between and after the other properties, with values of every kind.
+    private static final String RUN_CONFIGURATION = "{\"automatedTestConfig\":{\"id\":1.0,\"name\":\"Jenkins\"},"
+        + "\"unknown\":[true,null,{\"a\":[1.5,-2]}],"
+        + "\"jenkins\":{\"defaultBuildParameters\":["
+        + "{\"type\":\"text\",\"name\":\"branch\",\"text\":\"main\"},"
+        + "{\"name\":\"secret\",\"type\":\"password\",\"password\":\"p\\u00e9\"},"
+        + "{\"name\":\"skipped\",\"type\":\"ignore\"}],"
+        + "\"projectName\":\"HelixALM_RESTAPI\",\"remoteAuthenticationToken\":null},"
+        + "\"type\":\"jenkins\"}";
+
+    @Test
+    void readsSameAsMarshallers() throws IOException {
+        var json = FileUtils.readFileToString(new File("src/test/resources/exampleJson/automationSuites.json"),
+            StandardCharsets.UTF_8);
+        var suite = gson.fromJson(json, AutomationSuitesContainer.class).getAutomationSuitesData().get(0);
+        var expected = marshallers.fromJson(json, AutomationSuitesContainer.class).getAutomationSuitesData().get(0);
+        assertEquals(marshallers.toJson(expected.getRunConfiguration(), AutomationSuiteRunConfiguration.class),
+            gson.toJson(suite.getRunConfiguration(), AutomationSuiteRunConfiguration.class));
+
+        var configuration = gson.fromJson(RUN_CONFIGURATION, AutomationSuiteRunConfiguration.class);
+        var parameters = ((AutomationSuiteRunConfigurationJenkins) configuration).getJenkins().getDefaultBuildParameters();
+        assertEquals("main", ((JenkinsBuildParameterText) parameters.get(0)).getText());
+        assertEquals("p\u00e9", ((JenkinsBuildParameterPassword) parameters.get(1)).getPassword());
+        assertInstanceOf(JenkinsBuildParameterIgnore.class, parameters.get(2));
+        assertEquals(marshallers.toJson(marshallers.fromJson(RUN_CONFIGURATION, AutomationSuiteRunConfiguration.class),
+            AutomationSuiteRunConfiguration.class), gson.toJson(configuration, AutomationSuiteRunConfiguration.class));
+    }
+
+    @Test
+    void streamsWhenDiscriminatorIsFirst() {
+        assertInstanceOf(PartialObjectReader.class, gson.getAdapter(AutomationSuiteRunConfigurationJenkins.class));
+
+        var json = "{\"type\":\"jenkins\",\"jenkins\":{\"defaultBuildParameters\":["
+            + "{\"type\":\"text\",\"text\":\"main\",\"name\":\"branch\"},"
+            + "{\"type\":\"password\",\"unknown\":[1,{}],\"password\":null,\"name\":\"secret\"}],"
+            + "\"projectName\":\"HelixALM_RESTAPI\"},\"automatedTestConfig\":{\"id\":1.0,\"name\":\"Jenkins\"}}";
+        var configuration = gson.fromJson(json, AutomationSuiteRunConfiguration.class);
+        assertEquals(marshallers.toJson(marshallers.fromJson(json, AutomationSuiteRunConfiguration.class),
+            AutomationSuiteRunConfiguration.class), gson.toJson(configuration, AutomationSuiteRunConfiguration.class));
+
+        var ex = assertThrows(JsonParseException.class,
+            () -> gson.fromJson("{\"type\":\"unknown\",\"jenkins\":{}}", AutomationSuiteRunConfiguration.class));
+        assertTrue(ex.getMessage().contains("'unknown'"), ex.getMessage());
+        ex = assertThrows(JsonParseException.class,
+            () -> gson.fromJson("{\"type\":1,\"jenkins\":{}}", AutomationSuiteRunConfiguration.class));
+        assertTrue(ex.getMessage().contains("string"), ex.getMessage());
+        assertThrows(JsonParseException.class, () -> gson.fromJson("[]", AutomationSuiteRunConfiguration.class));
+    }
+
+    @Test
+    void writesSameAsMarshallers() {
+        var parameter = new JenkinsBuildParameterText();
+        parameter.setName("branch");
+        parameter.setText("main");
+        var configuration = new AutomationBuildRunConfigurationJenkins();
+        configuration.getJenkins().addBuildParameter(parameter);
+
+        assertEquals(marshallers.toJson(configuration, AutomationBuildRunConfiguration.class),
+            gson.toJson(configuration, AutomationBuildRunConfiguration.class));
+        assertEquals("null", gson.toJson(null, AutomationBuildRunConfiguration.class));
+    }
+
+    @Test
+    void registersPlatforms() {
+        var registry = CodecRegistry.builder()
+            .registerTypeAdapterFactory(AutomationTypeAdapters.suiteRunConfigurations()
+                .withSubtype(OtherRunConfiguration.class, OtherRunConfiguration.TYPE_VALUE))
+            .build();
+
+        var other = registry.getGson().fromJson("{\"url\":\"https://ci.example.com\",\"type\":\"other\"}",
+            AutomationSuiteRunConfiguration.class);
+        assertEquals("https://ci.example.com", ((OtherRunConfiguration) other).url);
+        assertInstanceOf(AutomationSuiteRunConfigurationJenkins.class,
+            registry.getGson().fromJson(RUN_CONFIGURATION, AutomationSuiteRunConfiguration.class));
+
+        // The default registry doesn't know the platform.
+        var ex = assertThrows(JsonParseException.class,
+            () -> gson.fromJson("{\"type\":\"other\"}", AutomationSuiteRunConfiguration.class));
+        assertTrue(ex.getMessage().contains("'other'"), ex.getMessage());
+        assertThrows(JsonParseException.class,
+            () -> gson.fromJson("{\"url\":\"https://ci.example.com\"}", AutomationSuiteRunConfiguration.class));
+    }
+
+    @Test
+    void readsSubtypesWithMaps() {
+        var gson = CodecRegistry.builder()
+            .registerTypeAdapterFactory(AutomationTypeAdapters.suiteRunConfigurations()
+                .withSubtype(OtherRunConfiguration.class, OtherRunConfiguration.TYPE_VALUE))
+            .build()
+            .getGson();
+
+        for (var json : new String[] {"{\"type\":\"other\",\"settings\":{\"node\":\"linux\",\"jdk\":\"17\"}}",
+                                      "{\"settings\":{\"node\":\"linux\",\"jdk\":\"17\"},\"type\":\"other\"}"}) {
+            var other = (OtherRunConfiguration) gson.fromJson(json, AutomationSuiteRunConfiguration.class);
+            assertEquals(Map.of("node", "linux", "jdk", "17"), other.settings, json);
+        }
+    }
+
+    static class OtherRunConfiguration extends AutomationSuiteRunConfiguration {
+        static final String TYPE_VALUE = "other";
+
+        String url;
+        Map<String, String> settings;
+
+        OtherRunConfiguration() {
+            super(TYPE_VALUE);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.responses.ProjectListResponse;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningTest {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REQUEST_COUNT = 200;
+
+    @Test
+    void usesVirtualThreads() throws Exception {
+        var options = new ClientOptions();
+        options.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+
+        try (var client = new Client(new ConnectionInfo("http://localhost", "", ""), options)) {
+            assertTrue(client.getExecutor().submit(() -> Thread.currentThread().isVirtual()).get(),
+                "Client executor should run tasks on virtual threads.");
+        }
+    }
+
+    @Test
+    void callAPIHandleErrorsDoesNotPin() throws Exception {
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+
+        try (var server = new MockWebServer(); var recording = new RecordingStream()) {
+            // Delay every response, so the calling virtual threads have to park while waiting on the socket. Every
+            // other response is an error, so both the success and error handling paths are exercised.
+            var requestCount = new AtomicInteger();
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    var response = requestCount.incrementAndGet() % 2 == 0
+                        ? new MockResponse().setBody("{\"projects\":[],\"projectsLoading\":0}")
+                        : new MockResponse().setResponseCode(500).setBody("{\"message\":\"Server error\",\"statusCode\":500}");
+                    return response.setHeadersDelay(20, TimeUnit.MILLISECONDS);
+                }
+            });
+            server.start();
+
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, pinnedEvents::add);
+            recording.startAsync();
+
+            var options = new ClientOptions();
+            options.setExecutionMode(ExecutionMode.VIRTUAL_THREADS);
+            var connInfo = new ConnectionInfo(String.format("http://%s:%d", server.getHostName(), server.getPort()), "administrator", "");
+
+            try (var client = new Client(connInfo, options)) {
+                List<Future<ProjectListResponse>> futures = new ArrayList<>();
+                for (int i = 0; i < REQUEST_COUNT; i++) {
+                    futures.add(client.getExecutor().submit(client::getProjects));
+                }
+
+                int errorCount = 0;
+                for (var future : futures) {
+                    if (future.get().isError()) {
+                        errorCount++;
+                    }
+                }
+                assertEquals(REQUEST_COUNT / 2, errorCount, "Half of the requests should have been errors.");
+            }
+
+            recording.stop();
+        }
+
+        assertTrue(pinnedEvents.isEmpty(), "Virtual threads were pinned: " + pinnedEvents);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.build.AutomationResultStatus;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationBuildRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterIgnore;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterPassword;
+import com.perforce.halm.rest.types.automation.jenkins.JenkinsBuildParameterText;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * REST API payloads for testing and benchmarking JSON codecs, shaped like the ones the client sends and receives.
+ */
+public final class ConformanceData {
+    private static final String[] SUITES = {"LoginTests", "CheckoutTests", "SearchTests", "ProfileTests", "ReportTests"};
+    private static final String[] BROWSERS = {"Chrome", "Firefox", "Edge", "Safari"};
+
+    public static final String PROJECTS_JSON = "{\"projects\":["
+        + "{\"id\":7,\"name\":\"@REST API's Test Project DB!\",\"uuid\":\"{a07e5d12-c02e-430b-980f-b5ff9fd97c0b}\"},"
+        + "{\"id\":9,\"name\":\"Enhanced Compliance & E-Sigs\",\"uuid\":\"{d9bc55d9-e6e7-4b63-894f-b19ce23e667c}\"}],"
+        + "\"projectsLoading\":0}";
+
+    public static final String MENU_JSON = "{\"fields\":{\"fieldsData\":["
+        + "{\"id\":17,\"itemType\":\"testCases\",\"longName\":\"Test Case Status\"}]},"
+        + "\"id\":4,\"items\":{\"itemsData\":["
+        + "{\"fieldStyle\":{\"id\":1,\"name\":\"Default\"},\"id\":1,\"label\":\"Passed\"},"
+        + "{\"fieldStyle\":null,\"id\":2.0,\"label\":\"Failed <blocked>\"}]},"
+        + "\"name\":\"Automation Result Status\"}";
+
+    public static final String VERSIONS_JSON = "{\"HALMCommsLibrary\":\"2022.1.0\",\"HALMServer\":\"2022.1.0.0\","
+        + "\"RESTAPIServer\":\"<unknown>\",\"errors\":[{\"code\":\"notFound\",\"message\":\"Not found\",\"statusCode\":404}]}";
+
+    public static final String ERROR_JSON = "{\"code\":\"badRequest\",\"errorElementPath\":\"results[0].status\","
+        + "\"message\":\"The \\\"status\\\" is invalid.\",\"statusCode\":400}";
+
+    public static final String SUBMIT_BUILD_JSON = "{\"id\":12,\"number\":\"1234\",\"statusCode\":200}";
+
+    public static final String TOKEN_JSON = "{\"accessToken\":\"abc\",\"expiresOn\":\"2024-03-01T03:00:00Z\","
+        + "\"tokenType\":\"Bearer\"}";
+
+    /**
+     * Constructor, private due to static class
+     */
+    private ConformanceData() {}
+
+    /**
+     * Builds an automation build with results that look like a typical CI run, and a Jenkins run configuration. The
+     * same count always yields the same build.
+     *
+     * @param resultCount Number of results in the build
+     * @return The automation build
+     */
+    public static AutomationBuild newAutomationBuild(final int resultCount) {
+        Random random = new Random(resultCount);
+        AutomationBuild build = new AutomationBuild();
+        build.setNumber("1234");
+        build.setDescription("Nightly regression run");
+        build.setBranch("main");
+        build.setTestRunSet(new IDLabelPair(3, "Release 2024.1"));
+        build.setExternalURL("https://ci.example.com/job/nightly/1234?view=full&tab=tests");
+        build.setStartDateInstant(Instant.parse("2024-03-01T02:00:00Z"));
+        build.setDuration(3600);
+        build.addProperty(new NameValuePair("Commit", "3f2a9c1"));
+
+        JenkinsBuildParameterText branch = new JenkinsBuildParameterText();
+        branch.setName("BRANCH");
+        branch.setText("main");
+        JenkinsBuildParameterPassword token = new JenkinsBuildParameterPassword();
+        token.setName("TOKEN");
+        token.setPassword("s3cr3t");
+        JenkinsBuildParameterIgnore node = new JenkinsBuildParameterIgnore();
+        node.setName("NODE");
+        AutomationBuildRunConfigurationJenkins runConfiguration = new AutomationBuildRunConfigurationJenkins();
+        runConfiguration.getJenkins().addBuildParameter(branch);
+        runConfiguration.getJenkins().addBuildParameter(token);
+        runConfiguration.getJenkins().addBuildParameter(node);
+        build.setRunConfigurationInfo(runConfiguration);
+
+        for (int i = 0; i < resultCount; i++) {
+            String suite = SUITES[i % SUITES.length];
+            AutomationResultStatus status = random.nextInt(20) == 0 ? AutomationResultStatus.FAILED : AutomationResultStatus.PASSED;
+
+            AutomationResult result = new AutomationResult();
+            result.setName("test" + i);
+            result.setUniqueName("com.example." + suite + ".test" + i);
+            result.setStatus(new IDLabelPair(status.id(), status.name()));
+            result.setTags(Arrays.asList("regression", suite));
+            result.setOS("Linux");
+            result.setOSVersion("6.1");
+            result.setBrowser(BROWSERS[random.nextInt(BROWSERS.length)]);
+            result.setStartDateInstant(Instant.ofEpochSecond(1709258400L + i, i % 2 == 0 ? 0 : 250_000_000));
+            result.setDuration(random.nextInt(5000) / 1000.0);
+            if (status == AutomationResultStatus.FAILED) {
+                result.setErrorMessage("Expected <button id='submit'> to be visible & enabled, but it was hidden.\n"
+                    + "\tat LoginPage.submit(LoginPage.java:42)");
+            }
+            build.addResult(result);
+        }
+        return build;
+    }
+
+    /**
+     * Builds an automation suites response, with the properties in the server's order. Run configurations and build
+     * parameters name their type last.
+     *
+     * @param suiteCount Number of suites in the response
+     * @return The response JSON
+     */
+    public static String automationSuitesJson(final int suiteCount) {
+        StringBuilder builder = new StringBuilder("{\"automationSuitesData\":[");
+        for (int i = 0; i < suiteCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"active\":").append(i % 7 != 0)
+                .append(",\"createdInfo\":{\"dateTime\":\"2022-02-24T21:55:27Z\",\"user\":{\"firstName\":\"System\",")
+                .append("\"id\":1,\"lastName\":\"Administrator\",\"mi\":\"\",\"username\":\"Administrator\"}},")
+                .append("\"description\":\"Nightly suite \\u00e9 <").append(i).append(">\",\"id\":").append(i + 1)
+                .append(",\"modifiedInfo\":{\"dateTime\":\"2022-03-0").append(i % 9 + 1).append("T08:15:00.")
+                .append(String.format("%03d", i % 1000)).append("Z\",\"user\":{\"firstName\":\"Pat\",\"id\":2,")
+                .append("\"lastName\":\"Smith\",\"mi\":null,\"username\":\"psmith\"}},")
+                .append("\"name\":\"Suite ").append(i + 1).append("\",\"owners\":[{\"firstName\":\"Pat\",\"id\":2,")
+                .append("\"lastName\":\"Smith\",\"mi\":\"Q\",\"username\":\"psmith\"}],\"runConfiguration\":{")
+                .append("\"automatedTestConfig\":{\"id\":1,\"name\":\"Jenkins Test Configuration\"},")
+                .append("\"jenkins\":{\"defaultBuildParameters\":[")
+                .append("{\"name\":\"BRANCH\",\"text\":\"main\",\"type\":\"text\"},")
+                .append("{\"name\":\"TOKEN\",\"password\":\"secret\",\"type\":\"password\"},")
+                .append("{\"name\":\"NODE\",\"type\":\"ignore\"}],")
+                .append("\"projectName\":\"Project").append(i % 10).append("\",\"remoteAuthenticationToken\":null},")
+                .append("\"type\":\"jenkins\"},\"scriptIDPrefix\":\"_HALM\",\"self\":\"https://localhost:8443/")
+                .append("helix-alm/api/v0/Traditional_Template/automationSuites/").append(i + 1)
+                .append("\",\"testCaseIDs\":[").append(i).append(',').append(i + 1).append(',').append(i + 2)
+                .append("]}");
+        }
+        return builder.append("],\"self\":\"https://localhost:8443/helix-alm/api/v0/Traditional_Template/")
+            .append("automationSuites\"}").toString();
+    }
+}
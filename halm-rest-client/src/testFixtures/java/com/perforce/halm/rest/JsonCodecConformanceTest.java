@@ -0,0 +1,170 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.google.gson.Gson;
+import com.perforce.halm.rest.responses.ErrorResponse;
+import com.perforce.halm.rest.responses.MenuResponse;
+import com.perforce.halm.rest.responses.ProjectListResponse;
+import com.perforce.halm.rest.responses.SubmitAutomationBuildResponse;
+import com.perforce.halm.rest.types.NameValuePair;
+import com.perforce.halm.rest.types.VersionInfo;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import com.perforce.halm.rest.types.automation.jenkins.AutomationSuiteRunConfigurationJenkins;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuite;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuiteRunConfiguration;
+import com.perforce.halm.rest.types.automation.suite.AutomationSuitesContainer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a {@link JsonCodec} reads and writes the same JSON as the default Gson codec. Extend it in each codec's
+ * tests, it has no tests of its own.
+ */
+public abstract class JsonCodecConformanceTest {
+    /**
+     * The client's default configuration, what every codec is measured against.
+     */
+    protected static final Gson REFERENCE = CodecRegistry.getDefault().getGson();
+
+    private static final String RUN_CONFIGURATION = "\"automatedTestConfig\":{\"id\":1,\"name\":\"Jenkins\"},"
+        + "\"jenkins\":{\"defaultBuildParameters\":[{\"type\":\"text\",\"name\":\"BRANCH\",\"text\":\"main\"},"
+        + "{\"name\":\"NODE\",\"type\":\"ignore\"}],\"projectName\":\"HelixALM_RESTAPI\"}";
+
+    /**
+     * @return The codec under test
+     */
+    protected abstract JsonCodec codec();
+
+    @Test
+    void writesAutomationBuildLikeGson() throws IOException {
+        AutomationBuild build = ConformanceData.newAutomationBuild(100);
+        assertEquals(REFERENCE.toJson(build, AutomationBuild.class), this.write(build, AutomationBuild.class));
+    }
+
+    @Test
+    void escapesStringsLikeGson() throws IOException {
+        AutomationResult result = new AutomationResult();
+        result.setName("<script>alert('x & y = z')</script>");
+        result.setErrorMessage("quote \" backslash \\ slash / tab \t newline \n return \r formfeed \f backspace \b "
+            + "controls \u0000\u0001\u001f delete \u007f separators \u2028\u2029 accent \u00e9 emoji \ud83d\ude00");
+        result.addProperty(new NameValuePair("", null));
+
+        assertEquals(REFERENCE.toJson(result, AutomationResult.class), this.write(result, AutomationResult.class));
+    }
+
+    @Test
+    void writesNull() throws IOException {
+        assertEquals("null", this.write(null, AutomationBuild.class));
+    }
+
+    @Test
+    void readsAutomationBuild() throws IOException {
+        String json = REFERENCE.toJson(ConformanceData.newAutomationBuild(100), AutomationBuild.class);
+        this.assertReadsLikeGson(json, AutomationBuild.class);
+    }
+
+    @Test
+    void readsAutomationSuites() throws IOException {
+        String json = ConformanceData.automationSuitesJson(20);
+        this.assertReadsLikeGson(json, AutomationSuitesContainer.class);
+
+        AutomationSuite suite = ((AutomationSuitesContainer) this.read(json, AutomationSuitesContainer.class))
+            .getAutomationSuitesData().get(1);
+        assertArrayEquals(new int[] {1, 2, 3}, suite.getTestCaseIDArray());
+        assertEquals("2022-03-02T08:15:00.001Z", suite.getModifiedInfo().getDateTime().toString());
+        assertEquals("Project1", ((AutomationSuiteRunConfigurationJenkins) suite.getRunConfiguration())
+            .getJenkins().getProjectName());
+    }
+
+    @Test
+    void readsResponses() throws IOException {
+        this.assertReadsLikeGson(ConformanceData.PROJECTS_JSON, ProjectListResponse.class);
+        this.assertReadsLikeGson(ConformanceData.MENU_JSON, MenuResponse.class);
+        this.assertReadsLikeGson(ConformanceData.VERSIONS_JSON, VersionInfo.class);
+        this.assertReadsLikeGson(ConformanceData.ERROR_JSON, ErrorResponse.class);
+        this.assertReadsLikeGson(ConformanceData.SUBMIT_BUILD_JSON, SubmitAutomationBuildResponse.class);
+        this.assertReadsLikeGson(ConformanceData.TOKEN_JSON, AuthInfoToken.class);
+    }
+
+    @Test
+    void readsNullsAndUnknownPropertiesLikeGson() throws IOException {
+        this.assertReadsLikeGson("{\"active\":null,\"description\":null,\"id\":3,\"owners\":null,"
+            + "\"unknown\":{\"nested\":[1,{\"a\":null}]},\"testCaseIDs\":null}", AutomationSuite.class);
+        assertNull(this.read("null", AutomationSuite.class));
+        assertNull(this.read("", AutomationSuite.class));
+    }
+
+    @Test
+    void readsTypeInAnyPosition() throws IOException {
+        for (String json : new String[] {"{\"type\":\"jenkins\"," + RUN_CONFIGURATION + "}",
+                                         "{" + RUN_CONFIGURATION + ",\"type\":\"jenkins\"}"}) {
+            Object configuration = this.read(json, AutomationSuiteRunConfiguration.class);
+            assertInstanceOf(AutomationSuiteRunConfigurationJenkins.class, configuration);
+            assertEquals(REFERENCE.toJson(REFERENCE.fromJson(json, AutomationSuiteRunConfiguration.class)),
+                REFERENCE.toJson(configuration));
+        }
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertThrows(RuntimeException.class,
+            () -> this.read("{\"type\":\"unknown\"}", AutomationSuiteRunConfiguration.class));
+        assertThrows(RuntimeException.class,
+            () -> this.read("{" + RUN_CONFIGURATION + "}", AutomationSuiteRunConfiguration.class));
+        assertThrows(RuntimeException.class, () -> this.read("{\"id\":1", AutomationSuite.class));
+        assertThrows(RuntimeException.class, () -> this.read("{\"id\":1} {}", AutomationSuite.class));
+    }
+
+    /**
+     * Reads the JSON with both the codec and Gson, then checks both give the same JSON when written with Gson.
+     */
+    private void assertReadsLikeGson(final String json, final Type type) throws IOException {
+        Object expected = REFERENCE.fromJson(json, type);
+        Object actual = this.read(json, type);
+        assertNotNull(actual);
+        assertSame(expected.getClass(), actual.getClass());
+        assertEquals(REFERENCE.toJson(expected, type), REFERENCE.toJson(actual, type));
+    }
+
+    private String write(final Object value, final Type type) throws IOException {
+        StringWriter writer = new StringWriter();
+        this.codec().toJson(value, type, writer);
+        return writer.toString();
+    }
+
+    private Object read(final String json, final Type type) throws IOException {
+        return this.codec().fromJson(new StringReader(json), type);
+    }
+}
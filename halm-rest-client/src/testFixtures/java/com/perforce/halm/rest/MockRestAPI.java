@@ -0,0 +1,139 @@
+/*
+ * *****************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2022, Perforce Software, Inc.  
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of 
+ * this software and associated documentation files (the "Software"), to deal in 
+ * the Software without restriction, including without limitation the rights to use, 
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the 
+ * Software, and to permit persons to whom the Software is furnished to do so, 
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all 
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR 
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, 
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE 
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER 
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, 
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE 
+ * SOFTWARE.
+ * *****************************************************************************
+ */
+
+package com.perforce.halm.rest;
+
+import com.perforce.halm.rest.types.IDLabelPair;
+import com.perforce.halm.rest.types.automation.build.AutomationBuild;
+import com.perforce.halm.rest.types.automation.build.AutomationResult;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Helpers for tests that run a client against a {@link MockWebServer} standing in for the Helix ALM REST API.
+ */
+public final class MockRestAPI {
+    /**
+     * Answers the requests that aren't for a project auth token.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param request The request
+         * @return The response to send
+         * @throws InterruptedException If the handler was interrupted while delaying the response
+         */
+        MockResponse handle(RecordedRequest request) throws InterruptedException;
+    }
+
+    /**
+     * Constructor, private due to static class
+     */
+    private MockRestAPI() {}
+
+    /**
+     * Creates a dispatcher that answers project auth token requests with {@link #tokenJson()}, and passes every other
+     * request to the handler.
+     *
+     * @param handler Answers the other requests
+     * @return The dispatcher
+     */
+    public static Dispatcher dispatcher(final Handler handler) {
+        return new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if (isTokenRequest(request)) {
+                    return new MockResponse().setBody(tokenJson());
+                }
+                return handler.handle(request);
+            }
+        };
+    }
+
+    /**
+     * @param request The request
+     * @return Whether the request is for a project auth token
+     */
+    public static boolean isTokenRequest(final RecordedRequest request) {
+        return request.getPath() != null && request.getPath().endsWith("/token");
+    }
+
+    /**
+     * @return Response body of a project auth token request, a token "abc" that is valid for an hour
+     */
+    public static String tokenJson() {
+        return tokenJson(Instant.now().plus(1, ChronoUnit.HOURS), "abc");
+    }
+
+    /**
+     * @param expiresOn When the token expires, in server time
+     * @param accessToken The token
+     * @return Response body of a project auth token request
+     */
+    public static String tokenJson(final Instant expiresOn, final String accessToken) {
+        return String.format("{\"tokenType\":\"Bearer\",\"expiresOn\":\"%s\",\"accessToken\":\"%s\"}",
+            expiresOn.truncatedTo(ChronoUnit.SECONDS), accessToken);
+    }
+
+    /**
+     * @param server The mock server
+     * @return Connection information for the mock server
+     */
+    public static ConnectionInfo connectionInfo(final MockWebServer server) {
+        return new ConnectionInfo(String.format("http://%s:%d", server.getHostName(), server.getPort()), "administrator", "");
+    }
+
+    /**
+     * @param number The build number
+     * @param resultCount Number of results, see {@link #newResult(int)}
+     * @return A new automation build
+     */
+    public static AutomationBuild newBuild(final String number, final int resultCount) {
+        AutomationBuild build = new AutomationBuild();
+        build.setNumber(number);
+        for (int i = 0; i < resultCount; i++) {
+            build.addResult(newResult(i));
+        }
+        return build;
+    }
+
+    /**
+     * @param i Index of the result in its build
+     * @return A new passed result named "Result i" that took i tenths of a second
+     */
+    public static AutomationResult newResult(final int i) {
+        AutomationResult result = new AutomationResult();
+        result.setName("Result " + i);
+        result.setStatus(new IDLabelPair(1, "Passed"));
+        result.setDuration(i * 100);
+        return result;
+    }
+}